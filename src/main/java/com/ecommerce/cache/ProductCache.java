@@ -0,0 +1,100 @@
+package com.ecommerce.cache;
+
+import com.ecommerce.datasource.ReadRouting;
+import com.ecommerce.model.Product;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+// In-process read-through cache for products keyed by id.
+// Size bounded with Caffeine's W-TinyLFU eviction (recency window + frequency filter) and a TTL as a
+// safety net for changes made outside this node. Entries are copied on the way in and out so callers
+// can never mutate the shared cached instance. Hit ratio and evictions are published as cache.* with cache=products.
+@Component
+public class ProductCache implements MeterBinder {
+
+    private final Cache<Long, Product> cache;
+
+    @Autowired
+    public ProductCache(@Value("${product.cache.max-size:10000}") long maxSize,
+                        @Value("${product.cache.ttl:10m}") Duration ttl) {
+        this(maxSize, ttl, Ticker.systemTicker());
+    }
+
+    ProductCache(long maxSize, Duration ttl, Ticker ticker) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    // Returns the cached product, or loads it with the given loader on a miss.
+    // Returns null when the loader does not find the product (misses are not cached).
+    // The loader reads the primary: an entry is kept until the TTL, so a lagging replica's copy would be too.
+    public Product get(Long id, Function<Long, Optional<Product>> loader) {
+        Product product = cache.get(id, key -> ReadRouting.onPrimary(() -> loader.apply(key))
+                .map(ProductCache::copyOf).orElse(null));
+        return product == null ? null : copyOf(product);
+    }
+
+    // Returns the cached product without loading it, or null when it is not cached
+    public Product getIfPresent(Long id) {
+        Product product = cache.getIfPresent(id);
+        return product == null ? null : copyOf(product);
+    }
+
+    public void put(Product product) {
+        if (product != null && product.getId() != null) {
+            cache.put(product.getId(), copyOf(product));
+        }
+    }
+
+    public void evict(Long id) {
+        if (id != null) {
+            cache.invalidate(id);
+        }
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    // Hit/miss/eviction counters since startup
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "products");
+    }
+
+    // Runs pending maintenance (evictions, expirations) immediately; mainly useful in tests
+    void cleanUp() {
+        cache.cleanUp();
+    }
+
+    private static Product copyOf(Product product) {
+        Product copy = new Product(product.getName(), product.getPrice(), product.getDescription());
+        copy.setId(product.getId());
+        copy.setVersion(product.getVersion()); // Updates start from the cached copy and are checked against it
+        return copy;
+    }
+}
@@ -0,0 +1,115 @@
+package com.ecommerce.cache;
+
+import com.ecommerce.model.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Objects;
+
+// Products already serialized to JSON, keyed by id, so popular products are not re-encoded by Jackson on
+// every response. Each entry keeps the field values it was encoded from and is only reused for a product with
+// the same values: a changed product is re-encoded on its next response, whichever node changed it, and an
+// entry can never be served stale. Pages are written as the cached products between brackets, which is
+// byte for byte what Jackson writes for the list. Published as cache.* with cache=product-json.
+@Component
+public class SerializedProductCache implements MeterBinder {
+
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, Entry> cache;
+
+    @Autowired
+    public SerializedProductCache(ObjectMapper objectMapper,
+                                  @Value("${product.json-cache.max-size:10000}") long maxSize) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    // The product's JSON, from the cache when it was encoded from the same values
+    public byte[] toJson(Product product) throws IOException {
+        if (product == null) {
+            return NULL;
+        }
+        if (product.getId() == null) {
+            return objectMapper.writeValueAsBytes(product); // Not stored yet, nothing to key it by
+        }
+
+        Entry entry = cache.getIfPresent(product.getId());
+        if (entry != null && entry.matches(product)) {
+            return entry.json;
+        }
+        entry = new Entry(product, objectMapper.writeValueAsBytes(product));
+        cache.put(product.getId(), entry);
+        return entry.json;
+    }
+
+    // Writes the products as a JSON array
+    public void writeJsonArray(List<? extends Product> products, OutputStream out) throws IOException {
+        out.write('[');
+        for (int i = 0; i < products.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(toJson(products.get(i)));
+        }
+        out.write(']');
+    }
+
+    public void evict(Long id) {
+        if (id != null) {
+            cache.invalidate(id);
+        }
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    // Hit/miss/eviction counters since startup; a miss includes finding an entry for an older state of the product
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "product-json");
+    }
+
+    // JSON of one state of a product. Only the serialized fields are compared; the strings are usually the
+    // same instances, shared through the product cache, so the check is cheap.
+    private static final class Entry {
+
+        private final String name;
+        private final double price;
+        private final String description;
+        private final byte[] json;
+
+        private Entry(Product product, byte[] json) {
+            this.name = product.getName();
+            this.price = product.getPrice();
+            this.description = product.getDescription();
+            this.json = json;
+        }
+
+        private boolean matches(Product product) {
+            return Double.compare(price, product.getPrice()) == 0
+                    && Objects.equals(name, product.getName())
+                    && Objects.equals(description, product.getDescription());
+        }
+    }
+}
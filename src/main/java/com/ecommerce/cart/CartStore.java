@@ -0,0 +1,32 @@
+package com.ecommerce.cart;
+
+import com.ecommerce.dto.CartVersion;
+import com.ecommerce.model.Cart;
+
+// Where CartService keeps carts. Selected with cart.store.mode:
+//  - jpa (default): every change is written to the database straight away (JpaCartStore)
+//  - memory: carts live in this node's memory and are written behind in batches (InMemoryCartStore)
+public interface CartStore {
+
+    // The customer's cart, created empty if there is none yet
+    Cart getCart(Long customerId);
+
+    // The current version of the customer's cart without loading its lines, or null if there is no cart yet.
+    // Always read before the cart itself when both are needed, so a version never labels older content.
+    CartVersion getVersion(Long customerId);
+
+    // Adds quantity to the product's line (creating the line if needed) and returns the updated cart
+    Cart addItem(Long customerId, Long productId, int quantity);
+
+    // Removes the product's line; returns false if the cart had no line for it
+    boolean removeItem(Long customerId, Long productId);
+
+    // Empties and removes the customer's cart
+    void clear(Long customerId);
+
+    // Removes the cart an order was just placed from, as part of the checkout transaction. A line added or
+    // changed since the cart was read is never dropped without having been ordered. Must also hold a database
+    // lock until the transaction ends that keeps another checkout of the customer from getting past this point,
+    // so the customer's outbox events are inserted (and numbered) in commit order.
+    void clearOrdered(Long customerId, Cart cart);
+}
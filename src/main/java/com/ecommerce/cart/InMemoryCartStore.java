@@ -0,0 +1,408 @@
+package com.ecommerce.cart;
+
+import com.ecommerce.dto.CartVersion;
+import com.ecommerce.exception.CartServiceException;
+import com.ecommerce.model.Cart;
+import com.ecommerce.model.CartItem;
+import com.ecommerce.repository.CartItemRepository;
+import com.ecommerce.repository.CartRepository;
+import com.ecommerce.repository.CustomerRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Cart store that keeps carts in this node's memory and writes them to the database behind the request.
+// Reads and changes never touch the database once a cart is loaded. Changed ("dirty") carts are flushed in
+// batches on a timer and on shutdown, so a crash loses at most cart.store.memory.flush-interval-ms of changes.
+// Requests for one customer must reach the same node (sticky routing) when running several nodes.
+@Component
+@ConditionalOnProperty(name = "cart.store.mode", havingValue = "memory")
+public class InMemoryCartStore implements CartStore {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryCartStore.class);
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${cart.store.memory.flush-batch-size:200}")
+    private int flushBatchSize = 200;
+
+    @Value("${cart.store.memory.flush-on-shutdown:true}")
+    private boolean flushOnShutdown = true;
+
+    // Clean carts not used for this long are dropped from memory (they are reloaded on next use)
+    @Value("${cart.store.memory.idle-eviction:30m}")
+    private Duration idleEviction = Duration.ofMinutes(30);
+
+    private final Map<Long, CartState> carts = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyCustomerIds = ConcurrentHashMap.newKeySet();
+
+    // Each customer's cart is guarded by one of these locks, so different customers rarely contend.
+    // Explicit locks rather than synchronized: a cart load holds the lock across a query, and a virtual
+    // thread blocking inside synchronized would pin its carrier thread (Java 21).
+    private final Lock[] stripes;
+
+    private final Lock flushLock = new ReentrantLock();
+
+    // Cart versions handed out by this store: every load and every change takes the next one, so a version
+    // is never reused, not even for a cart reloaded after eviction. Starting from the clock keeps that true
+    // across restarts. Independent of the stored cart's @Version, which only moves when a cart is flushed.
+    private final AtomicLong versions = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    public InMemoryCartStore(@Value("${cart.store.memory.stripes:64}") int stripeCount) {
+        stripes = new Lock[Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public Cart getCart(Long customerId) {
+        Lock lock = stripe(customerId);
+        lock.lock();
+        try {
+            return loaded(customerId).toCart(customerId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Answered from memory once the cart is loaded
+    @Override
+    public CartVersion getVersion(Long customerId) {
+        Lock lock = stripe(customerId);
+        lock.lock();
+        try {
+            CartState state = loaded(customerId);
+            return new CartVersion(state.cartId, state.version);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Cart addItem(Long customerId, Long productId, int quantity) {
+        Lock lock = stripe(customerId);
+        lock.lock();
+        try {
+            CartState state = loaded(customerId);
+            state.quantities.merge(productId, quantity, Integer::sum);
+            changed(customerId, state);
+            return state.toCart(customerId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean removeItem(Long customerId, Long productId) {
+        Lock lock = stripe(customerId);
+        lock.lock();
+        try {
+            CartState state = loaded(customerId);
+            boolean removed = state.quantities.remove(productId) != null;
+            if (removed) {
+                changed(customerId, state);
+            }
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Empties the cart once the surrounding transaction (if any) has committed, so a failed one keeps it
+    @Override
+    public void clear(Long customerId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clearNow(customerId);
+                }
+            });
+        } else {
+            clearNow(customerId);
+        }
+    }
+
+    private void clearNow(Long customerId) {
+        Lock lock = stripe(customerId);
+        lock.lock();
+        try {
+            CartState state = loaded(customerId);
+            state.quantities.clear();
+            changed(customerId, state);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The stored cart is deleted by the checkout transaction; in memory, only the ordered lines are removed
+    // once the order has committed. Units added meanwhile stay, and the next flush stores them again.
+    // Deleting the stored cart locks its rows until commit; a cart not flushed yet locks the customer row instead.
+    @Override
+    public void clearOrdered(Long customerId, Cart cart) {
+        if (cart.getId() != null) {
+            cartItemRepository.deleteAllOfCart(cart.getId());
+            cartRepository.deleteCart(cart.getId());
+        } else {
+            customerRepository.findLockedById(customerId);
+        }
+        Map<Long, Integer> ordered = new HashMap<>();
+        cart.getItems().forEach(item -> ordered.merge(item.getProductId(), item.getQuantity(), Integer::sum));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removeOrderedNow(customerId, ordered);
+                }
+            });
+        } else {
+            removeOrderedNow(customerId, ordered);
+        }
+    }
+
+    private void removeOrderedNow(Long customerId, Map<Long, Integer> ordered) {
+        Lock lock = stripe(customerId);
+        lock.lock();
+        try {
+            CartState state = loaded(customerId);
+            // Subtract what was ordered; a line raised since pricing keeps only the units added after it
+            ordered.forEach((productId, quantity) -> state.quantities.computeIfPresent(productId,
+                    (id, current) -> current > quantity ? current - quantity : null));
+            state.cartId = null; // Deleted; the next flush stores any remaining lines as a new cart
+            changed(customerId, state);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Writes every dirty cart to the database, flushBatchSize carts per transaction
+    @Scheduled(fixedDelayString = "${cart.store.memory.flush-interval-ms:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushDirtyCarts();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushDirtyCarts() {
+        List<Long> pending = new ArrayList<>(dirtyCustomerIds);
+        for (int from = 0; from < pending.size(); from += flushBatchSize) {
+            List<CartSnapshot> batch = takeSnapshots(pending.subList(from, Math.min(from + flushBatchSize, pending.size())));
+            if (batch.isEmpty()) {
+                continue;
+            }
+            try {
+                Map<Long, Long> cartIds = persist(batch);
+                rememberCartIds(cartIds);
+            } catch (Exception ex) {
+                // Keep the carts dirty so the next run writes their latest state
+                batch.forEach(snapshot -> dirtyCustomerIds.add(snapshot.customerId));
+                log.warn("Failed to flush {} carts, will retry: {}", batch.size(), ex.getMessage());
+            }
+        }
+        evictIdleCarts();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        if (flushOnShutdown) {
+            flush();
+        }
+    }
+
+    // Number of carts with changes not yet written to the database
+    public int dirtyCount() {
+        return dirtyCustomerIds.size();
+    }
+
+    // Copies each cart's current lines and marks it clean; later changes mark it dirty again
+    private List<CartSnapshot> takeSnapshots(List<Long> customerIds) {
+        List<CartSnapshot> snapshots = new ArrayList<>(customerIds.size());
+        for (Long customerId : customerIds) {
+            Lock lock = stripe(customerId);
+            lock.lock();
+            try {
+                CartState state = carts.get(customerId);
+                if (state != null && dirtyCustomerIds.remove(customerId)) {
+                    snapshots.add(new CartSnapshot(customerId, new LinkedHashMap<>(state.quantities)));
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return snapshots;
+    }
+
+    // Brings the stored carts in line with the snapshots: lines are updated in place, added or removed,
+    // empty carts are deleted. Returns the stored cart id of every non-empty cart.
+    private Map<Long, Long> persist(List<CartSnapshot> batch) {
+        return transactionTemplate.execute(status -> {
+            Map<Long, Cart> stored = cartRepository.findAllWithItemsByCustomerIdIn(
+                            batch.stream().map(snapshot -> snapshot.customerId).toList()).stream()
+                    .collect(Collectors.toMap(cart -> cart.getCustomer().getId(), Function.identity()));
+
+            Map<Long, Long> cartIds = new HashMap<>();
+            for (CartSnapshot snapshot : batch) {
+                Cart cart = stored.get(snapshot.customerId);
+                if (snapshot.quantities.isEmpty()) {
+                    if (cart != null) {
+                        cartRepository.delete(cart);
+                    }
+                    continue;
+                }
+                if (cart == null) {
+                    cart = new Cart();
+                    cart.setCustomer(customerRepository.getReferenceById(snapshot.customerId));
+                }
+                applySnapshot(cart, snapshot.quantities);
+                cartIds.put(snapshot.customerId, cartRepository.save(cart).getId());
+            }
+            return cartIds;
+        });
+    }
+
+    private static void applySnapshot(Cart cart, Map<Long, Integer> quantities) {
+        Map<Long, Integer> remaining = new LinkedHashMap<>(quantities);
+        Iterator<CartItem> items = cart.getItems().iterator();
+        while (items.hasNext()) {
+            CartItem item = items.next();
+            Integer quantity = remaining.remove(item.getProductId());
+            if (quantity == null) {
+                items.remove(); // Orphan removal deletes the line
+            } else if (quantity != item.getQuantity()) {
+                item.setQuantity(quantity);
+            }
+        }
+        remaining.forEach((productId, quantity) -> cart.addItem(new CartItem(productId, quantity)));
+    }
+
+    private void rememberCartIds(Map<Long, Long> cartIds) {
+        cartIds.forEach((customerId, cartId) -> {
+            Lock lock = stripe(customerId);
+            lock.lock();
+            try {
+                CartState state = carts.get(customerId);
+                if (state != null) {
+                    state.cartId = cartId;
+                }
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    private void evictIdleCarts() {
+        long cutoff = System.nanoTime() - idleEviction.toNanos();
+        for (Map.Entry<Long, CartState> entry : carts.entrySet()) {
+            Long customerId = entry.getKey();
+            if (entry.getValue().lastAccess - cutoff < 0) {
+                Lock lock = stripe(customerId);
+                lock.lock();
+                try {
+                    CartState state = carts.get(customerId);
+                    if (state != null && state.lastAccess - cutoff < 0 && !dirtyCustomerIds.contains(customerId)) {
+                        carts.remove(customerId);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    // Marks the cart for flushing and gives it a new version. Caller holds the stripe lock.
+    private void changed(Long customerId, CartState state) {
+        state.version = versions.incrementAndGet();
+        dirtyCustomerIds.add(customerId);
+    }
+
+    // Returns the customer's cart state, loading it from the database on first use. Caller holds the stripe lock.
+    private CartState loaded(Long customerId) {
+        CartState state = carts.get(customerId);
+        if (state == null) {
+            state = new CartState();
+            state.version = versions.incrementAndGet();
+            Cart stored = cartRepository.findByCustomerId(customerId).orElse(null);
+            if (stored != null) {
+                state.cartId = stored.getId();
+                for (CartItem item : stored.getItems()) {
+                    state.quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+                }
+            } else if (!customerRepository.existsById(customerId)) {
+                throw new CartServiceException("Customer not found: " + customerId);
+            }
+            carts.put(customerId, state);
+        }
+        state.lastAccess = System.nanoTime();
+        return state;
+    }
+
+    private Lock stripe(Long customerId) {
+        return stripes[Long.hashCode(customerId) & (stripes.length - 1)];
+    }
+
+    // Mutable per-customer state; only touched while holding the customer's stripe lock
+    private static final class CartState {
+        private Long cartId;
+        private long version;
+        private final Map<Long, Integer> quantities = new LinkedHashMap<>(); // productId -> quantity, in insertion order
+        private long lastAccess;
+
+        // Detached Cart for callers; changing it does not change the store
+        private Cart toCart(Long customerId) {
+            List<CartItem> items = new ArrayList<>(quantities.size());
+            quantities.forEach((productId, quantity) -> items.add(new CartItem(productId, quantity)));
+            Cart cart = new Cart(null, items);
+            cart.setId(cartId);
+            cart.setVersion(version);
+            return cart;
+        }
+    }
+
+    // A dirty cart's lines as of the moment it was taken for flushing
+    private static final class CartSnapshot {
+        private final Long customerId;
+        private final Map<Long, Integer> quantities;
+
+        private CartSnapshot(Long customerId, Map<Long, Integer> quantities) {
+            this.customerId = customerId;
+            this.quantities = quantities;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.ecommerce.cart;
+
+import com.ecommerce.dto.CartVersion;
+import com.ecommerce.exception.CartServiceException;
+import com.ecommerce.model.Cart;
+import com.ecommerce.model.CartItem;
+import com.ecommerce.model.Customer;
+import com.ecommerce.repository.CartItemRepository;
+import com.ecommerce.repository.CartRepository;
+import com.ecommerce.repository.CustomerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+// Cart store that reads and writes the database on every call
+@Component
+@ConditionalOnProperty(name = "cart.store.mode", havingValue = "jpa", matchIfMissing = true)
+public class JpaCartStore implements CartStore {
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Override
+    public Cart getCart(Long customerId) {
+        return cartRepository.findByCustomerId(customerId)
+                .orElseGet(() -> createCart(customerId));
+    }
+
+    @Override
+    public CartVersion getVersion(Long customerId) {
+        return cartRepository.findVersionByCustomerId(customerId).orElse(null);
+    }
+
+    // The line is updated in place with one atomic statement instead of loading and merging the whole cart.
+    // The line change and the version bump commit together, with the cart row locked from the start, so a
+    // checkout either sees both or waits for them: it can never delete units it did not price.
+    @Override
+    @Transactional
+    public Cart addItem(Long customerId, Long productId, int quantity) {
+        Long cartId = lockCart(customerId).getId();
+
+        upsertCartLine(cartId, productId, quantity);
+        cartRepository.incrementVersion(cartId);
+
+        return getCart(customerId);
+    }
+
+    // Removes the line with a single delete statement, under the cart lock like addItem
+    @Override
+    @Transactional
+    public boolean removeItem(Long customerId, Long productId) {
+        Cart cart = cartRepository.findLockedByCustomerId(customerId).orElse(null);
+        if (cart == null || cartItemRepository.deleteLine(cart.getId(), productId) == 0) {
+            return false;
+        }
+        cartRepository.incrementVersion(cart.getId());
+        return true;
+    }
+
+    @Override
+    public void clear(Long customerId) {
+        Cart cart = getCart(customerId);
+        cart.getItems().clear();
+        cartRepository.save(cart);
+        // Delete the cart if it's empty
+        if (cart.getItems().isEmpty()) {
+            cartRepository.delete(cart);
+        }
+    }
+
+    // Locks the cart, then two deletes. If the cart's version moved on, a line was added or changed after the
+    // order was priced: the checkout fails rather than delete it, and the client can review the cart and retry.
+    // The cart row is locked before its lines, in the same order as addItem and removeItem take their locks, and
+    // stays locked until commit, which holds back line changes and any other checkout of the same cart.
+    @Override
+    @Transactional
+    public void clearOrdered(Long customerId, Cart cart) {
+        Long storedVersion = cartRepository.findLockedVersionById(cart.getId()).orElse(null);
+        if (storedVersion == null || storedVersion != cart.getVersion()) {
+            throw new CartServiceException("The cart changed during checkout; please review it and try again");
+        }
+        cartItemRepository.deleteAllOfCart(cart.getId());
+        cartRepository.deleteCart(cart.getId());
+    }
+
+    // The customer's cart, locked. Without one, the customer row is locked while it is created, so concurrent
+    // first adds create a single cart: the ones that waited find it when they look again.
+    private Cart lockCart(Long customerId) {
+        Optional<Cart> cart = cartRepository.findLockedByCustomerId(customerId);
+        if (cart.isPresent()) {
+            return cart.get();
+        }
+        Customer customer = customerRepository.findLockedById(customerId)
+                .orElseThrow(() -> new CartServiceException("Customer not found: " + customerId));
+        return cartRepository.findLockedByCustomerId(customerId).orElseGet(() -> {
+            Cart newCart = new Cart();
+            newCart.setCustomer(customer);
+            return cartRepository.saveAndFlush(newCart);
+        });
+    }
+
+    // Creates the customer's cart; if a concurrent request created it first (unique customer_id),
+    // that cart is used instead
+    private Cart createCart(Long customerId) {
+        Customer customer = customerRepository.findById(customerId)
+                .orElseThrow(() -> new CartServiceException("Customer not found: " + customerId));
+        Cart newCart = new Cart();
+        newCart.setCustomer(customer);
+        try {
+            return cartRepository.saveAndFlush(newCart);
+        } catch (DataIntegrityViolationException ex) {
+            return cartRepository.findByCustomerId(customerId).orElseThrow(() -> ex);
+        }
+    }
+
+    // One UPDATE when the line exists, otherwise an INSERT. The caller holds the cart lock, so no concurrent
+    // add can insert the same line in between.
+    private void upsertCartLine(Long cartId, Long productId, int quantity) {
+        if (cartItemRepository.incrementQuantity(cartId, productId, quantity) == 0) {
+            cartItemRepository.saveAndFlush(new CartItem(cartRepository.getReferenceById(cartId), productId, quantity));
+        }
+    }
+}
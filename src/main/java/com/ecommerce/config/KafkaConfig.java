@@ -1,49 +1,128 @@
 package com.ecommerce.config;
 
-import com.ecommerce.model.Order;
-import com.ecommerce.model.Product;
+import com.ecommerce.kafka.ProductChangedEvent;
+import com.ecommerce.kafka.codec.BinaryEventDeserializer;
+import com.ecommerce.kafka.codec.BinaryEventSerializer;
+import com.ecommerce.kafka.codec.ProductChangedEventCodec;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
-import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 
 import java.util.HashMap;
 import java.util.Map;
 
 @Configuration
+@EnableKafka
 public class KafkaConfig {
 
-    private Map<String, Object> producerConfigs() {
+    @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+
+    // Producer tuning shared by every producer; see the kafka.producer block in application.yaml
+    // and the kafka-throughput / kafka-low-latency profiles
+    @Value("${kafka.producer.linger-ms:5}")
+    private int lingerMs = 5;
+
+    @Value("${kafka.producer.batch-size:32768}")
+    private int batchSize = 32768;
+
+    @Value("${kafka.producer.compression-type:lz4}")
+    private String compressionType = "lz4";
+
+    @Value("${kafka.producer.acks:all}")
+    private String acks = "all";
+
+    @Value("${kafka.producer.enable-idempotence:true}")
+    private boolean enableIdempotence = true;
+
+    @Value("${kafka.producer.max-in-flight:5}")
+    private int maxInFlight = 5;
+
+    // Absent when only the Kafka configuration is started (benchmarks, Kafka tests)
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    Map<String, Object> producerConfigs() {
         Map<String, Object> configProps = new HashMap<>();
-        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092"); // Ensure Kafka is running
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers); // Ensure Kafka is running
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class); // Key is a String
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class); // Value is serialized as JSON
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs); // How long to wait for a batch to fill
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize); // Max bytes per partition batch
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType); // Whole batches are compressed
+        configProps.put(ProducerConfig.ACKS_CONFIG, acks);
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, enableIdempotence);
+        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, maxInFlight);
         return configProps;
     }
 
-    // Producer Factory for Order
+    // Producer Factory for order events relayed from the outbox (payload is already serialized).
+    // The outbox relies on idempotent, ordered delivery, so these settings are kept whatever the profile says.
     @Bean
-    public ProducerFactory<String, Order> orderProducerFactory() {
-        return new DefaultKafkaProducerFactory<>(producerConfigs());
+    public ProducerFactory<String, byte[]> orderProducerFactory() {
+        Map<String, Object> configProps = producerConfigs();
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class); // Already encoded by OrderCreatedEventCodec
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true); // No duplicates from producer retries
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, Math.min(maxInFlight, 5)); // Above 5 idempotence cannot keep order
+        return withClientMetrics(new DefaultKafkaProducerFactory<>(configProps));
     }
 
     @Bean
-    public KafkaTemplate<String, Order> orderKafkaTemplate() {
+    public KafkaTemplate<String, byte[]> orderKafkaTemplate() {
         return new KafkaTemplate<>(orderProducerFactory());
     }
 
-    // Producer Factory for Product
+    // Producer Factory for product change events, in the compact binary format
     @Bean
-    public ProducerFactory<String, Product> productProducerFactory() {
-        return new DefaultKafkaProducerFactory<>(producerConfigs());
+    public ProducerFactory<String, ProductChangedEvent> productProducerFactory() {
+        return withClientMetrics(new DefaultKafkaProducerFactory<>(producerConfigs(),
+                new StringSerializer(), new BinaryEventSerializer<>(new ProductChangedEventCodec())));
     }
 
     @Bean
-    public KafkaTemplate<String, Product> productKafkaTemplate() {
+    public KafkaTemplate<String, ProductChangedEvent> productKafkaTemplate() {
         return new KafkaTemplate<>(productProducerFactory());
     }
+
+    // Publishes the producers' own metrics (kafka.producer.*: request latency, record error and retry rates,
+    // buffer use); send latency and failures as seen by the application are KafkaTemplate's spring.kafka.template
+    private <V> ProducerFactory<String, V> withClientMetrics(DefaultKafkaProducerFactory<String, V> factory) {
+        meterRegistry.ifAvailable(registry -> factory.addListener(new MicrometerProducerListener<>(registry)));
+        return factory;
+    }
+
+    // Consumer Factory for product change events (used for cross-node cache invalidation)
+    @Bean
+    public ConsumerFactory<String, ProductChangedEvent> productEventConsumerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest"); // Only changes made after this node started matter
+        return new DefaultKafkaConsumerFactory<>(configProps, new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(new BinaryEventDeserializer<>(new ProductChangedEventCodec()))); // Skips poison messages
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ProductChangedEvent> productEventListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, ProductChangedEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(productEventConsumerFactory());
+        return factory;
+    }
 }
@@ -0,0 +1,24 @@
+package com.ecommerce.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Metrics served at /actuator/prometheus. Most come from Spring Boot and Spring Kafka as soon as Actuator is on
+// the classpath: http.server.requests per endpoint, spring.data.repository.invocations per repository method,
+// hikaricp.connections.* for pool saturation, spring.kafka.template for send latency and failures, and JVM
+// and Tomcat meters. On top of those:
+//  - service.method: every public method of the @Timed services (TimedAspect below)
+//  - http.server.requests.db.statements: SQL statements per request (RequestMetricsInterceptor)
+//  - cache.*: hits, misses and evictions of the product caches (they are MeterBinders)
+//  - kafka.producer.*: producer client metrics, including record errors and request latency (KafkaConfig)
+// Histograms and percentiles are configured under management.metrics.distribution in application.yaml.
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
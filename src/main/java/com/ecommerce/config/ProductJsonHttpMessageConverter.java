@@ -0,0 +1,79 @@
+package com.ecommerce.config;
+
+import com.ecommerce.cache.SerializedProductCache;
+import com.ecommerce.model.Product;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+
+// Writes Product and List<Product> response bodies from SerializedProductCache instead of running Jackson.
+// Registered ahead of the Jackson converter for writing only; request bodies are still read by Jackson.
+public class ProductJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private final SerializedProductCache serializedProductCache;
+
+    public ProductJsonHttpMessageConverter(SerializedProductCache serializedProductCache) {
+        super(MediaType.APPLICATION_JSON);
+        this.serializedProductCache = serializedProductCache;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Product.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return isProductOrProductList(type != null ? type : clazz) && canWrite(mediaType);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        if (body instanceof List<?> products) {
+            @SuppressWarnings("unchecked")
+            List<? extends Product> page = (List<? extends Product>) products;
+            serializedProductCache.writeJsonArray(page, outputMessage.getBody());
+        } else {
+            outputMessage.getBody().write(serializedProductCache.toJson((Product) body));
+        }
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Products are only written by this converter", inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Products are only written by this converter", inputMessage);
+    }
+
+    private static boolean isProductOrProductList(Type type) {
+        if (type instanceof Class<?> clazz) {
+            return Product.class.isAssignableFrom(clazz);
+        }
+        if (type instanceof ParameterizedType parameterized
+                && parameterized.getRawType() instanceof Class<?> raw && List.class.isAssignableFrom(raw)) {
+            Type element = parameterized.getActualTypeArguments()[0];
+            return element instanceof Class<?> clazz && Product.class.isAssignableFrom(clazz);
+        }
+        return false;
+    }
+}
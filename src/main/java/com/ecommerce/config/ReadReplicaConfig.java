@@ -0,0 +1,74 @@
+package com.ecommerce.config;
+
+import com.ecommerce.datasource.ReadReplicaDataSource;
+import com.ecommerce.datasource.ReadYourWritesFilter;
+import com.ecommerce.datasource.ReplicaProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// Read replicas, switched on by listing at least one under datasource.replicas. The application's DataSource
+// then hands out connections that pick their database at the first statement: read-only transactions
+// (@Transactional(readOnly = true), which includes Spring Data's findById/findAll) go to the replicas in turn,
+// everything else to the primary configured under spring.datasource. ReadRouting and ReadYourWritesFilter keep
+// reads on the primary where replica lag would show. Without replicas Spring Boot's single pool is used as before.
+@Configuration
+@ConditionalOnProperty(name = "datasource.replicas[0].url")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean
+    public ReadReplicaDataSource replicaDataSource(HikariDataSource primaryDataSource, DataSourceProperties primaryProperties,
+                                                   ReplicaProperties replicaProperties) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (ReplicaProperties.Replica replica : replicaProperties.getReplicas()) {
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(primaryProperties.determineDriverClassName())
+                    .url(replica.getUrl())
+                    .username(replica.getUsername() != null ? replica.getUsername() : primaryProperties.determineUsername())
+                    .password(replica.getPassword() != null ? replica.getPassword() : primaryProperties.determinePassword())
+                    .build();
+            pool.setPoolName("replica-" + (replicas.size() + 1));
+            if (primaryDataSource.getMaximumPoolSize() > 0) { // Sized like the primary when that is set
+                pool.setMaximumPoolSize(primaryDataSource.getMaximumPoolSize());
+            }
+            pool.setReadOnly(true);
+            replicas.add(pool);
+        }
+        return new ReadReplicaDataSource(primaryDataSource, replicas);
+    }
+
+    // Used by JPA and everything else that asks for the DataSource
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReadReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReplicaProperties replicaProperties) {
+        return new ReadYourWritesFilter(replicaProperties.getReadYourWritesWindow());
+    }
+}
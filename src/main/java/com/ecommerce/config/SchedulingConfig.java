@@ -0,0 +1,10 @@
+package com.ecommerce.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Enables @Scheduled background jobs (e.g. the outbox relay)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
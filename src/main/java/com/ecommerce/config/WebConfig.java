@@ -1,12 +1,26 @@
 package com.ecommerce.config;
 
+import com.ecommerce.cache.SerializedProductCache;
+import com.ecommerce.metrics.RequestMetricsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    @Autowired
+    private SerializedProductCache serializedProductCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")  // Allow all paths
@@ -15,4 +29,15 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedHeaders("*")  // Allow all headers
                 .allowCredentials(true);  // Allow credentials (cookies, etc.)
     }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestMetricsInterceptor(meterRegistry)); // SQL statements per request
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // First, so product responses are written from already serialized JSON instead of by Jackson
+        converters.add(0, new ProductJsonHttpMessageConverter(serializedProductCache));
+    }
 }
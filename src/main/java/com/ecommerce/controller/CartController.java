@@ -1,12 +1,16 @@
 package com.ecommerce.controller;
 
+import com.ecommerce.dto.CartVersion;
 import com.ecommerce.model.Cart;
 import com.ecommerce.service.CartService;
 import io.swagger.v3.oas.annotations.Operation;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/cart")
@@ -50,11 +54,23 @@ public class CartController {
     }
 
 
-    // View cart details endpoint
-    @Operation(summary = "getOrCreateCart", description = "Retrieves cart details based on customerId")
+    // View cart details endpoint. Conditional: a client sending the ETag of its copy (If-None-Match) gets
+    // 304 Not Modified while the cart is unchanged, decided from the cart's version alone
+    @Operation(summary = "getOrCreateCart", description = "Retrieves cart details based on customerId; returns 304 when If-None-Match carries the current ETag")
     @GetMapping
-    public ResponseEntity<Cart> getOrCreateCart(@RequestParam Long customerId) {
+    public ResponseEntity<Cart> getOrCreateCart(@RequestParam Long customerId, WebRequest request) {
+        // Only a conditional request is worth the extra version query
+        CartVersion version = request.getHeader(HttpHeaders.IF_NONE_MATCH) != null ? cartService.getCartVersion(customerId) : null;
+        if (version != null && request.checkNotModified(version.toETag())) {
+            return null; // 304 with the ETag is already set up; no lines loaded, nothing serialized
+        }
+
         Cart cart = cartService.getOrCreateCart(customerId);
-        return ResponseEntity.ok(cart);
+        String eTag = (version != null ? version : CartVersion.of(cart)).toETag();
+        // Private: only the customer's own client may keep it; no-cache: revalidate before every reuse
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(cart);
     }
 }
@@ -0,0 +1,35 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.dto.StockLevel;
+import com.ecommerce.service.InventoryService;
+import com.ecommerce.service.ProductService;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/inventory")
+public class InventoryController {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    // View stock endpoint
+    @Operation(summary = "getStockLevel", description = "Retrieves the stock of a product")
+    @GetMapping("/{productId}")
+    public ResponseEntity<StockLevel> getStockLevel(@PathVariable Long productId) {
+        return ResponseEntity.ok(inventoryService.getStockLevel(productId));
+    }
+
+    // Restock endpoint
+    @Operation(summary = "restock", description = "Adds units to the stock of a product and starts tracking its stock")
+    @PostMapping("/{productId}/restock")
+    public ResponseEntity<StockLevel> restock(@PathVariable Long productId, @RequestParam int quantity) {
+        productService.getProductById(productId); // Throws ProductNotFoundException for unknown products
+        return ResponseEntity.ok(inventoryService.restock(productId, quantity));
+    }
+}
@@ -1,5 +1,7 @@
 package com.ecommerce.controller;
 
+import com.ecommerce.dto.OrderFilter;
+import com.ecommerce.dto.OrderSummary;
 import com.ecommerce.exception.OrderNotFoundException;
 import com.ecommerce.exception.OrderServiceException;
 import com.ecommerce.model.Customer;
@@ -8,12 +10,20 @@ import com.ecommerce.repository.CustomerRepository;
 import com.ecommerce.repository.OrderRepository;
 import com.ecommerce.service.CustomerService;
 import com.ecommerce.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,6 +41,9 @@ public class OrderController {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     // Creating an order
     @Operation(summary = "createOrder", description = "Creates an order based on customerId")
 //    @ApiResponses(value = {
@@ -46,12 +59,44 @@ public class OrderController {
     }
 
 
-    // Get all orders
-    @Operation(summary = "getAllOrders", description = "Retrieves all orders")
+    // Get orders (newest first, keyset-paginated, optionally filtered)
+    @Operation(summary = "getAllOrders", description = "Retrieves a page of order summaries filtered by customerId, status and createdAt range; the Link header points to the next page")
     @GetMapping
-    public ResponseEntity<List<Order>> getAllOrders() {
-        List<Order> orders = orderService.getAllOrders();
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<List<OrderSummary>> getAllOrders(
+            @ModelAttribute OrderFilter filter,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Integer size) {
+        List<OrderSummary> orders = orderService.getOrderSummaries(filter, before, size);
+        if (orders.isEmpty()) {
+            return ResponseEntity.ok(orders);
+        }
+
+        // Cursor for the next page is the last (oldest) id of this one
+        String nextLink = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("before", orders.get(orders.size() - 1).getId())
+                .build()
+                .toUriString();
+        return ResponseEntity.ok().header(HttpHeaders.LINK, "<" + nextLink + ">; rel=\"next\"").body(orders);
+    }
+
+
+    // Export orders as newline-delimited JSON
+    @Operation(summary = "exportOrders", description = "Streams order summaries matching the filters as NDJSON, one order per line")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportOrders(@ModelAttribute OrderFilter filter) {
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(outputStream)) {
+                orderService.forEachOrderSummaryPage(filter, page -> {
+                    try {
+                        writer.writeAll(page);
+                        writer.flush(); // Push each chunk to the client as soon as it is read
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
 
@@ -1,16 +1,35 @@
 package com.ecommerce.controller;
 
+import com.ecommerce.dto.ProductFilter;
+import com.ecommerce.dto.ProductImportReport;
+import com.ecommerce.dto.ProductSort;
 import com.ecommerce.exception.ProductServiceException;
 import com.ecommerce.kafka.ProductProducer;
 import com.ecommerce.exception.ProductNotFoundException;
 import com.ecommerce.model.Product;
+import com.ecommerce.search.ProductSearchIndex;
+import com.ecommerce.service.ProductImportService;
 import com.ecommerce.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -23,6 +42,19 @@ public class ProductController {
     @Autowired
     private ProductProducer productProducer;
 
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // How long clients and proxies may reuse catalog responses without asking again
+    @Value("${product.http.max-age:30s}")
+    private Duration catalogMaxAge = Duration.ofSeconds(30);
+
 //    @GetMapping("/test")
 //    public String test() {
 //        return "Hello, World!";
@@ -51,19 +83,47 @@ public class ProductController {
     }
 
 
-    //Get details of all products
-    @Operation(summary = "getAllProducts", description = "Retrieves all products")
+    //Bulk import products from a JSON array or a CSV file
+    @Operation(summary = "importProducts", description = "Creates products from a JSON array or CSV upload (header: name,price,description); returns counts and per-row errors")
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, "text/csv"})
+    public ResponseEntity<ProductImportReport> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream upload) {
+        String format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_JSON)
+                ? ProductImportService.FORMAT_JSON
+                : ProductImportService.FORMAT_CSV;
+        ProductImportReport report = productImportService.importProducts(upload, format);
+        HttpStatus status = report.getStatus() == ProductImportReport.Status.FAILED ? HttpStatus.BAD_REQUEST : HttpStatus.OK;
+        return ResponseEntity.status(status).body(report);
+    }
+
+
+    //Progress of running and recent imports
+    @Operation(summary = "getProductImports", description = "Lists running and recent product imports, newest first, with their progress")
+    @GetMapping("/import")
+    public ResponseEntity<List<ProductImportReport>> getProductImports() {
+        return ResponseEntity.ok(productImportService.getRecentImports());
+    }
+
+
+    //Get one page of products (keyset pagination on id)
+    @Operation(summary = "getAllProducts", description = "Retrieves a page of products with id greater than 'after'; the Link header points to the next page")
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
+    public ResponseEntity<List<Product>> getAllProducts(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
 
         try {
-            List<Product> products = productService.getAllProducts();
+            List<Product> products = productService.getProductsPage(after, size);
 
             if (products.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NO_CONTENT).build(); // 204 No Content
             }
 
-            return ResponseEntity.ok(products);
+            // Cursor for the next page is the last id of this one
+            Long nextCursor = products.get(products.size() - 1).getId();
+            String nextLink = "</products?after=" + nextCursor + (size != null ? "&size=" + size : "") + ">; rel=\"next\"";
+            return ResponseEntity.ok().header(HttpHeaders.LINK, nextLink).cacheControl(catalogCacheControl()).body(products);
         } catch (ProductNotFoundException ex) {
             throw ex;
         } catch (Exception ex) {
@@ -72,16 +132,89 @@ public class ProductController {
     }
 
 
+    //Browse the catalog sorted by price or name, optionally within a price range (keyset pagination)
+    @Operation(summary = "browseProducts", description = "Retrieves a page of products sorted by price, -price, name or -name, filtered by minPrice and maxPrice; the Link header points to the next page")
+    @GetMapping("/browse")
+    public ResponseEntity<List<Product>> browseProducts(
+            @RequestParam(defaultValue = "price") String sort,
+            @ModelAttribute ProductFilter filter,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Double afterPrice,
+            @RequestParam(required = false) String afterName,
+            @RequestParam(required = false) Integer size) {
+        ProductSort order = ProductSort.fromParam(sort);
+        List<Product> products = productService.browseProducts(order, filter, after, afterPrice, afterName, size);
+        if (products.isEmpty()) {
+            return ResponseEntity.ok(products);
+        }
+
+        // Cursor for the next page is the sort value and id of the last product of this one
+        Product last = products.get(products.size() - 1);
+        ServletUriComponentsBuilder next = ServletUriComponentsBuilder.fromCurrentRequest();
+        next.replaceQueryParam("after", last.getId());
+        if (order.isByPrice()) {
+            next.replaceQueryParam("afterPrice", last.getPrice());
+        } else {
+            next.replaceQueryParam("afterName", UriUtils.encodeQueryParam(last.getName(), StandardCharsets.UTF_8)); // The rest of the query is already encoded
+        }
+        String nextLink = next.build().toUriString();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.LINK, "<" + nextLink + ">; rel=\"next\"")
+                .cacheControl(catalogCacheControl())
+                .body(products);
+    }
+
+
+    //Full-text search over product names and descriptions
+    @Operation(summary = "searchProducts", description = "Finds products whose name or description contains every word of 'q' (the last word may be a prefix, longer words may have a typo), best match first, optionally within a price range")
+    @GetMapping("/search")
+    public ResponseEntity<List<Product>> searchProducts(
+            @RequestParam String q,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(defaultValue = "true") boolean fuzzy,
+            @RequestParam(required = false) Integer limit) {
+        // Answered from the in-memory index, no database query
+        return ResponseEntity.ok()
+                .cacheControl(catalogCacheControl())
+                .body(productSearchIndex.search(q, minPrice, maxPrice, fuzzy, limit));
+    }
+
+
+    //Stream the whole catalog as newline-delimited JSON
+    @Operation(summary = "streamAllProducts", description = "Streams all products as NDJSON, one product per line")
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllProducts() {
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(outputStream)) {
+                productService.forEachProductPage(page -> {
+                    try {
+                        writer.writeAll(page);
+                        writer.flush(); // Push each chunk to the client as soon as it is read
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+
     //Get details of a product based on Id
-    @Operation(summary = "getProductById", description = "Retrieves product details based on productId")
+    @Operation(summary = "getProductById", description = "Retrieves product details based on productId; returns 304 when If-None-Match carries the current ETag")
     @GetMapping("/{id}")
     public ResponseEntity<Product> getProductById(@PathVariable("id") Long id) {
         try {
-            // Fetch the product by ID
+            // Fetch the product by ID (from the product cache when possible)
             Product product = productService.getProductById(id);
 
-            // If the product is found, return it with 200 OK status
-            return ResponseEntity.ok(product);
+            // If the product is found, return it with 200 OK status. The ETag is the product's version: Spring
+            // answers a matching If-None-Match with 304 Not Modified and never serializes the product.
+            return ResponseEntity.ok()
+                    .eTag(String.valueOf(product.getVersion()))
+                    .cacheControl(catalogCacheControl())
+                    .body(product);
         } catch (ProductNotFoundException ex) {
             // If the product is not found, return 404 Not Found
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
@@ -109,6 +242,9 @@ public class ProductController {
             // Save the updated product
             Product updatedProduct = productService.createProduct(existingProduct); // You can reuse the createProduct method as it already handles validation
 
+            // Let other nodes drop their cached copy
+            productProducer.sendProductUpdated(updatedProduct);
+
             // Return the updated product
             return ResponseEntity.ok(updatedProduct);
         } catch (ProductNotFoundException ex) {
@@ -130,6 +266,9 @@ public class ProductController {
             // Delete the product
             productService.deleteProduct(id);
 
+            // Let other nodes drop their cached copy
+            productProducer.sendProductDeleted(existingProduct);
+
             // Return a response indicating successful deletion
             return ResponseEntity.status(HttpStatus.NO_CONTENT).build(); // 204 No Content
         } catch (ProductNotFoundException ex) {
@@ -138,4 +277,10 @@ public class ProductController {
             throw new ProductServiceException("Failed to delete product with ID: " + id, ex);
         }
     }
+
+
+    // Public: the catalog is the same for everyone, so shared caches may keep it too
+    private CacheControl catalogCacheControl() {
+        return CacheControl.maxAge(catalogMaxAge).cachePublic();
+    }
 }
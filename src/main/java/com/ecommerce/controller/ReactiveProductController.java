@@ -0,0 +1,79 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.exception.ProductNotFoundException;
+import com.ecommerce.model.Product;
+import com.ecommerce.service.ReactiveProductService;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// Read-only catalog endpoints that return Mono / Flux. Spring MVC completes them asynchronously, so no
+// request thread is held while the database is queried. Same Product JSON as ProductController.
+@RestController
+@RequestMapping("/reactive/products")
+public class ReactiveProductController {
+
+    @Autowired
+    private ReactiveProductService reactiveProductService;
+
+    //Get details of a product based on Id
+    @Operation(summary = "getProductByIdReactive", description = "Retrieves product details based on productId without blocking a request thread")
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Product>> getProductById(@PathVariable("id") Long id) {
+        return reactiveProductService.getProductById(id)
+                .map(ResponseEntity::ok)
+                .onErrorResume(ProductNotFoundException.class,
+                        ex -> Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).build()));
+    }
+
+    //Get one page of products (keyset pagination on id)
+    @Operation(summary = "getAllProductsReactive", description = "Retrieves a page of products with id greater than 'after'; the Link header points to the next page")
+    @GetMapping
+    public Mono<ResponseEntity<List<Product>>> getAllProducts(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
+        String pageUrl = ServletUriComponentsBuilder.fromCurrentRequest().toUriString(); // Read while on the request thread
+        return reactiveProductService.getProductsPage(after, size).map(products -> pageResponse(products, pageUrl));
+    }
+
+    //Full-text search over product names and descriptions
+    @Operation(summary = "searchProductsReactive", description = "Finds products whose name or description contains every word of 'q', best match first, as /products/search does")
+    @GetMapping("/search")
+    public Mono<ResponseEntity<List<Product>>> searchProducts(
+            @RequestParam String q,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(defaultValue = "true") boolean fuzzy,
+            @RequestParam(required = false) Integer limit) {
+        return reactiveProductService.searchProducts(q, minPrice, maxPrice, fuzzy, limit).map(ResponseEntity::ok);
+    }
+
+    //Stream the whole catalog as newline-delimited JSON
+    @Operation(summary = "streamAllProductsReactive", description = "Streams all products as NDJSON; products are read only as fast as the client consumes them")
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Product> streamAllProducts() {
+        return reactiveProductService.streamAllProducts();
+    }
+
+    // 204 for an empty page, otherwise the page with a Link to the next one (cursor = last id)
+    private static ResponseEntity<List<Product>> pageResponse(List<Product> products, String pageUrl) {
+        if (products.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+        }
+        String nextLink = UriComponentsBuilder.fromUriString(pageUrl)
+                .replaceQueryParam("after", products.get(products.size() - 1).getId())
+                .build()
+                .toUriString();
+        return ResponseEntity.ok().header(HttpHeaders.LINK, "<" + nextLink + ">; rel=\"next\"").body(products);
+    }
+}
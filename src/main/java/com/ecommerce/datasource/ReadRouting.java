@@ -0,0 +1,47 @@
+package com.ecommerce.datasource;
+
+import java.util.function.Supplier;
+
+// Per-thread switch that sends read-only transactions to the primary instead of a replica, for reads that must
+// see every committed write: a client's reads right after its own writes, and state that is loaded once and
+// then kept in memory. Only connections taken while it is on are affected; without replicas it does nothing.
+public final class ReadRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    public static boolean isPrimaryRequired() {
+        return PRIMARY.get() != null;
+    }
+
+    // Turns the switch on until the returned scope is closed; scopes nest
+    public static Scope primary() {
+        boolean outermost = PRIMARY.get() == null;
+        PRIMARY.set(Boolean.TRUE);
+        return () -> {
+            if (outermost) {
+                PRIMARY.remove();
+            }
+        };
+    }
+
+    public static <T> T onPrimary(Supplier<T> reads) {
+        try (Scope ignored = primary()) {
+            return reads.get();
+        }
+    }
+
+    public static void onPrimary(Runnable reads) {
+        try (Scope ignored = primary()) {
+            reads.run();
+        }
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
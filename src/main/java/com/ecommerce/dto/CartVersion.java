@@ -0,0 +1,34 @@
+package com.ecommerce.dto;
+
+import com.ecommerce.model.Cart;
+
+// Identifies one state of a customer's cart, for conditional GETs. The cart id is part of it because a cart
+// that is cleared is deleted, and the customer's next cart starts counting versions again.
+// Built directly by a JPQL constructor expression, so the cart's lines are not loaded.
+public class CartVersion {
+
+    private final Long cartId;
+    private final long version;
+
+    public CartVersion(Long cartId, long version) {
+        this.cartId = cartId;
+        this.version = version;
+    }
+
+    public static CartVersion of(Cart cart) {
+        return new CartVersion(cart.getId(), cart.getVersion());
+    }
+
+    public Long getCartId() {
+        return cartId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    // Strong entity tag, quoted as HTTP requires
+    public String toETag() {
+        return "\"" + cartId + "-" + version + "\"";
+    }
+}
@@ -0,0 +1,59 @@
+package com.ecommerce.dto;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+// Optional filters for order listings; bound from query parameters, any field left null is ignored
+public class OrderFilter {
+
+    private Long customerId;
+    private String status;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;   // Inclusive lower bound on createdAt
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;     // Exclusive upper bound on createdAt
+
+    public OrderFilter() {}
+
+    public OrderFilter(Long customerId, String status, LocalDateTime from, LocalDateTime to) {
+        this.customerId = customerId;
+        this.status = status;
+        this.from = from;
+        this.to = to;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(Long customerId) {
+        this.customerId = customerId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+}
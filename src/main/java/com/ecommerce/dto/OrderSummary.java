@@ -0,0 +1,53 @@
+package com.ecommerce.dto;
+
+import java.time.LocalDateTime;
+
+// Lightweight, read-only view of an order used for listings and exports.
+// Built directly by a JPQL constructor expression, so no Order, OrderItem or Customer entities are loaded.
+public class OrderSummary {
+
+    private final Long id;
+    private final Long customerId;
+    private final String status;
+    private final double totalAmount;
+    private final LocalDateTime createdAt;
+
+    public OrderSummary(Long id, Long customerId, String status, double totalAmount, LocalDateTime createdAt) {
+        this.id = id;
+        this.customerId = customerId;
+        this.status = status;
+        this.totalAmount = totalAmount;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public double getTotalAmount() {
+        return totalAmount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderSummary{" +
+                "id=" + id +
+                ", customerId=" + customerId +
+                ", status='" + status + '\'' +
+                ", totalAmount=" + totalAmount +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
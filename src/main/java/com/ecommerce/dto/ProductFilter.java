@@ -0,0 +1,31 @@
+package com.ecommerce.dto;
+
+// Optional filters for catalog browsing; bound from query parameters, any field left null is ignored
+public class ProductFilter {
+
+    private Double minPrice;   // Inclusive
+    private Double maxPrice;   // Inclusive
+
+    public ProductFilter() {}
+
+    public ProductFilter(Double minPrice, Double maxPrice) {
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(Double minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(Double maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+}
@@ -0,0 +1,121 @@
+package com.ecommerce.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Progress and outcome of one bulk product import. Updated by the importing thread while the upload is
+// read, so GET /products/import can show how far a running import has got.
+public class ProductImportReport {
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    private final String id;
+    private final String format;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final int maxErrors;   // Row errors kept in the report; further ones are only counted
+
+    private volatile Status status = Status.RUNNING;
+    private volatile LocalDateTime finishedAt;
+    private volatile long rowsRead;
+    private volatile long imported;
+    private volatile long failed;
+    private volatile String failure; // Why the whole import stopped early, if it did
+    private final List<RowError> errors = new ArrayList<>();
+
+    public ProductImportReport(String id, String format, int maxErrors) {
+        this.id = id;
+        this.format = format;
+        this.maxErrors = maxErrors;
+    }
+
+    public void rowRead() {
+        rowsRead++;
+    }
+
+    public void imported(int count) {
+        imported += count;
+    }
+
+    public synchronized void rowFailed(long row, String message) {
+        failed++;
+        if (errors.size() < maxErrors) {
+            errors.add(new RowError(row, message));
+        }
+    }
+
+    public void complete() {
+        finishedAt = LocalDateTime.now();
+        status = Status.COMPLETED;
+    }
+
+    public void fail(String reason) {
+        failure = reason;
+        finishedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public String getFailure() {
+        return failure;
+    }
+
+    public synchronized List<RowError> getErrors() {
+        return new ArrayList<>(errors);
+    }
+
+    public boolean isErrorsTruncated() {
+        return failed > maxErrors;
+    }
+
+    // A rejected row: its 1-based position in the upload (data rows only) and the reason
+    public static class RowError {
+
+        private final long row;
+        private final String message;
+
+        public RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public long getRow() {
+            return row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
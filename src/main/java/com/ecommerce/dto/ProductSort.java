@@ -0,0 +1,39 @@
+package com.ecommerce.dto;
+
+import com.ecommerce.exception.ProductServiceException;
+
+// Orders for catalog browsing, as written in the sort query parameter ("-" for descending)
+public enum ProductSort {
+
+    PRICE_ASC("price"),
+    PRICE_DESC("-price"),
+    NAME_ASC("name"),
+    NAME_DESC("-name");
+
+    private final String param;
+
+    ProductSort(String param) {
+        this.param = param;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    public boolean isByPrice() {
+        return this == PRICE_ASC || this == PRICE_DESC;
+    }
+
+    public boolean isDescending() {
+        return this == PRICE_DESC || this == NAME_DESC;
+    }
+
+    public static ProductSort fromParam(String param) {
+        for (ProductSort sort : values()) {
+            if (sort.param.equals(param)) {
+                return sort;
+            }
+        }
+        throw new ProductServiceException("Unknown sort '" + param + "', expected one of price, -price, name, -name");
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.dto;
+
+// Stock of one product as seen by this node
+public class StockLevel {
+
+    private final Long productId;
+    private final boolean tracked;  // false: no inventory row, the product can always be ordered
+    private final long onHand;      // Units not yet sold: the stored stock plus this node's leased units
+    private final long available;   // Units this node can still reserve (on hand minus open reservations)
+
+    public StockLevel(Long productId, boolean tracked, long onHand, long available) {
+        this.productId = productId;
+        this.tracked = tracked;
+        this.onHand = onHand;
+        this.available = available;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public boolean isTracked() {
+        return tracked;
+    }
+
+    public long getOnHand() {
+        return onHand;
+    }
+
+    public long getAvailable() {
+        return available;
+    }
+}
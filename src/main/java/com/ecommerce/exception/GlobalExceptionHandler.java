@@ -22,6 +22,18 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
+    // Handle InsufficientStockException (more specific than OrderServiceException, so it wins)
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<String> handleInsufficientStockException(InsufficientStockException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.CONFLICT);
+    }
+
+    // Handle InventoryServiceException
+    @ExceptionHandler(InventoryServiceException.class)
+    public ResponseEntity<String> handleInventoryServiceException(InventoryServiceException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
     // Handle OrderServiceException & OrderNotFoundException
     @ExceptionHandler({OrderServiceException.class, OrderNotFoundException.class})
     public ResponseEntity<String> handleOrderServiceException(OrderServiceException ex) {
@@ -0,0 +1,16 @@
+package com.ecommerce.exception;
+
+// Thrown when an order asks for more units of a product than are in stock
+public class InsufficientStockException extends OrderServiceException {
+
+    private final Long productId;
+
+    public InsufficientStockException(Long productId, int requested) {
+        super("Insufficient stock for product " + productId + ": requested " + requested);
+        this.productId = productId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.exception;
+
+public class InventoryServiceException extends RuntimeException {
+
+    public InventoryServiceException(String message) {
+        super(message);
+    }
+
+    public InventoryServiceException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,132 @@
+package com.ecommerce.kafka;
+
+import com.ecommerce.model.Order;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Event published to the "orders" topic when an order is placed, encoded by OrderCreatedEventCodec.
+// Carries only what downstream consumers need: no customer details, no JPA entities.
+public class OrderCreatedEvent {
+
+    private Long orderId;
+    private Long customerId;
+    private String status;
+    private double totalAmount;
+    private LocalDateTime createdAt;
+    private List<Item> items;
+
+    public static class Item {
+
+        private Long productId;
+        private String productName;
+        private int quantity;
+        private double price;
+
+        // Default constructor (used when decoding)
+        public Item() {}
+
+        public Item(Long productId, String productName, int quantity, double price) {
+            this.productId = productId;
+            this.productName = productName;
+            this.quantity = quantity;
+            this.price = price;
+        }
+
+        public Long getProductId() {
+            return productId;
+        }
+
+        public void setProductId(Long productId) {
+            this.productId = productId;
+        }
+
+        public String getProductName() {
+            return productName;
+        }
+
+        public void setProductName(String productName) {
+            this.productName = productName;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+
+        public void setPrice(double price) {
+            this.price = price;
+        }
+    }
+
+    // Default constructor (used when decoding)
+    public OrderCreatedEvent() {}
+
+    public static OrderCreatedEvent from(Order order) {
+        OrderCreatedEvent event = new OrderCreatedEvent();
+        event.setOrderId(order.getId());
+        event.setCustomerId(order.getCustomer().getId());
+        event.setStatus(order.getStatus());
+        event.setTotalAmount(order.getTotalAmount());
+        event.setCreatedAt(order.getCreatedAt());
+        event.setItems(order.getItems().stream()
+                .map(item -> new Item(item.getProductId(), item.getProductName(), item.getQuantity(), item.getPrice()))
+                .toList());
+        return event;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(Long customerId) {
+        this.customerId = customerId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public double getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(double totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Item> items) {
+        this.items = items;
+    }
+}
@@ -1,19 +1,27 @@
 package com.ecommerce.kafka;
 
-import com.ecommerce.model.Order;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class OrderProducer {
 
     private static final String TOPIC = "orders";
 
     @Autowired
-    private KafkaTemplate<String, Order> kafkaTemplate;
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    // Sends an already-serialized order event; the key keeps each customer's events on one partition, in order
+    public CompletableFuture<SendResult<String, byte[]>> sendOrderEvent(String customerKey, byte[] payload) {
+        return kafkaTemplate.send(TOPIC, customerKey, payload);
+    }
 
-    public void sendOrder(Order order) {
-        kafkaTemplate.send(TOPIC, order);
+    // Pushes out anything the producer is still batching
+    public void flush() {
+        kafkaTemplate.flush();
     }
 }
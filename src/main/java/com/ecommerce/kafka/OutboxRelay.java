@@ -0,0 +1,138 @@
+package com.ecommerce.kafka;
+
+import com.ecommerce.model.OutboxEvent;
+import com.ecommerce.model.OutboxRelayLease;
+import com.ecommerce.repository.OutboxEventRepository;
+import com.ecommerce.repository.OutboxRelayLeaseRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Background relay that drains the transactional outbox to Kafka in batches.
+// Only one node relays at a time: the one holding the relay lease (OutboxRelayLease), renewed before every
+// batch. Events are sent in outbox id order, keyed by customer id, by an idempotent producer, so each
+// customer's events reach their partition once and in order. No transaction or row lock is held while the
+// broker acknowledges a batch: the batch is read, sent, and deleted only once the broker acknowledged all of
+// it. If anything fails the batch stays in the outbox and is retried (at-least-once delivery).
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxRelayLeaseRepository outboxRelayLeaseRepository;
+
+    @Autowired
+    private OrderProducer orderProducer;
+
+    @Value("${outbox.relay.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${outbox.relay.send-timeout-ms:10000}")
+    private long sendTimeoutMs = 10000;
+
+    @Value("${outbox.relay.lease-seconds:30}")
+    private long leaseSeconds = 30;
+
+    private final String owner = UUID.randomUUID().toString(); // This relay instance, as the lease knows it
+
+    private volatile boolean leaseRowExists;
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:200}")
+    public void drain() {
+        try {
+            // Keep going while batches come back full, so a backlog drains without waiting for the next tick
+            int relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed >= batchSize);
+        } catch (Exception ex) {
+            log.warn("Outbox relay failed, pending events will be retried: {}", ex.getMessage());
+        }
+    }
+
+    // Publishes one batch and deletes it from the outbox; returns the number of events relayed
+    // (0 while another node holds the relay lease)
+    int relayBatch() {
+        long leaseTakenAt = System.nanoTime();
+        if (!acquireLease()) {
+            return 0;
+        }
+
+        List<OutboxEvent> batch = outboxEventRepository.findBatchForRelay(Limit.of(batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            sends.add(orderProducer.sendOrderEvent(event.getEventKey(), event.getPayload()));
+        }
+        orderProducer.flush();
+        // Stop waiting before the lease can lapse, so a node taking over never sends alongside this batch
+        long leaseLeftMs = TimeUnit.SECONDS.toMillis(leaseSeconds) - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - leaseTakenAt);
+        awaitAcknowledgements(sends, Math.min(sendTimeoutMs, leaseLeftMs));
+
+        outboxEventRepository.deleteAllInBatch(batch);
+        return batch.size();
+    }
+
+    // Takes or renews the relay lease, creating its row on first use
+    private boolean acquireLease() {
+        if (outboxRelayLeaseRepository.tryAcquire(OutboxRelayLease.ID, owner, leaseSeconds) == 1) {
+            leaseRowExists = true;
+            return true;
+        }
+        if (leaseRowExists || outboxRelayLeaseRepository.existsById(OutboxRelayLease.ID)) {
+            leaseRowExists = true;
+            return false; // Held by another node
+        }
+        try {
+            outboxRelayLeaseRepository.save(new OutboxRelayLease(OutboxRelayLease.ID));
+        } catch (DataIntegrityViolationException ex) {
+            // Another node created it first
+        }
+        leaseRowExists = true;
+        return outboxRelayLeaseRepository.tryAcquire(OutboxRelayLease.ID, owner, leaseSeconds) == 1;
+    }
+
+    // Lets another node take over straight away instead of waiting for the lease to expire
+    @PreDestroy
+    public void releaseLease() {
+        try {
+            outboxRelayLeaseRepository.release(OutboxRelayLease.ID, owner);
+        } catch (Exception ex) {
+            log.debug("Could not release the outbox relay lease, it will expire: {}", ex.getMessage());
+        }
+    }
+
+    private void awaitAcknowledgements(List<CompletableFuture<?>> sends, long timeoutMs) {
+        try {
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).get(Math.max(0, timeoutMs), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for Kafka acknowledgements", ex);
+        } catch (ExecutionException | TimeoutException ex) {
+            throw new IllegalStateException("Kafka did not acknowledge the outbox batch", ex);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.ecommerce.kafka;
+
+import com.ecommerce.model.Product;
+
+// Event published to the "products" topic whenever a product is created, updated or deleted.
+// Messages are keyed by product id, so all changes to one product stay ordered on one partition.
+public class ProductChangedEvent {
+
+    public enum ChangeType { CREATED, UPDATED, DELETED }
+
+    private ChangeType type;
+    private Long productId;
+    // The product's JPA @Version after the change (one more than the last known version for deletes).
+    // Assigned by the database row, so it orders changes made on any node, whatever their clocks say.
+    private long version;
+    private String name;
+    private double price;
+    private String description;
+
+    // Default constructor (used when decoding)
+    public ProductChangedEvent() {}
+
+    public ProductChangedEvent(ChangeType type, Long productId, long version) {
+        this.type = type;
+        this.productId = productId;
+        this.version = version;
+    }
+
+    public static ProductChangedEvent of(ChangeType type, Product product) {
+        ProductChangedEvent event = new ProductChangedEvent(type, product.getId(), product.getVersion());
+        event.setName(product.getName());
+        event.setPrice(product.getPrice());
+        event.setDescription(product.getDescription());
+        return event;
+    }
+
+    // Deleting a row does not bump its version, so the delete takes the next one
+    public static ProductChangedEvent deleted(Product product) {
+        return new ProductChangedEvent(ChangeType.DELETED, product.getId(), product.getVersion() + 1);
+    }
+
+    // Snapshot of the product as of this event (not meaningful for DELETED events)
+    public Product toProduct() {
+        Product product = new Product(name, price, description);
+        product.setId(productId);
+        product.setVersion(version);
+        return product;
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    public void setType(ChangeType type) {
+        this.type = type;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public void setPrice(double price) {
+        this.price = price;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductChangedEvent{" +
+                "type=" + type +
+                ", productId=" + productId +
+                ", version=" + version +
+                '}';
+    }
+}
@@ -0,0 +1,43 @@
+package com.ecommerce.kafka;
+
+import com.ecommerce.cache.ProductCache;
+import com.ecommerce.search.ProductSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+// Keeps this node's product cache and search index in line with changes made on any node.
+// Every node consumes the "products" topic with its own consumer group, so each one sees every event.
+@Component
+public class ProductEventConsumer {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductEventConsumer.class);
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @KafkaListener(
+            id = "productCacheInvalidation",
+            topics = "products",
+            groupId = "${product.cache.invalidation.group-id:product-cache-${random.uuid}}",
+            containerFactory = "productEventListenerContainerFactory",
+            autoStartup = "${product.cache.invalidation.enabled:true}")
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event == null || event.getProductId() == null || event.getType() == null) {
+            log.warn("Ignoring malformed product event: {}", event);
+            return;
+        }
+
+        // Evict rather than refresh from the event snapshot: a lagging event must never overwrite
+        // a fresher copy this node has already read back from the database
+        productCache.evict(event.getProductId());
+
+        // The index keeps the event's snapshot: it skips events older than the change it already holds
+        productSearchIndex.apply(event);
+    }
+}
@@ -1,21 +1,48 @@
 package com.ecommerce.kafka;
 
 import com.ecommerce.model.Product;
+import com.ecommerce.search.ProductSearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
-@EnableKafka
 public class ProductProducer {
 
     private static final String TOPIC = "products";
 
     @Autowired
-    private KafkaTemplate<String, Product> kafkaTemplate;
+    private KafkaTemplate<String, ProductChangedEvent> kafkaTemplate;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
 
+    // Publishes a newly created product
     public void sendProduct(Product product) {
-        kafkaTemplate.send(TOPIC, product);
+        send(ProductChangedEvent.of(ProductChangedEvent.ChangeType.CREATED, product));
+    }
+
+    // Publishes products created by a bulk import batch; the producer groups them into a few requests,
+    // and flush() waits until they are all out so the import does not run ahead of the broker
+    public void sendProductsCreated(List<Product> products) {
+        products.forEach(product -> send(ProductChangedEvent.of(ProductChangedEvent.ChangeType.CREATED, product)));
+        kafkaTemplate.flush();
+    }
+
+    public void sendProductUpdated(Product product) {
+        send(ProductChangedEvent.of(ProductChangedEvent.ChangeType.UPDATED, product));
+    }
+
+    public void sendProductDeleted(Product product) {
+        send(ProductChangedEvent.deleted(product));
+    }
+
+    // Applied to this node's search index right away, so its own changes are searchable at once;
+    // other nodes apply the event when it reaches them through the topic
+    private void send(ProductChangedEvent event) {
+        productSearchIndex.apply(event);
+        kafkaTemplate.send(TOPIC, String.valueOf(event.getProductId()), event);
     }
 }
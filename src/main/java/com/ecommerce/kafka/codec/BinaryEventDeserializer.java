@@ -0,0 +1,27 @@
+package com.ecommerce.kafka.codec;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+// Kafka deserializer backed by an EventCodec. Undecodable messages raise SerializationException,
+// which an ErrorHandlingDeserializer turns into a skipped record instead of a stuck partition.
+public class BinaryEventDeserializer<T> implements Deserializer<T> {
+
+    private final EventCodec<T> codec;
+
+    public BinaryEventDeserializer(EventCodec<T> codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return codec.decode(data);
+        } catch (IllegalArgumentException ex) {
+            throw new SerializationException("Cannot decode message from topic " + topic + ": " + ex.getMessage(), ex);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.ecommerce.kafka.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Reads the encodings written by BinaryEventWriter; any truncated or malformed input fails with
+// IllegalArgumentException
+final class BinaryEventReader {
+
+    private final byte[] data;
+    private int position;
+    private final int limit;
+
+    BinaryEventReader(byte[] data) {
+        this(data, 0, data.length);
+    }
+
+    private BinaryEventReader(byte[] data, int offset, int limit) {
+        this.data = data;
+        this.position = offset;
+        this.limit = limit;
+    }
+
+    // Checks the type tag and returns the schema version the message was written with
+    int readHeader(byte expectedTypeTag, String typeName) {
+        if (limit - position < 2 || data[position] != expectedTypeTag) {
+            throw new IllegalArgumentException("Not a " + typeName + " message");
+        }
+        position++;
+        int version = readByte();
+        if (version < 1) {
+            throw new IllegalArgumentException("Invalid " + typeName + " schema version: " + version);
+        }
+        return version;
+    }
+
+    int readByte() {
+        require(1);
+        return data[position++] & 0xFF;
+    }
+
+    long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    long readSignedVarLong() {
+        long raw = readVarLong();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    int readVarInt() {
+        long value = readVarLong();
+        if (value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Varint out of int range: " + value);
+        }
+        return (int) value;
+    }
+
+    Long readNullableLong() {
+        return readByte() == 0 ? null : readSignedVarLong();
+    }
+
+    double readDouble() {
+        require(8);
+        long bits = 0;
+        for (int i = 0; i < 8; i++) {
+            bits = (bits << 8) | (data[position++] & 0xFF);
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    String readString() {
+        int lengthPlusOne = readVarInt();
+        if (lengthPlusOne == 0) {
+            return null;
+        }
+        int length = lengthPlusOne - 1;
+        require(length);
+        String value = new String(data, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    LocalDateTime readDateTime() {
+        if (readByte() == 0) {
+            return null;
+        }
+        long seconds = readSignedVarLong();
+        int nanos = readVarInt();
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    // Returns a reader over the next length-prefixed record and moves past it, whatever the nested reader consumes
+    BinaryEventReader readLengthPrefixed() {
+        int length = readVarInt();
+        require(length);
+        BinaryEventReader nested = new BinaryEventReader(data, position, position + length);
+        position += length;
+        return nested;
+    }
+
+    private void require(int bytes) {
+        if (bytes < 0 || limit - position < bytes) {
+            throw new IllegalArgumentException("Truncated message");
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.kafka.codec;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+// Kafka serializer backed by an EventCodec
+public class BinaryEventSerializer<T> implements Serializer<T> {
+
+    private final EventCodec<T> codec;
+
+    public BinaryEventSerializer(EventCodec<T> codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public byte[] serialize(String topic, T data) {
+        return data == null ? null : codec.encode(data);
+    }
+}
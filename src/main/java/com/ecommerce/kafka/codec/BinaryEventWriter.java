@@ -0,0 +1,103 @@
+package com.ecommerce.kafka.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+// Growable buffer with the primitive encodings shared by all event codecs
+final class BinaryEventWriter {
+
+    private byte[] buffer;
+    private int position;
+
+    BinaryEventWriter(int initialCapacity) {
+        buffer = new byte[Math.max(initialCapacity, 16)];
+    }
+
+    void writeHeader(byte typeTag, int schemaVersion) {
+        writeByte(typeTag);
+        writeByte(schemaVersion);
+    }
+
+    void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    // Unsigned LEB128: 7 bits per byte, so small values take a single byte
+    void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    // Zig-zag first, so small negative numbers stay short too
+    void writeSignedVarLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    void writeNullableLong(Long value) {
+        writeByte(value == null ? 0 : 1);
+        if (value != null) {
+            writeSignedVarLong(value);
+        }
+    }
+
+    void writeDouble(double value) {
+        ensureCapacity(8);
+        long bits = Double.doubleToLongBits(value);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[position++] = (byte) (bits >>> shift);
+        }
+    }
+
+    // Length + 1 as a varint (0 means null), then the UTF-8 bytes
+    void writeString(String value) {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length + 1L);
+        writeBytes(bytes, 0, bytes.length);
+    }
+
+    // Seconds since the epoch (as UTC, since LocalDateTime carries no zone) and nanos; null is a zero flag
+    void writeDateTime(LocalDateTime value) {
+        writeByte(value == null ? 0 : 1);
+        if (value != null) {
+            writeSignedVarLong(value.toEpochSecond(ZoneOffset.UTC));
+            writeVarLong(value.getNano());
+        }
+    }
+
+    // Writes a nested record with its length in front, so readers can skip fields they do not know
+    void writeLengthPrefixed(BinaryEventWriter nested) {
+        writeVarLong(nested.position);
+        writeBytes(nested.buffer, 0, nested.position);
+    }
+
+    void reset() {
+        position = 0;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    private void writeBytes(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, buffer, position, length);
+        position += length;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (position + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+        }
+    }
+}
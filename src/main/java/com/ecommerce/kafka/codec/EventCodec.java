@@ -0,0 +1,22 @@
+package com.ecommerce.kafka.codec;
+
+// Compact binary encoding for one event type.
+//
+// Every message starts with a one-byte type tag and a one-byte schema version, followed by the fields
+// in a fixed order (varints for integers, 8-byte doubles, length-prefixed UTF-8 strings, and a presence
+// flag before nullable numbers). Nested records, such as order items, are length-prefixed.
+//
+// Schema evolution rules, so producers and consumers can be upgraded independently:
+//  - New fields are only ever appended at the end of a record, and the schema version is bumped.
+//  - Fields are never removed, reordered, renamed to a different meaning, or changed in type. A field
+//    that is no longer needed keeps being written (with a default value).
+//  - Readers decode the fields they know and ignore any trailing bytes, so old readers accept newer
+//    messages. When reading an older version, fields added later take their default value.
+//  - An incompatible change needs a new type tag (and usually a new topic), never a reused one.
+public interface EventCodec<T> {
+
+    byte[] encode(T event);
+
+    // Throws IllegalArgumentException if the bytes are not a message of this type
+    T decode(byte[] data);
+}
@@ -0,0 +1,65 @@
+package com.ecommerce.kafka.codec;
+
+import com.ecommerce.kafka.OrderCreatedEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Binary encoding of OrderCreatedEvent (type tag 'O').
+// Version 1: orderId, customerId, status, totalAmount, createdAt, items[productId, productName, quantity, price]
+public class OrderCreatedEventCodec implements EventCodec<OrderCreatedEvent> {
+
+    static final byte TYPE_TAG = 'O';
+    public static final int SCHEMA_VERSION = 1;
+
+    @Override
+    public byte[] encode(OrderCreatedEvent event) {
+        BinaryEventWriter writer = new BinaryEventWriter(64);
+        writer.writeHeader(TYPE_TAG, SCHEMA_VERSION);
+        writer.writeNullableLong(event.getOrderId());
+        writer.writeNullableLong(event.getCustomerId());
+        writer.writeString(event.getStatus());
+        writer.writeDouble(event.getTotalAmount());
+        writer.writeDateTime(event.getCreatedAt());
+
+        List<OrderCreatedEvent.Item> items = event.getItems() == null ? List.of() : event.getItems();
+        writer.writeVarLong(items.size());
+        BinaryEventWriter itemWriter = new BinaryEventWriter(32);
+        for (OrderCreatedEvent.Item item : items) {
+            itemWriter.reset();
+            itemWriter.writeNullableLong(item.getProductId());
+            itemWriter.writeString(item.getProductName());
+            itemWriter.writeSignedVarLong(item.getQuantity());
+            itemWriter.writeDouble(item.getPrice());
+            writer.writeLengthPrefixed(itemWriter);
+        }
+        return writer.toByteArray();
+    }
+
+    @Override
+    public OrderCreatedEvent decode(byte[] data) {
+        BinaryEventReader reader = new BinaryEventReader(data);
+        reader.readHeader(TYPE_TAG, "order-created");
+
+        OrderCreatedEvent event = new OrderCreatedEvent();
+        event.setOrderId(reader.readNullableLong());
+        event.setCustomerId(reader.readNullableLong());
+        event.setStatus(reader.readString());
+        event.setTotalAmount(reader.readDouble());
+        event.setCreatedAt(reader.readDateTime());
+
+        int count = reader.readVarInt();
+        List<OrderCreatedEvent.Item> items = new ArrayList<>(Math.min(count, 1024));
+        for (int i = 0; i < count; i++) {
+            BinaryEventReader itemReader = reader.readLengthPrefixed();
+            items.add(new OrderCreatedEvent.Item(
+                    itemReader.readNullableLong(),
+                    itemReader.readString(),
+                    (int) itemReader.readSignedVarLong(),
+                    itemReader.readDouble()));
+        }
+        event.setItems(items);
+        // Fields appended by later versions follow here and are ignored by this reader
+        return event;
+    }
+}
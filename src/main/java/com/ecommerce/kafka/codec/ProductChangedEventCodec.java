@@ -0,0 +1,45 @@
+package com.ecommerce.kafka.codec;
+
+import com.ecommerce.kafka.ProductChangedEvent;
+
+// Binary encoding of ProductChangedEvent (type tag 'P').
+// Version 1: type (ordinal), productId, version, name, price, description
+public class ProductChangedEventCodec implements EventCodec<ProductChangedEvent> {
+
+    static final byte TYPE_TAG = 'P';
+    public static final int SCHEMA_VERSION = 1;
+
+    // Change types by wire value; new types may only be appended
+    private static final ProductChangedEvent.ChangeType[] CHANGE_TYPES = ProductChangedEvent.ChangeType.values();
+
+    @Override
+    public byte[] encode(ProductChangedEvent event) {
+        BinaryEventWriter writer = new BinaryEventWriter(64);
+        writer.writeHeader(TYPE_TAG, SCHEMA_VERSION);
+        writer.writeByte(event.getType() == null ? 0 : event.getType().ordinal() + 1);
+        writer.writeNullableLong(event.getProductId());
+        writer.writeVarLong(event.getVersion());
+        writer.writeString(event.getName());
+        writer.writeDouble(event.getPrice());
+        writer.writeString(event.getDescription());
+        return writer.toByteArray();
+    }
+
+    @Override
+    public ProductChangedEvent decode(byte[] data) {
+        BinaryEventReader reader = new BinaryEventReader(data);
+        reader.readHeader(TYPE_TAG, "product-changed");
+
+        ProductChangedEvent event = new ProductChangedEvent();
+        int type = reader.readByte();
+        // A type added by a newer producer decodes as null, which consumers already treat as malformed
+        event.setType(type == 0 || type > CHANGE_TYPES.length ? null : CHANGE_TYPES[type - 1]);
+        event.setProductId(reader.readNullableLong());
+        event.setVersion(reader.readVarLong());
+        event.setName(reader.readString());
+        event.setPrice(reader.readDouble());
+        event.setDescription(reader.readString());
+        // Fields appended by later versions follow here and are ignored by this reader
+        return event;
+    }
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+// Records the SQL statements each request issued as http.server.requests.db.statements, tagged like
+// http.server.requests with the method and the uri template. Statements run on other threads (streamed
+// response bodies, reactive reads, background flushes) are not counted.
+public class RequestMetricsInterceptor implements HandlerInterceptor {
+
+    static final String STATEMENTS = "http.server.requests.db.statements";
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestStatementCounter.start();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder(STATEMENTS)
+                .description("SQL statements issued while handling a request")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri != null ? uri.toString() : "UNKNOWN") // Templates only, never raw paths with ids
+                .register(meterRegistry)
+                .record(RequestStatementCounter.current());
+    }
+}
@@ -0,0 +1,27 @@
+package com.ecommerce.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Hibernate statement inspector counting the SQL statements prepared on the current thread (a JDBC batch counts
+// once), so RequestMetricsInterceptor can record how many statements each request issued.
+// Registered through spring.jpa.properties.hibernate.session_factory.statement_inspector.
+public class RequestStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> STATEMENTS = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get()[0]++;
+        return sql;
+    }
+
+    // Starts counting from zero on this thread
+    public static void start() {
+        STATEMENTS.get()[0] = 0;
+    }
+
+    // Statements prepared on this thread since start()
+    public static int current() {
+        return STATEMENTS.get()[0];
+    }
+}
@@ -1,9 +1,11 @@
 package com.ecommerce.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -12,24 +14,31 @@ import java.util.List;
 public class Cart {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_seq")
+    @SequenceGenerator(name = "cart_seq", sequenceName = "cart_seq", allocationSize = 50)
     private Long id;
 
-    @OneToOne
-    @JoinColumn(name = "customer_id", nullable = false)
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "customer_id", nullable = false, unique = true) // At most one cart per customer
     @JsonBackReference // Prevents infinite recursion
     private Customer customer;
 
-    @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER, orphanRemoval = true)
-    @JoinColumn(name = "cart_id")
+    @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
+    @BatchSize(size = 50) // Initializes the items of up to 50 carts with one query
     private List<CartItem> items = new ArrayList<>();
 
+    // Changes whenever the cart or any of its lines changes (line updates bump it explicitly); with the id it
+    // makes the cart's HTTP ETag
+    @Version
+    @JsonIgnore
+    private long version;
+
     // Default constructor (required by JPA)
     public Cart() {}
 
     public Cart(Customer customer, List<CartItem> items) {
         this.customer = customer;
-        this.items = items;
+        setItems(items);
     }
 
     public Long getId() {
@@ -48,22 +57,35 @@ public class Cart {
         this.customer = customer;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public List<CartItem> getItems() {
         return items;
     }
 
     public void setItems(List<CartItem> items) {
         this.items = items;
+        if (items != null) {
+            items.forEach(item -> item.setCart(this)); // Items own the cart_id column
+        }
     }
 
     // Helper method to add an item to the cart
     public void addItem(CartItem item) {
+        item.setCart(this);
         this.items.add(item);
     }
 
     // Helper method to remove an item from the cart
     public void removeItem(CartItem item) {
         this.items.remove(item);
+        item.setCart(null);
     }
 
     // toString method for debugging
@@ -71,7 +93,7 @@ public class Cart {
     public String toString() {
         return "Cart{" +
                 "id=" + id +
-                ", customer=" + customer +
+                ", customerId=" + (customer != null ? customer.getId() : null) + // Avoids loading the lazy customer
                 ", items=" + items +
                 '}';
     }
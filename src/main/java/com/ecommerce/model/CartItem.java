@@ -1,13 +1,22 @@
 package com.ecommerce.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_cart_item_cart_product", columnNames = {"cart_id", "product_id"})) // One line per product
 public class CartItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_item_seq")
+    @SequenceGenerator(name = "cart_item_seq", sequenceName = "cart_item_seq", allocationSize = 50)
     private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "cart_id", nullable = false)
+    @JsonIgnore // The cart is always serialized from its own side
+    private Cart cart;
+
     private Long productId; // ID of the product
     private int quantity;   // Quantity of the product in the cart
 
@@ -16,6 +25,11 @@ public class CartItem {
         this.quantity = quantity;
     }
 
+    public CartItem(Cart cart, Long productId, int quantity) {
+        this(productId, quantity);
+        this.cart = cart;
+    }
+
     // Default constructor (required by JPA)
     public CartItem() {}
 
@@ -27,6 +41,14 @@ public class CartItem {
         this.id = id;
     }
 
+    public Cart getCart() {
+        return cart;
+    }
+
+    public void setCart(Cart cart) {
+        this.cart = cart;
+    }
+
     public Long getProductId() {
         return productId;
     }
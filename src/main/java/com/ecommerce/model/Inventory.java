@@ -0,0 +1,47 @@
+package com.ecommerce.model;
+
+import jakarta.persistence.*;
+
+// Stock of one product (SKU). Products without a row here are not stock-tracked and can always be ordered.
+@Entity
+@Table(name = "inventory")
+public class Inventory {
+
+    @Id
+    private Long productId;  // Same id as the product it counts
+
+    private int onHand;      // Units in stock not yet leased to a node (see InventoryService)
+
+    // Default constructor (required by JPA)
+    public Inventory() {}
+
+    public Inventory(Long productId, int onHand) {
+        this.productId = productId;
+        this.onHand = onHand;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public int getOnHand() {
+        return onHand;
+    }
+
+    public void setOnHand(int onHand) {
+        this.onHand = onHand;
+    }
+
+    // toString method for debugging
+    @Override
+    public String toString() {
+        return "Inventory{" +
+                "productId=" + productId +
+                ", onHand=" + onHand +
+                '}';
+    }
+}
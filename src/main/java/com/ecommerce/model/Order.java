@@ -5,7 +5,9 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -14,19 +16,22 @@ import java.util.List;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY) //database auto-increments the primary key value
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", sequenceName = "order_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", nullable = false)
     @JsonBackReference // Prevents infinite recursion
     private Customer customer;
 
     private double totalAmount; // Total amount of the order
     private String status; // Status of the order (e.g., "CREATED", "PAID")
+    private LocalDateTime createdAt; // When the order was placed
 
-    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
-    @JoinColumn(name = "order_id")
+    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", nullable = false, updatable = false) // Written by the line's insert, not by an update afterwards
+    @BatchSize(size = 50) // Initializes the items of up to 50 orders with one query
     private List<OrderItem> items = new ArrayList<>();
 
     // Default constructor (required by JPA)
@@ -40,6 +45,14 @@ public class Order {
         this.items = items;
     }
 
+    // Stamp the creation time when the order is first persisted
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -73,6 +86,14 @@ public class Order {
         this.status = status;
     }
 
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
     public List<OrderItem> getItems() {
         return items;
     }
@@ -96,9 +117,10 @@ public class Order {
     public String toString() {
         return "Order{" +
                 "id=" + id +
-                ", customer=" + customer +
+                ", customerId=" + (customer != null ? customer.getId() : null) + // Avoids loading the lazy customer
                 ", totalAmount=" + totalAmount +
                 ", status='" + status + '\'' +
+                ", createdAt=" + createdAt +
                 ", items=" + items +
                 '}';
     }
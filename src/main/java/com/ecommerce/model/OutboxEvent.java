@@ -0,0 +1,86 @@
+package com.ecommerce.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Event waiting to be published to Kafka. Written in the same transaction as the business change
+// it describes, then drained and deleted by the outbox relay once the broker has acknowledged it.
+@Entity
+@Table(name = "outbox_event")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;            // Also the relay order: commit order for events of one key (see OutboxService)
+
+    private String eventType;   // e.g. "ORDER_CREATED"
+    private String eventKey;    // Kafka message key (customer id for order events)
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] payload;     // Serialized event, sent to Kafka as-is
+
+    private LocalDateTime createdAt;
+
+    // Default constructor (required by JPA)
+    public OutboxEvent() {}
+
+    public OutboxEvent(String eventType, String eventKey, byte[] payload) {
+        this.eventType = eventType;
+        this.eventKey = eventKey;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getEventKey() {
+        return eventKey;
+    }
+
+    public void setEventKey(String eventKey) {
+        this.eventKey = eventKey;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    public void setPayload(byte[] payload) {
+        this.payload = payload;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    // toString method for debugging
+    @Override
+    public String toString() {
+        return "OutboxEvent{" +
+                "id=" + id +
+                ", eventType='" + eventType + '\'' +
+                ", eventKey='" + eventKey + '\'' +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
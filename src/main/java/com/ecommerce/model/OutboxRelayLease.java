@@ -0,0 +1,61 @@
+package com.ecommerce.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// The single row that decides which node runs the outbox relay. A node relays only while it holds the lease;
+// it renews the lease before every batch, and another node may take it over once it has expired.
+@Entity
+@Table(name = "outbox_relay_lease")
+public class OutboxRelayLease {
+
+    public static final long ID = 1L;
+
+    @Id
+    private Long id;
+
+    private String owner;               // Relay instance holding the lease, null once released
+
+    private LocalDateTime expiresAt;    // Database time at which the lease lapses unless renewed
+
+    // Default constructor (required by JPA)
+    public OutboxRelayLease() {}
+
+    public OutboxRelayLease(Long id) {
+        this.id = id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    // toString method for debugging
+    @Override
+    public String toString() {
+        return "OutboxRelayLease{" +
+                "owner='" + owner + '\'' +
+                ", expiresAt=" + expiresAt +
+                '}';
+    }
+}
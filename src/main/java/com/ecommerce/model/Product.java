@@ -1,18 +1,30 @@
 package com.ecommerce.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name="product")
+@Table(name="product", indexes = {
+        @Index(name = "idx_product_price", columnList = "price, id"), // Price-ordered browsing and price ranges
+        @Index(name = "idx_product_name", columnList = "name, id")})  // Name-ordered browsing
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY) //database auto-increments the primary key value
+    // Pooled sequence: Hibernate reserves 50 ids per database call, so inserts can be sent as JDBC batches
+    // (with IDENTITY every insert must run on its own to read back the generated key)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private Long id;
+    // Serialized fields are also compared by SerializedProductCache before reusing a product's JSON
     private String name;
     private double price;
     private String description;
 
+    // Bumped on every update: detects lost updates and is the product's HTTP ETag (sent as a header, not in the body)
+    @Version
+    @JsonIgnore
+    private long version;
+
     // Default constructor (required by JPA)
     public Product() {}
 
@@ -54,6 +66,14 @@ public class Product {
         this.description = description;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     // toString method for debugging
     @Override
     public String toString() {
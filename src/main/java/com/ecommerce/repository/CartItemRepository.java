@@ -0,0 +1,32 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.CartItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface CartItemRepository extends JpaRepository<CartItem, Long> {
+
+    // Adds to the quantity of an existing cart line in one atomic statement, so concurrent adds never lose
+    // an update. Returns the number of lines changed: 0 when the cart has no line for the product yet.
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update CartItem i set i.quantity = i.quantity + :quantity where i.cart.id = :cartId and i.productId = :productId")
+    int incrementQuantity(@Param("cartId") Long cartId, @Param("productId") Long productId, @Param("quantity") int quantity);
+
+    // Removes a cart line in one statement; returns 0 when there was no line for the product
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from CartItem i where i.cart.id = :cartId and i.productId = :productId")
+    int deleteLine(@Param("cartId") Long cartId, @Param("productId") Long productId);
+
+    // Removes every line of a cart in one statement
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from CartItem i where i.cart.id = :cartId")
+    int deleteAllOfCart(@Param("cartId") Long cartId);
+}
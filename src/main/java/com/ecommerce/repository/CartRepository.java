@@ -1,13 +1,56 @@
 package com.ecommerce.repository;
 
+import com.ecommerce.dto.CartVersion;
 import com.ecommerce.model.Cart;
-import com.ecommerce.model.Order;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CartRepository extends JpaRepository<Cart, Long> {
-    Optional<Cart> findByCustomerId(Long customerId);
+
+    // Fetch plan for cart reads: the cart and its items in one query, the customer stays a lazy reference
+    @Query("select c from Cart c left join fetch c.items where c.customer.id = :customerId")
+    Optional<Cart> findByCustomerId(@Param("customerId") Long customerId);
+
+    // Several carts with their items in one query (used when writing carts back in batches)
+    @Query("select distinct c from Cart c left join fetch c.items where c.customer.id in :customerIds")
+    List<Cart> findAllWithItemsByCustomerIdIn(@Param("customerIds") Collection<Long> customerIds);
+
+    // The cart without its lines, with its row locked until the transaction ends. Line changes and checkouts
+    // take this lock before touching cart_item, so they run one at a time per cart and always lock in that order.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Cart c where c.customer.id = :customerId")
+    Optional<Cart> findLockedByCustomerId(@Param("customerId") Long customerId);
+
+    // The cart's stored version, read with its row locked like findLockedByCustomerId. A scalar, so it is the
+    // committed value even when the cart is already loaded in the current persistence context.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c.version from Cart c where c.id = :cartId")
+    Optional<Long> findLockedVersionById(@Param("cartId") Long cartId);
+
+    // Just the cart's id and version, to answer a conditional GET without loading the lines
+    @Query("select new com.ecommerce.dto.CartVersion(c.id, c.version) from Cart c where c.customer.id = :customerId")
+    Optional<CartVersion> findVersionByCustomerId(@Param("customerId") Long customerId);
+
+    // Line updates go straight to cart_item, so they bump the cart's version themselves
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Cart c set c.version = c.version + 1 where c.id = :cartId")
+    int incrementVersion(@Param("cartId") Long cartId);
+
+    // Deletes a cart whose lines are already gone, in one statement
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Cart c where c.id = :cartId")
+    int deleteCart(@Param("cartId") Long cartId);
 }
@@ -1,10 +1,32 @@
 package com.ecommerce.repository;
 
 import com.ecommerce.model.Customer;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
+    // Fetch plan for GET /customers/{id}: customer, cart and cart items in one query
+    // (orders and their items follow in batches when they are read)
+    @EntityGraph(attributePaths = {"cart", "cart.items"})
+    Optional<Customer> findWithCartById(Long id);
+
+    // Fetch plan for GET /customers: customers, carts and cart items in one query
+    // (orders and their items follow in batches when they are read)
+    @EntityGraph(attributePaths = {"cart", "cart.items"})
+    List<Customer> findAllWithCartBy();
+
+    // The customer, with its row locked until the transaction ends (serializes work done for one customer)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Customer c where c.id = :id")
+    Optional<Customer> findLockedById(@Param("id") Long id);
 }
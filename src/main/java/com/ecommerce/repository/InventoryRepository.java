@@ -0,0 +1,33 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.Inventory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface InventoryRepository extends JpaRepository<Inventory, Long> {
+
+    // Atomically adds delta to the stock, whatever other nodes did in the meantime.
+    // Returns 0 when the product is not stock-tracked.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Inventory i set i.onHand = i.onHand + :delta where i.productId = :productId")
+    int adjustOnHand(@Param("productId") Long productId, @Param("delta") int delta);
+
+    // Starts tracking a product. A plain insert, never a merge, so it fails on the primary key when a concurrent
+    // restock created the row first rather than overwriting that restock's units.
+    @Modifying
+    @Query("insert into Inventory (productId, onHand) values (:productId, :onHand)")
+    int insert(@Param("productId") Long productId, @Param("onHand") int onHand);
+
+    // Takes quantity units out of the stored stock for one node to sell, only if that many are left, so nodes
+    // together never take more than there is. Joins the caller's transaction: a checkout's lease is undone if
+    // the checkout rolls back. Returns 0 when fewer units are left (or the product is not stock-tracked).
+    @Transactional
+    @Modifying
+    @Query("update Inventory i set i.onHand = i.onHand - :quantity where i.productId = :productId and i.onHand >= :quantity")
+    int lease(@Param("productId") Long productId, @Param("quantity") int quantity);
+}
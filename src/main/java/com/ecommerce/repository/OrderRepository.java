@@ -1,12 +1,43 @@
 package com.ecommerce.repository;
 
+import com.ecommerce.dto.OrderSummary;
 import com.ecommerce.model.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     Optional<Order> findByCustomerId(Long customerId);
+
+    // Fetch plan for GET /orders/{id}: the order and its items in one query, the customer stays a lazy reference.
+    // Read-only, like findSummaries, so order lookups can be served by a read replica.
+    @EntityGraph(attributePaths = "items")
+    @Transactional(readOnly = true)
+    Optional<Order> findWithItemsById(Long id);
+
+    // Newest-first keyset page of order summaries; every filter is optional (null = not applied)
+    @Query("select new com.ecommerce.dto.OrderSummary(o.id, o.customer.id, o.status, o.totalAmount, o.createdAt) " +
+            "from Order o " +
+            "where (:customerId is null or o.customer.id = :customerId) " +
+            "and (:status is null or o.status = :status) " +
+            "and (cast(:from as LocalDateTime) is null or o.createdAt >= :from) " +
+            "and (cast(:to as LocalDateTime) is null or o.createdAt < :to) " +
+            "and (:beforeId is null or o.id < :beforeId) " +
+            "order by o.id desc")
+    @Transactional(readOnly = true)
+    List<OrderSummary> findSummaries(@Param("customerId") Long customerId,
+                                     @Param("status") String status,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to,
+                                     @Param("beforeId") Long beforeId,
+                                     Limit limit);
 }
@@ -0,0 +1,18 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Oldest pending events. Read without locks: only the node holding the relay lease reads them,
+    // so nothing else sends or deletes these rows while its batch is in flight.
+    @Query("select e from OutboxEvent e order by e.id")
+    List<OutboxEvent> findBatchForRelay(Limit limit);
+}
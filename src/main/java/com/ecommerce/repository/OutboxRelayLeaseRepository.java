@@ -0,0 +1,28 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.OutboxRelayLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface OutboxRelayLeaseRepository extends JpaRepository<OutboxRelayLease, Long> {
+
+    // Takes or renews the lease for the owner, unless another owner holds it and it has not expired.
+    // Expiry is computed and checked on the database clock, so the nodes' clocks never have to agree.
+    // Returns 1 when the owner now holds the lease, 0 otherwise (or when the lease row does not exist yet).
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update OutboxRelayLease l set l.owner = :owner, l.expiresAt = local datetime + :seconds second " +
+            "where l.id = :id and (l.owner = :owner or l.owner is null or l.expiresAt < local datetime)")
+    int tryAcquire(@Param("id") Long id, @Param("owner") String owner, @Param("seconds") long seconds);
+
+    // Gives the lease up so another node can take over at once rather than after it expires
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update OutboxRelayLease l set l.owner = null, l.expiresAt = null where l.id = :id and l.owner = :owner")
+    int release(@Param("id") Long id, @Param("owner") String owner);
+}
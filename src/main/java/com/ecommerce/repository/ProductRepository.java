@@ -1,9 +1,93 @@
 package com.ecommerce.repository;
 
 import com.ecommerce.model.Product;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
+// Catalog reads are read-only transactions, served by a read replica when there is one; the inherited save and
+// delete methods keep their own read-write transactions
 @Repository
+@Transactional(readOnly = true)
 public interface ProductRepository extends JpaRepository<Product, Long> {
+
+    // Keyset pagination: the next page of products after the given id, in id order (uses the primary key index)
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Keyset pages for catalog browsing, priced within [minPrice, maxPrice]. Each walks idx_product_price or
+    // idx_product_name: the first page from the start of the range, the next ones from the (price or name, id) of
+    // the previous page's last product. The cursor is split into a plain range condition on the sort column, which
+    // the index can seek to, and the id tie-break, checked only on the rows with the cursor's own value.
+    @Query("select p from Product p " +
+            "where p.price between :minPrice and :maxPrice " +
+            "order by p.price asc, p.id asc")
+    List<Product> findFirstPageByPriceAsc(@Param("minPrice") double minPrice,
+                                          @Param("maxPrice") double maxPrice,
+                                          Limit limit);
+
+    @Query("select p from Product p " +
+            "where p.price between :minPrice and :maxPrice " +
+            "and p.price >= :afterPrice and (p.price > :afterPrice or p.id > :afterId) " +
+            "order by p.price asc, p.id asc")
+    List<Product> findNextPageByPriceAsc(@Param("minPrice") double minPrice,
+                                         @Param("maxPrice") double maxPrice,
+                                         @Param("afterPrice") double afterPrice,
+                                         @Param("afterId") Long afterId,
+                                         Limit limit);
+
+    @Query("select p from Product p " +
+            "where p.price between :minPrice and :maxPrice " +
+            "order by p.price desc, p.id desc")
+    List<Product> findFirstPageByPriceDesc(@Param("minPrice") double minPrice,
+                                           @Param("maxPrice") double maxPrice,
+                                           Limit limit);
+
+    @Query("select p from Product p " +
+            "where p.price between :minPrice and :maxPrice " +
+            "and p.price <= :afterPrice and (p.price < :afterPrice or p.id < :afterId) " +
+            "order by p.price desc, p.id desc")
+    List<Product> findNextPageByPriceDesc(@Param("minPrice") double minPrice,
+                                          @Param("maxPrice") double maxPrice,
+                                          @Param("afterPrice") double afterPrice,
+                                          @Param("afterId") Long afterId,
+                                          Limit limit);
+
+    @Query("select p from Product p " +
+            "where p.price between :minPrice and :maxPrice " +
+            "order by p.name asc, p.id asc")
+    List<Product> findFirstPageByNameAsc(@Param("minPrice") double minPrice,
+                                         @Param("maxPrice") double maxPrice,
+                                         Limit limit);
+
+    @Query("select p from Product p " +
+            "where p.price between :minPrice and :maxPrice " +
+            "and p.name >= :afterName and (p.name > :afterName or p.id > :afterId) " +
+            "order by p.name asc, p.id asc")
+    List<Product> findNextPageByNameAsc(@Param("minPrice") double minPrice,
+                                        @Param("maxPrice") double maxPrice,
+                                        @Param("afterName") String afterName,
+                                        @Param("afterId") Long afterId,
+                                        Limit limit);
+
+    @Query("select p from Product p " +
+            "where p.price between :minPrice and :maxPrice " +
+            "order by p.name desc, p.id desc")
+    List<Product> findFirstPageByNameDesc(@Param("minPrice") double minPrice,
+                                          @Param("maxPrice") double maxPrice,
+                                          Limit limit);
+
+    @Query("select p from Product p " +
+            "where p.price between :minPrice and :maxPrice " +
+            "and p.name <= :afterName and (p.name < :afterName or p.id < :afterId) " +
+            "order by p.name desc, p.id desc")
+    List<Product> findNextPageByNameDesc(@Param("minPrice") double minPrice,
+                                         @Param("maxPrice") double maxPrice,
+                                         @Param("afterName") String afterName,
+                                         @Param("afterId") Long afterId,
+                                         Limit limit);
 }
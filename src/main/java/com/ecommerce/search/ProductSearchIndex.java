@@ -0,0 +1,528 @@
+package com.ecommerce.search;
+
+import com.ecommerce.exception.ProductServiceException;
+import com.ecommerce.kafka.ProductChangedEvent;
+import com.ecommerce.model.Product;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// In-process inverted index over product names and descriptions, answering /products/search without a
+// database query. Kept up to date from product change events: this node's own changes are applied as they are
+// published, other nodes' arrive on the "products" topic. Events carry a version, so a late or replayed event
+// never overwrites a newer state. ProductSearchIndexLoader seeds it from the database once at startup.
+//
+// Every query word must match (AND). A word matches products containing it exactly, the last word also matches
+// as a prefix (autocomplete), and with fuzzy matching on, words of 5+ letters also match words one or two typos
+// away. Name matches rank above description matches, exact above prefix above fuzzy.
+//
+// Products are numbered densely and each word keeps a sorted array of the numbers containing it, so a query
+// is a few array scans with no boxing, however many products match. A SortedPriceIndex over the same products
+// answers price-ordered browsing ("cheapest 20 between 10 and 50") without looking at the rest of the catalog.
+@Component
+public class ProductSearchIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern HAS_DIGIT = Pattern.compile(".*\\p{N}.*");
+
+    // Field bits stored per (word, product)
+    private static final byte NAME = 1;
+    private static final byte DESCRIPTION = 2;
+
+    private static final float EXACT = 1.0f;
+    private static final float PREFIX = 0.7f;
+    private static final float FUZZY = 0.5f;
+
+    private static final int MAX_QUERY_WORDS = 16;
+
+    // Product ids come from a sequence and are never reused, so a delete is final: no later event revives the product
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(() -> new Scratch(0));
+
+    // Upper bound on the index words one prefix or fuzzy query word expands to, so "a" stays cheap
+    @Value("${product.search.max-expansions:50}")
+    private int maxExpansions = 50;
+
+    @Value("${product.search.default-limit:20}")
+    private int defaultLimit = 20;
+
+    @Value("${product.search.max-limit:100}")
+    private int maxLimit = 100;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Long> versions = new HashMap<>();     // Last applied version per product, DELETED for deleted ones
+    private final Map<Long, Integer> docNumbers = new HashMap<>(); // Product id -> doc number
+    private final Deque<Integer> freeDocNumbers = new ArrayDeque<>();
+    private Product[] documents = new Product[1024];               // By doc number, null when free
+    private int docLimit;                                          // Doc numbers in use are below this
+    private final NavigableMap<String, Posting> postings = new TreeMap<>();
+    private final SortedPriceIndex prices = new SortedPriceIndex();
+
+    private volatile boolean loaded; // Set once the startup load has read the whole catalog
+
+    // Applies a create, update or delete unless a newer change to the product has already been applied
+    public void apply(ProductChangedEvent event) {
+        if (event == null || event.getProductId() == null || event.getType() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Long applied = versions.get(event.getProductId());
+            if (applied != null && event.getVersion() < applied) {
+                return;
+            }
+            boolean deleted = event.getType() == ProductChangedEvent.ChangeType.DELETED;
+            versions.put(event.getProductId(), deleted ? DELETED : event.getVersion());
+            remove(event.getProductId());
+            if (!deleted) {
+                add(event.toProduct());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Adds a product read from the database, unless an event for it was applied in the meantime
+    public void addIfUnknown(Product product) {
+        lock.writeLock().lock();
+        try {
+            if (versions.putIfAbsent(product.getId(), product.getVersion()) == null) {
+                add(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Products matching every word of the query and the price range, best match first
+    public List<Product> search(String query, Double minPrice, Double maxPrice, boolean fuzzy, Integer limit) {
+        List<String> words = new ArrayList<>(new LinkedHashSet<>(terms(query)));
+        if (words.isEmpty()) {
+            throw new ProductServiceException("Search query must contain at least one word");
+        }
+        if (words.size() > MAX_QUERY_WORDS) {
+            throw new ProductServiceException("Search query must not have more than " + MAX_QUERY_WORDS + " words");
+        }
+        int resultLimit = limit == null ? defaultLimit : Math.min(Math.max(limit, 1), maxLimit);
+
+        lock.readLock().lock();
+        try {
+            List<List<Source>> wordSources = new ArrayList<>(words.size());
+            for (int i = 0; i < words.size(); i++) {
+                List<Source> sources = sources(words.get(i), i == words.size() - 1, fuzzy);
+                if (sources.isEmpty()) {
+                    return List.of();
+                }
+                wordSources.add(sources);
+            }
+            // Rarest word first: later words only look at products that matched every word before them
+            wordSources.sort(Comparator.comparingLong(ProductSearchIndex::size));
+
+            Scratch scratch = scratch();
+            try {
+                IntList candidates = null;
+                for (int i = 0; i < wordSources.size(); i++) {
+                    IntList touched = new IntList();
+                    for (Source source : wordSources.get(i)) {
+                        scratch.collect(source, i, touched);
+                    }
+                    if (touched.size == 0) {
+                        return List.of();
+                    }
+                    scratch.addWordScores(touched);
+                    if (candidates == null) {
+                        scratch.firstWordDocs = touched; // Every doc any later word can touch
+                    }
+                    candidates = touched;
+                }
+                return top(candidates, scratch.scores, minPrice, maxPrice, resultLimit);
+            } finally {
+                scratch.reset();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // One page of products priced within [minPrice, maxPrice] (either may be null), by price then id, ascending
+    // or descending, starting after the given price and id (both null for the first page)
+    public List<Product> browseByPrice(Double minPrice, Double maxPrice, boolean descending,
+                                       Double afterPrice, Long afterId, int limit) {
+        long[] ids = new long[limit];
+        lock.readLock().lock();
+        try {
+            int found = prices.range(
+                    minPrice != null ? minPrice : Double.NEGATIVE_INFINITY,
+                    maxPrice != null ? maxPrice : Double.POSITIVE_INFINITY,
+                    afterPrice != null ? afterPrice : descending ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY,
+                    afterId != null ? afterId : descending ? Long.MAX_VALUE : Long.MIN_VALUE,
+                    descending, ids);
+            List<Product> products = new ArrayList<>(found);
+            for (int i = 0; i < found; i++) {
+                products.add(copyOf(documents[docNumbers.get(ids[i])]));
+            }
+            return products;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Until the startup load is done the index lacks products nobody has changed since, so callers that need
+    // the whole catalog (browsing, as opposed to search) go to the database
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    void markLoaded() {
+        loaded = true;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docNumbers.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Best resultLimit candidates within the price range, by score then product id. Caller holds the read lock.
+    private List<Product> top(IntList candidates, float[] scores, Double minPrice, Double maxPrice, int resultLimit) {
+        int[] heap = new int[Math.min(resultLimit, candidates.size)]; // Min-heap: worst of the best at the root
+        int size = 0;
+        for (int k = 0; k < candidates.size; k++) {
+            int doc = candidates.values[k];
+            double price = documents[doc].getPrice();
+            if ((minPrice != null && price < minPrice) || (maxPrice != null && price > maxPrice)) {
+                continue;
+            }
+            if (size < heap.length) {
+                heap[size] = doc;
+                siftUp(heap, size++, scores);
+            } else if (ranksAbove(doc, heap[0], scores)) {
+                heap[0] = doc;
+                siftDown(heap, size, scores);
+            }
+        }
+        Product[] results = new Product[size];
+        for (int i = size - 1; i >= 0; i--) {
+            results[i] = copyOf(documents[heap[0]]);
+            heap[0] = heap[i];
+            siftDown(heap, i, scores);
+        }
+        return Arrays.asList(results);
+    }
+
+    private boolean ranksAbove(int doc, int other, float[] scores) {
+        return scores[doc] != scores[other] ? scores[doc] > scores[other] : documents[doc].getId() < documents[other].getId();
+    }
+
+    private void siftUp(int[] heap, int at, float[] scores) {
+        while (at > 0 && ranksAbove(heap[(at - 1) / 2], heap[at], scores)) {
+            swap(heap, at, (at - 1) / 2);
+            at = (at - 1) / 2;
+        }
+    }
+
+    private void siftDown(int[] heap, int size, float[] scores) {
+        int at = 0;
+        while (true) {
+            int worst = at;
+            for (int child = 2 * at + 1; child <= 2 * at + 2 && child < size; child++) {
+                if (ranksAbove(heap[worst], heap[child], scores)) {
+                    worst = child;
+                }
+            }
+            if (worst == at) {
+                return;
+            }
+            swap(heap, at, worst);
+            at = worst;
+        }
+    }
+
+    private static void swap(int[] heap, int a, int b) {
+        int value = heap[a];
+        heap[a] = heap[b];
+        heap[b] = value;
+    }
+
+    // Per-thread working arrays, indexed by doc number, so a query allocates nothing in proportion to the
+    // catalog. Grown when the index outgrows them. Caller holds the read lock.
+    private Scratch scratch() {
+        Scratch scratch = SCRATCH.get();
+        if (scratch.scores.length < docLimit) {
+            scratch = new Scratch(documents.length);
+            SCRATCH.set(scratch);
+        }
+        return scratch;
+    }
+
+    // Index words a query word matches, with the weight of each kind of match. Caller holds the read lock.
+    private List<Source> sources(String word, boolean prefix, boolean fuzzy) {
+        List<Source> sources = new ArrayList<>();
+        Posting exact = postings.get(word);
+        if (exact != null) {
+            sources.add(new Source(exact, EXACT));
+        }
+
+        if (prefix) {
+            int expanded = 0;
+            for (Posting posting : postings.subMap(word, false, word + Character.MAX_VALUE, false).values()) {
+                if (++expanded > maxExpansions) {
+                    break;
+                }
+                sources.add(new Source(posting, PREFIX));
+            }
+        }
+
+        int maxEdits = maxEdits(word);
+        if (fuzzy && maxEdits > 0) {
+            // Typos rarely hit the first letter, so only words sharing it are compared
+            String first = word.substring(0, 1);
+            int expanded = 0;
+            for (Map.Entry<String, Posting> entry
+                    : postings.subMap(first, true, first + Character.MAX_VALUE, false).entrySet()) {
+                String candidate = entry.getKey();
+                if (Math.abs(candidate.length() - word.length()) <= maxEdits && !candidate.equals(word)
+                        && withinEditDistance(word, candidate, maxEdits)) {
+                    sources.add(new Source(entry.getValue(), FUZZY));
+                    if (++expanded >= maxExpansions) {
+                        break;
+                    }
+                }
+            }
+        }
+        return sources;
+    }
+
+    private static long size(List<Source> sources) {
+        long size = 0;
+        for (Source source : sources) {
+            size += source.posting.size;
+        }
+        return size;
+    }
+
+    // Caller holds the write lock
+    private void add(Product product) {
+        Product document = copyOf(product);
+        Integer free = freeDocNumbers.poll();
+        int doc = free != null ? free : docLimit++;
+        if (doc == documents.length) {
+            documents = Arrays.copyOf(documents, documents.length * 2);
+        }
+        documents[doc] = document;
+        docNumbers.put(document.getId(), doc);
+        prices.add(document.getPrice(), document.getId());
+        for (String term : terms(document.getName())) {
+            postings.computeIfAbsent(term, key -> new Posting()).add(doc, NAME);
+        }
+        for (String term : terms(document.getDescription())) {
+            postings.computeIfAbsent(term, key -> new Posting()).add(doc, DESCRIPTION);
+        }
+    }
+
+    // Caller holds the write lock
+    private void remove(Long productId) {
+        Integer doc = docNumbers.remove(productId);
+        if (doc == null) {
+            return;
+        }
+        Product document = documents[doc];
+        prices.remove(document.getPrice(), productId);
+        Set<String> terms = new LinkedHashSet<>(terms(document.getName()));
+        terms.addAll(terms(document.getDescription()));
+        for (String term : terms) {
+            Posting posting = postings.get(term);
+            if (posting != null && posting.remove(doc) && posting.size == 0) {
+                postings.remove(term);
+            }
+        }
+        documents[doc] = null;
+        freeDocNumbers.push(doc);
+    }
+
+    // Lower-cased words with accents removed ("Café Crème" -> cafe, creme)
+    static List<String> terms(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase();
+        List<String> terms = new ArrayList<>();
+        for (String term : NON_WORD.split(normalized)) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    // Typos tolerated for a word: none for short words, where one edit already changes the meaning,
+    // nor for words with digits (model numbers and sizes must match exactly)
+    private static int maxEdits(String word) {
+        if (word.length() < 5 || HAS_DIGIT.matcher(word).matches()) {
+            return 0;
+        }
+        return word.length() <= 8 ? 1 : 2;
+    }
+
+    // Levenshtein distance <= maxEdits, giving up as soon as a whole row exceeds it
+    static boolean withinEditDistance(String a, String b, int maxEdits) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxEdits) {
+                return false;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()] <= maxEdits;
+    }
+
+    private static Product copyOf(Product product) {
+        Product copy = new Product(product.getName(), product.getPrice(), product.getDescription());
+        copy.setId(product.getId());
+        return copy;
+    }
+
+    // Doc numbers containing one word, sorted, with the fields (NAME / DESCRIPTION bits) it appears in
+    private static final class Posting {
+        private int[] docs = new int[4];
+        private byte[] fields = new byte[4];
+        private int size;
+
+        private void add(int doc, byte field) {
+            int at = Arrays.binarySearch(docs, 0, size, doc);
+            if (at >= 0) {
+                fields[at] |= field;
+                return;
+            }
+            at = -at - 1;
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                fields = Arrays.copyOf(fields, size * 2);
+            }
+            System.arraycopy(docs, at, docs, at + 1, size - at);
+            System.arraycopy(fields, at, fields, at + 1, size - at);
+            docs[at] = doc;
+            fields[at] = field;
+            size++;
+        }
+
+        private boolean remove(int doc) {
+            int at = Arrays.binarySearch(docs, 0, size, doc);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(docs, at + 1, docs, at, size - at - 1);
+            System.arraycopy(fields, at + 1, fields, at, size - at - 1);
+            size--;
+            return true;
+        }
+    }
+
+    // One index word matched by a query word, and what such a match is worth
+    private static final class Source {
+        private final Posting posting;
+        private final float weight;
+
+        private Source(Posting posting, float weight) {
+            this.posting = posting;
+            this.weight = weight;
+        }
+    }
+
+    private static final class Scratch {
+        private final byte[] matchedWords; // Query words a doc has matched so far
+        private final float[] wordScores;  // Doc's best match for the current word
+        private final float[] scores;      // Doc's total over the words matched so far
+        private IntList firstWordDocs;
+
+        private Scratch(int docs) {
+            matchedWords = new byte[docs];
+            wordScores = new float[docs];
+            scores = new float[docs];
+        }
+
+        // Scores the docs of one source that matched every earlier word (word is the index of the current one)
+        private void collect(Source source, int word, IntList touched) {
+            Posting posting = source.posting;
+            for (int k = 0; k < posting.size; k++) {
+                int doc = posting.docs[k];
+                if (matchedWords[doc] != word) {
+                    continue;
+                }
+                float score = (posting.fields[k] & NAME) != 0 ? source.weight * 2 : source.weight;
+                if (wordScores[doc] == 0) {
+                    touched.add(doc);
+                }
+                if (score > wordScores[doc]) {
+                    wordScores[doc] = score;
+                }
+            }
+        }
+
+        private void addWordScores(IntList touched) {
+            for (int k = 0; k < touched.size; k++) {
+                int doc = touched.values[k];
+                matchedWords[doc]++;
+                scores[doc] += wordScores[doc];
+                wordScores[doc] = 0;
+            }
+        }
+
+        // Zeroes what the query wrote, ready for the next one
+        private void reset() {
+            if (firstWordDocs != null) {
+                for (int k = 0; k < firstWordDocs.size; k++) {
+                    int doc = firstWordDocs.values[k];
+                    matchedWords[doc] = 0;
+                    scores[doc] = 0;
+                }
+                firstWordDocs = null;
+            }
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.ecommerce.search;
+
+import com.ecommerce.datasource.ReadRouting;
+import com.ecommerce.service.ProductService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// Seeds the search and price index with the catalog once the application is up. The catalog is read chunk by chunk,
+// so only one chunk is in memory besides the index; from then on the index follows product change events.
+@Component
+public class ProductSearchIndexLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndexLoader.class);
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadCatalog() {
+        long start = System.nanoTime();
+        // From the primary: a product missing from a lagging replica would stay unsearchable until it next changes
+        ReadRouting.onPrimary(() -> productService.forEachProductPage(page -> page.forEach(productSearchIndex::addIfUnknown)));
+        productSearchIndex.markLoaded();
+        log.info("Search index loaded with {} products in {} ms",
+                productSearchIndex.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,184 @@
+package com.ecommerce.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Product ids ordered by (price, id), in primitive arrays: blocks of up to BLOCK_SIZE sorted entries, the blocks
+// themselves in order. Finding where a price range starts is two binary searches, an insert or delete moves at
+// most one block's entries, and an entry costs 16 bytes however large the catalog. Not thread-safe: the owner
+// guards it with its own lock.
+public final class SortedPriceIndex {
+
+    static final int BLOCK_SIZE = 1024;
+
+    private final List<Block> blocks = new ArrayList<>();
+    private int size;
+
+    public void add(double price, long id) {
+        if (blocks.isEmpty()) {
+            blocks.add(new Block()); // The only time a block is empty: blocks are dropped when emptied
+            blocks.get(0).insert(0, price, id);
+            size++;
+            return;
+        }
+        int b = Math.min(firstBlockEndingAtOrAfter(price, id), blocks.size() - 1);
+        Block block = blocks.get(b);
+        if (block.size == BLOCK_SIZE) {
+            Block upper = block.splitUpperHalf();
+            blocks.add(b + 1, upper);
+            if (compare(price, id, upper.prices[0], upper.ids[0]) >= 0) {
+                block = upper;
+            }
+        }
+        block.insert(block.search(price, id, false), price, id);
+        size++;
+    }
+
+    public boolean remove(double price, long id) {
+        int b = firstBlockEndingAtOrAfter(price, id);
+        if (b == blocks.size()) {
+            return false;
+        }
+        Block block = blocks.get(b);
+        int at = block.search(price, id, false);
+        if (at == block.size || block.prices[at] != price || block.ids[at] != id) {
+            return false;
+        }
+        block.delete(at);
+        if (block.size == 0) {
+            blocks.remove(b);
+        }
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Fills ids with the entries priced within [minPrice, maxPrice] that come after (afterPrice, afterId) in the
+    // requested order, and returns how many it found. Pass -Infinity / Long.MIN_VALUE (ascending) or
+    // +Infinity / Long.MAX_VALUE (descending) to start from the beginning.
+    public int range(double minPrice, double maxPrice, double afterPrice, long afterId, boolean descending, long[] ids) {
+        int found = 0;
+        if (!descending) {
+            // Start after whichever is later: the cursor or just below minPrice
+            if (compare(afterPrice, afterId, minPrice, Long.MIN_VALUE) < 0) {
+                afterPrice = minPrice;
+                afterId = Long.MIN_VALUE;
+            }
+            int b = firstBlockEndingAfter(afterPrice, afterId);
+            int at = b < blocks.size() ? blocks.get(b).search(afterPrice, afterId, true) : 0;
+            for (; b < blocks.size() && found < ids.length; b++, at = 0) {
+                Block block = blocks.get(b);
+                for (; at < block.size && found < ids.length; at++) {
+                    if (block.prices[at] > maxPrice) {
+                        return found;
+                    }
+                    ids[found++] = block.ids[at];
+                }
+            }
+        } else {
+            // Start before whichever is earlier: the cursor or just above maxPrice
+            if (compare(afterPrice, afterId, maxPrice, Long.MAX_VALUE) > 0) {
+                afterPrice = maxPrice;
+                afterId = Long.MAX_VALUE;
+            }
+            int b = firstBlockEndingAtOrAfter(afterPrice, afterId);
+            int at;
+            if (b == blocks.size()) {
+                b--;
+                at = b >= 0 ? blocks.get(b).size - 1 : -1;
+            } else {
+                at = blocks.get(b).search(afterPrice, afterId, false) - 1;
+            }
+            for (; b >= 0 && found < ids.length; b--, at = b >= 0 ? blocks.get(b).size - 1 : -1) {
+                Block block = blocks.get(b);
+                for (; at >= 0 && found < ids.length; at--) {
+                    if (block.prices[at] < minPrice) {
+                        return found;
+                    }
+                    ids[found++] = block.ids[at];
+                }
+            }
+        }
+        return found;
+    }
+
+    // Index of the first block whose last entry is >= (price, id), or blocks.size() if there is none
+    private int firstBlockEndingAtOrAfter(double price, long id) {
+        return firstBlockEnding(price, id, false);
+    }
+
+    private int firstBlockEndingAfter(double price, long id) {
+        return firstBlockEnding(price, id, true);
+    }
+
+    private int firstBlockEnding(double price, long id, boolean strictlyAfter) {
+        int low = 0;
+        int high = blocks.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            Block block = blocks.get(mid);
+            int c = compare(block.prices[block.size - 1], block.ids[block.size - 1], price, id);
+            if (c < 0 || (strictlyAfter && c == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int compare(double price, long id, double otherPrice, long otherId) {
+        int c = Double.compare(price, otherPrice);
+        return c != 0 ? c : Long.compare(id, otherId);
+    }
+
+    private static final class Block {
+        private final double[] prices = new double[BLOCK_SIZE];
+        private final long[] ids = new long[BLOCK_SIZE];
+        private int size;
+
+        // Index of the first entry >= (or, strictlyAfter, >) the given one
+        private int search(double price, long id, boolean strictlyAfter) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int c = compare(prices[mid], ids[mid], price, id);
+                if (c < 0 || (strictlyAfter && c == 0)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private void insert(int at, double price, long id) {
+            System.arraycopy(prices, at, prices, at + 1, size - at);
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            prices[at] = price;
+            ids[at] = id;
+            size++;
+        }
+
+        private void delete(int at) {
+            System.arraycopy(prices, at + 1, prices, at, size - at - 1);
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+        }
+
+        // Moves the upper half of the entries to a new block and returns it
+        private Block splitUpperHalf() {
+            Block upper = new Block();
+            int half = size / 2;
+            upper.size = size - half;
+            System.arraycopy(prices, half, upper.prices, 0, upper.size);
+            System.arraycopy(ids, half, upper.ids, 0, upper.size);
+            size = half;
+            return upper;
+        }
+    }
+}
@@ -1,70 +1,54 @@
 package com.ecommerce.service;
 
+import com.ecommerce.cache.ProductCache;
+import com.ecommerce.cart.CartStore;
+import com.ecommerce.dto.CartVersion;
 import com.ecommerce.exception.CartServiceException;
 import com.ecommerce.model.Cart;
-import com.ecommerce.model.CartItem;
-import com.ecommerce.model.Customer;
 import com.ecommerce.model.Product;
-import com.ecommerce.repository.CartRepository;
-import com.ecommerce.repository.CustomerRepository;
 import com.ecommerce.repository.ProductRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.Optional;
-
 @Service
+@Timed("service.method")
 public class CartService {
 
     @Autowired
-    private CartRepository cartRepository;
+    private CartStore cartStore;
 
     @Autowired
-    private CustomerRepository customerRepository;
+    private ProductRepository productRepository;
 
     @Autowired
-    private ProductRepository productRepository;
+    private ProductCache productCache;
 
 
     // Helper method to get or create a cart for a customer
     public Cart getOrCreateCart(Long customerId) {
-        return cartRepository.findByCustomerId(customerId)
-                .orElseGet(() -> {
-                    Customer customer = customerRepository.findById(customerId)
-                            .orElseThrow(() -> new CartServiceException("Customer not found: " + customerId));
-                    Cart newCart = new Cart();
-                    newCart.setCustomer(customer);
-                    return cartRepository.save(newCart);
-                });
+        return cartStore.getCart(customerId);
     }
 
 
-    public Cart addToCart(Long customerId, Long productId, int quantity) {
+    // Version of the customer's cart (null if there is none yet), cheaper to get than the cart itself
+    public CartVersion getCartVersion(Long customerId) {
         try {
-            validateQuantity(quantity);
-            Product product = getProductById(productId);
-            Cart cart = getOrCreateCart(customerId);
-
-            // Ensure the cart items list is initialized
-            if (cart.getItems() == null) {
-                cart.setItems(new ArrayList<>());
-            }
-
-            Optional<CartItem> existingItem = cart.getItems().stream()
-                    .filter(item -> item.getProductId().equals(productId))
-                    .findFirst();
+            return cartStore.getVersion(customerId);
+        } catch (CartServiceException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new CartServiceException("Failed to read cart version: " + ex.getMessage(), ex);
+        }
+    }
 
-            if (existingItem.isPresent()) {
-                // Update existing quantity
-                existingItem.get().setQuantity(existingItem.get().getQuantity() + quantity);
-            } else {
-                // Add new item to the cart
-                cart.getItems().add(new CartItem(productId, quantity));
-            }
 
-            return cartRepository.save(cart);
-//            return buildCartMessage(product, productId, quantity, customerId, existingItem.isPresent());
+    // Adds the product to the cart, or increases the quantity of its existing line
+    public Cart addToCart(Long customerId, Long productId, int quantity) {
+        try {
+            validateQuantity(quantity);
+            getProductById(productId);
+            return cartStore.addItem(customerId, productId, quantity);
         } catch (CartServiceException ex) {
             throw ex;
         } catch (Exception ex) {
@@ -74,13 +58,10 @@ public class CartService {
 
     public void removeFromCart(Long customerId, Long productId) {
         try {
-            Cart cart = getOrCreateCart(customerId);
-            CartItem itemToRemove = findCartItem(cart, productId);
-
-            // Remove the item from the cart
-            cart.getItems().remove(itemToRemove);
-            cartRepository.save(cart);
-
+            if (!cartStore.removeItem(customerId, productId)) {
+                throw new CartServiceException("Product with ID " + productId +
+                        " not found in the cart of customer with ID " + customerId);
+            }
         } catch (CartServiceException ex) {
             throw ex;
         } catch (Exception ex) {
@@ -88,15 +69,20 @@ public class CartService {
         }
     }
 
+    // Removes the cart an order was placed from; see CartStore.clearOrdered
+    public void clearOrderedCart(Long customerId, Cart cart) {
+        try {
+            cartStore.clearOrdered(customerId, cart);
+        } catch (CartServiceException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new CartServiceException("Failed to clear cart: " + ex.getMessage(), ex);
+        }
+    }
+
     public void clearCart(Long customerId) {
         try {
-            Cart cart = getOrCreateCart(customerId);
-            cart.getItems().clear();
-            cartRepository.save(cart);
-            // Delete the cart if it's empty
-            if (cart.getItems().isEmpty()) {
-                cartRepository.delete(cart);
-            }
+            cartStore.clear(customerId);
         } catch (Exception ex) {
             throw new CartServiceException("Failed to clear cart: " + ex.getMessage(), ex);
         }
@@ -110,20 +96,13 @@ public class CartService {
         }
     }
 
-    // Helper method to get product by ID
+    // Helper method to get product by ID (served from the product cache when possible)
     private Product getProductById(Long productId) {
-        return productRepository.findById(productId)
-                .orElseThrow(() -> new CartServiceException("Product not found: " + productId));
-    }
-
-
-    // Helper method to find a cart item
-    private CartItem findCartItem(Cart cart, Long productId) {
-        return cart.getItems().stream()
-                .filter(item -> item.getProductId().equals(productId))
-                .findFirst()
-                .orElseThrow(() -> new CartServiceException("Product with ID " + productId +
-                        " not found in the cart of customer with ID " + cart.getCustomer().getId()));
+        Product product = productCache.get(productId, productRepository::findById);
+        if (product == null) {
+            throw new CartServiceException("Product not found: " + productId);
+        }
+        return product;
     }
 
 }
@@ -2,12 +2,14 @@ package com.ecommerce.service;
 
 import com.ecommerce.model.Customer;
 import com.ecommerce.repository.CustomerRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
 @Service
+@Timed("service.method")
 public class CustomerService {
 
     @Autowired
@@ -18,14 +20,14 @@ public class CustomerService {
         return customerRepository.save(customer);
     }
 
-    // Get all customers
+    // Get all customers, together with their carts
     public List<Customer> getAllCustomers() {
-        return customerRepository.findAll();
+        return customerRepository.findAllWithCartBy();
     }
 
-    // Get a customer by ID
+    // Get a customer by ID, together with their cart
     public Customer getCustomerById(Long id) {
-        return customerRepository.findById(id)
+        return customerRepository.findWithCartById(id)
                 .orElseThrow(() -> new RuntimeException("Customer not found with ID: " + id));
     }
 
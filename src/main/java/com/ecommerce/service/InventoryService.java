@@ -0,0 +1,434 @@
+package com.ecommerce.service;
+
+import com.ecommerce.datasource.ReadRouting;
+import com.ecommerce.dto.StockLevel;
+import com.ecommerce.exception.InsufficientStockException;
+import com.ecommerce.exception.InventoryServiceException;
+import com.ecommerce.model.Inventory;
+import com.ecommerce.repository.InventoryRepository;
+import jakarta.annotation.PreDestroy;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Per-product stock with reserve / commit / release on the checkout path.
+// Each node sells from units it has leased out of the stored stock. A lease is one conditional update that only
+// takes units the row still has, so however many nodes run, together they never sell more than was stocked.
+// Reservations are compare-and-set decrements of the leased units in memory, so a flash sale on one product
+// touches its database row only once every inventory.lease-size units. Sold units need no write-back. flush()
+// gives back the units of products a node has stopped selling, so stock left with a quiet node becomes
+// available to the others. Leased units held by a node that crashes cannot be sold until restocked.
+@Service
+@Timed("service.method")
+public class InventoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryService.class);
+
+    private static final int STOCK_LEVEL_ATTEMPTS = 10;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Units leased on top of what a checkout is short of, so the next checkouts find them in memory
+    @Value("${inventory.lease-size:20}")
+    private int leaseSize = 20;
+
+    // Products whose unsold units are given back per transaction
+    @Value("${inventory.flush-batch-size:500}")
+    private int flushBatchSize = 500;
+
+    // A product without an inventory row may be restocked on another node, which this node would not see;
+    // it looks again after this long, so it soon stops selling the product without limit
+    @Value("${inventory.untracked-recheck-ms:10000}")
+    private long untrackedRecheckMs = 10000;
+
+    private final Map<Long, StockCounter> counters = new ConcurrentHashMap<>();
+
+    // One flush at a time; a lock rather than synchronized so a virtual thread waiting on the database
+    // does not pin its carrier thread
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // Reserves every requested quantity, or nothing: if any product is short, the reservations already
+    // taken are released and InsufficientStockException is thrown
+    public Reservation reserve(Map<Long, Integer> quantities) {
+        Map<Long, StockCounter> lineCounters = counters(quantities.keySet());
+        Reservation reservation = new Reservation();
+        // In product id order, so checkouts leasing several products lock their rows in the same order
+        for (Map.Entry<Long, Integer> line : new TreeMap<>(quantities).entrySet()) {
+            StockCounter counter = lineCounters.get(line.getKey());
+            if (!counter.tracked) {
+                continue;
+            }
+            if (counter.tryTake(line.getValue())) {
+                reservation.add(line.getKey(), counter, line.getValue());
+            } else if (!reserveByLease(line.getKey(), counter, line.getValue(), reservation)) {
+                release(reservation);
+                throw new InsufficientStockException(line.getKey(), line.getValue());
+            }
+        }
+        return reservation;
+    }
+
+    // Turns the reservation into a sale; the units already left the stored stock when they were leased
+    public void commit(Reservation reservation) {
+        reservation.counters.forEach((productId, counter) -> counter.reserved.addAndGet(-reservation.taken.get(productId)));
+    }
+
+    // Gives the reserved units back to this node. Units leased by the reservation's own transaction go back
+    // with that transaction: to the stored stock if it rolls back, to this node if it commits after all.
+    public void release(Reservation reservation) {
+        reservation.counters.forEach((productId, counter) -> {
+            int quantity = reservation.taken.get(productId);
+            counter.reserved.addAndGet(-quantity);
+            counter.available.addAndGet(quantity);
+        });
+        reservation.leases.forEach(lease -> lease.released = true);
+    }
+
+    // Reserves now and commits or releases when the caller's transaction commits or rolls back,
+    // so stock is only sold together with a committed order
+    public void reserveForCurrentTransaction(Map<Long, Integer> quantities) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Stock can only be reserved inside a transaction");
+        }
+        Reservation reservation = reserve(quantities);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    commit(reservation);
+                } else {
+                    release(reservation);
+                }
+            }
+        });
+    }
+
+    // Adds units to a product's stored stock, starting to track it if it was not tracked yet. Nodes lease
+    // from the stored stock, so the new units reach every node.
+    public StockLevel restock(Long productId, int quantity) {
+        if (quantity <= 0) {
+            throw new InventoryServiceException("Restock quantity must be greater than 0");
+        }
+        try {
+            addToStoredStock(productId, quantity);
+        } catch (Exception ex) {
+            throw new InventoryServiceException("Failed to restock product " + productId + ": " + ex.getMessage(), ex);
+        }
+
+        counters.computeIfPresent(productId, (id, counter) -> counter.tracked ? counter : null); // Reloaded on next use
+        return getStockLevel(productId);
+    }
+
+    // Adds to the product's row, creating it if there is none. Two first restocks may both find no row: the
+    // second insert fails on the primary key, and its units are then added to the row the first one created.
+    private void addToStoredStock(Long productId, int quantity) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (inventoryRepository.adjustOnHand(productId, quantity) == 0) {
+                    inventoryRepository.insert(productId, quantity);
+                }
+            });
+        } catch (DataIntegrityViolationException ex) {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (inventoryRepository.adjustOnHand(productId, quantity) == 0) {
+                    throw ex;
+                }
+            });
+        }
+    }
+
+    // The stored stock and this node's units, read while no units were moving between them (a lease or a
+    // give-back), so none is missed or counted twice. Under constant moves, the last of a few reads is returned.
+    public StockLevel getStockLevel(Long productId) {
+        StockCounter counter = counters(List.of(productId)).get(productId);
+        if (!counter.tracked) {
+            return new StockLevel(productId, false, 0, 0);
+        }
+        for (int attempt = 1; ; attempt++) {
+            long movesBefore = counter.moves.get();
+            boolean settled = counter.moving.get() == 0;
+            long stored = ReadRouting.onPrimary(() ->
+                    inventoryRepository.findById(productId).map(Inventory::getOnHand).orElse(0));
+            long available = counter.available.get();
+            long reserved = counter.reserved.get();
+            settled &= counter.moving.get() == 0 && counter.moves.get() == movesBefore;
+            if (settled || attempt == STOCK_LEVEL_ATTEMPTS) {
+                return new StockLevel(productId, true, stored + available + reserved, stored + available);
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    // Gives back the unsold units of products not sold since the previous flush, flushBatchSize products
+    // per transaction. Products still selling keep their units.
+    @Scheduled(fixedDelayString = "${inventory.flush-interval-ms:500}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            returnUnsoldUnits(false);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushLock.lock();
+        try {
+            returnUnsoldUnits(true);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void returnUnsoldUnits(boolean all) {
+        Map<Long, Long> unsold = new LinkedHashMap<>();
+        counters.forEach((productId, counter) -> {
+            boolean idle = !counter.used.getAndSet(false);
+            if (counter.tracked && (all || idle) && counter.available.get() > 0) {
+                counter.moving.incrementAndGet();
+                long units = counter.available.getAndSet(0);
+                if (units > 0) {
+                    unsold.put(productId, units);
+                } else {
+                    counter.moved();
+                }
+            }
+        });
+
+        List<Map.Entry<Long, Long>> pending = new ArrayList<>(unsold.entrySet());
+        for (int from = 0; from < pending.size(); from += flushBatchSize) {
+            List<Map.Entry<Long, Long>> batch = pending.subList(from, Math.min(from + flushBatchSize, pending.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> batch.forEach(entry ->
+                        inventoryRepository.adjustOnHand(entry.getKey(), Math.toIntExact(entry.getValue()))));
+            } catch (Exception ex) {
+                // Keep the units on this node; a later run gives them back
+                batch.forEach(entry -> counters.get(entry.getKey()).available.addAndGet(entry.getValue()));
+                log.warn("Failed to return unsold stock of {} products, will retry: {}", batch.size(), ex.getMessage());
+            } finally {
+                batch.forEach(entry -> counters.get(entry.getKey()).moved());
+            }
+        }
+    }
+
+    // Slow path, when this node has too few units: takes what it has and leases the rest plus leaseSize units
+    // (or just the rest when fewer are left). One checkout per product leases at a time; the others wait and use
+    // its extra units. Inside a transaction the lease is part of it: the lock is held, and the extra units reach
+    // this node, once the transaction has ended. Only threads already holding their connection take the lock,
+    // so waiting for it never starves the lease holder of one.
+    private boolean reserveByLease(Long productId, StockCounter counter, int quantity, Reservation reservation) {
+        counter.leaseLock.lock();
+        boolean unlockAfterTransaction = false;
+        try {
+            int local = counter.takeUpTo(quantity); // Possibly all of it, leased by the checkout we waited for
+            int shortfall = quantity - local;
+            if (shortfall == 0) {
+                reservation.add(productId, counter, local);
+                return true;
+            }
+
+            counter.moving.incrementAndGet();
+            int leased;
+            try {
+                leased = lease(productId, shortfall + leaseSize);
+                if (leased == 0) {
+                    leased = lease(productId, shortfall);
+                }
+            } catch (RuntimeException ex) {
+                counter.moved();
+                counter.giveBack(local);
+                throw ex;
+            }
+            if (leased == 0) {
+                counter.moved();
+                counter.giveBack(local);
+                return false;
+            }
+            counter.used.set(true);
+
+            if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+                // Already committed: the units are this node's now
+                counter.reserved.addAndGet(shortfall);
+                counter.available.addAndGet(leased - shortfall);
+                counter.moved();
+                reservation.add(productId, counter, quantity);
+                return true;
+            }
+            Lease lease = new Lease(shortfall, leased - shortfall);
+            if (local > 0) {
+                reservation.add(productId, counter, local);
+            }
+            reservation.addLease(productId, lease);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        counter.available.addAndGet(lease.extra + (lease.released ? lease.quantity : 0));
+                    }
+                    counter.moved();
+                    counter.leaseLock.unlock();
+                }
+            });
+            unlockAfterTransaction = true;
+            return true;
+        } finally {
+            if (!unlockAfterTransaction) {
+                counter.leaseLock.unlock();
+            }
+        }
+    }
+
+    private int lease(Long productId, int quantity) {
+        try {
+            return inventoryRepository.lease(productId, quantity) == 1 ? quantity : 0;
+        } catch (Exception ex) {
+            throw new InventoryServiceException("Failed to lease stock of product " + productId + ": " + ex.getMessage(), ex);
+        }
+    }
+
+    // Counters for the given products, loading the missing ones (and untracked ones due a recheck) with a single query
+    private Map<Long, StockCounter> counters(Collection<Long> productIds) {
+        long now = System.nanoTime();
+        long recheckNanos = TimeUnit.MILLISECONDS.toNanos(untrackedRecheckMs);
+        List<Long> missing = productIds.stream().filter(id -> {
+            StockCounter counter = counters.get(id);
+            return counter == null || (!counter.tracked && now - counter.checkedAt > recheckNanos);
+        }).toList();
+        if (!missing.isEmpty()) {
+            Map<Long, StockCounter> loaded = new LinkedHashMap<>();
+            missing.forEach(id -> loaded.put(id, new StockCounter(false, now)));
+            // Read from the primary: a replica that is behind could miss a product that has just started being tracked
+            ReadRouting.onPrimary(() -> inventoryRepository.findAllById(missing)
+                    .forEach(inventory -> loaded.put(inventory.getProductId(), new StockCounter(true, now))));
+            // A tracked counter is never replaced: it may hold leased units
+            loaded.forEach((id, counter) -> counters.merge(id, counter, (current, fresh) -> current.tracked ? current : fresh));
+        }
+        Map<Long, StockCounter> result = new LinkedHashMap<>();
+        productIds.forEach(id -> result.put(id, counters.get(id)));
+        return result;
+    }
+
+    // Units reserved by one checkout, per stock-tracked product
+    public static final class Reservation {
+
+        private final Map<Long, Integer> quantities = new LinkedHashMap<>();
+        private final Map<Long, StockCounter> counters = new LinkedHashMap<>();
+        private final Map<Long, Integer> taken = new LinkedHashMap<>(); // Units taken from this node's leased units
+        private final List<Lease> leases = new ArrayList<>();          // Units leased in the caller's transaction
+
+        private Reservation() {}
+
+        private void add(Long productId, StockCounter counter, int quantity) {
+            quantities.merge(productId, quantity, Integer::sum);
+            counters.put(productId, counter);
+            taken.put(productId, quantity);
+        }
+
+        private void addLease(Long productId, Lease lease) {
+            quantities.merge(productId, lease.quantity, Integer::sum);
+            leases.add(lease);
+        }
+
+        public Map<Long, Integer> getQuantities() {
+            return Collections.unmodifiableMap(quantities);
+        }
+    }
+
+    // Units leased by a checkout's transaction: the ones it ordered and the extra ones for later checkouts
+    private static final class Lease {
+
+        private final int quantity;
+        private final int extra;
+        private volatile boolean released; // The reservation was given up; the ordered units are unsold too
+
+        private Lease(int quantity, int extra) {
+            this.quantity = quantity;
+            this.extra = extra;
+        }
+    }
+
+    private static final class StockCounter {
+
+        private final boolean tracked;                           // false: no inventory row, never out of stock
+        private final long checkedAt;                            // When the inventory row was looked up
+        private final AtomicLong available = new AtomicLong();  // Leased units that can still be reserved
+        private final AtomicLong reserved = new AtomicLong();   // Leased units held by open reservations
+        private final AtomicBoolean used = new AtomicBoolean(); // Sold from since the previous flush
+        private final ReentrantLock leaseLock = new ReentrantLock(); // One lease of this product at a time
+        private final AtomicInteger moving = new AtomicInteger();    // Leases and give-backs under way
+        private final AtomicLong moves = new AtomicLong();           // Leases and give-backs completed
+
+        private StockCounter(boolean tracked, long checkedAt) {
+            this.tracked = tracked;
+            this.checkedAt = checkedAt;
+        }
+
+        // Ends a lease or give-back started by incrementing moving
+        private void moved() {
+            moves.incrementAndGet();
+            moving.decrementAndGet();
+        }
+
+        // Takes as many of the quantity as are available, possibly none
+        private int takeUpTo(int quantity) {
+            long current;
+            int take;
+            do {
+                current = available.get();
+                take = (int) Math.min(current, quantity);
+                if (take == 0) {
+                    return 0;
+                }
+            } while (!available.compareAndSet(current, current - take));
+            reserved.addAndGet(take);
+            return take;
+        }
+
+        private void giveBack(int quantity) {
+            reserved.addAndGet(-quantity);
+            available.addAndGet(quantity);
+        }
+
+        // Lock-free take: retries only when another checkout changed the counter in between
+        private boolean tryTake(int quantity) {
+            long current;
+            do {
+                current = available.get();
+                if (current < quantity) {
+                    return false;
+                }
+            } while (!available.compareAndSet(current, current - quantity));
+            reserved.addAndGet(quantity);
+            used.set(true);
+            return true;
+        }
+    }
+}
@@ -1,20 +1,26 @@
 package com.ecommerce.service;
 
+import com.ecommerce.dto.OrderFilter;
+import com.ecommerce.dto.OrderSummary;
 import com.ecommerce.exception.OrderNotFoundException;
 import com.ecommerce.exception.OrderServiceException;
-import com.ecommerce.kafka.OrderProducer;
 import com.ecommerce.model.*;
-import com.ecommerce.repository.CartRepository;
 import com.ecommerce.repository.CustomerRepository;
 import com.ecommerce.repository.OrderRepository;
-import com.ecommerce.repository.ProductRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.function.Consumer;
 
 @Service
+@Timed("service.method")
 public class OrderService {
 
     @Autowired
@@ -24,99 +30,147 @@ public class OrderService {
     private CartService cartService;
 
     @Autowired
-    private ProductRepository productRepository;
+    private ProductService productService;
 
     @Autowired
     private CustomerRepository customerRepository;
 
     @Autowired
-    private CartRepository cartRepository;
+    private OutboxService outboxService;
 
     @Autowired
-    private OrderProducer orderProducer;
-
+    private InventoryService inventoryService;
+
+    // Page size used when the client does not ask for one, and the largest page a client may ask for
+    @Value("${order.page.default-size:50}")
+    private int defaultPageSize = 50;
+
+    @Value("${order.page.max-size:500}")
+    private int maxPageSize = 500;
+
+    // Rows read per query while exporting orders
+    @Value("${order.stream.chunk-size:1000}")
+    private int streamChunkSize = 1000;
+
+    // Checkout, as one transaction in fixed stages. Each stage issues a bounded number of statements, whatever
+    // the customer's order history and (up to product.lookup.batch-size lines) the size of the cart:
+    //  1. load:    the cart with its lines, one query; the customer is only referenced by id, never read
+    //  2. price:   the cart's products in one query, then the order lines and total
+    //  3. persist: the stock reservation, then the order and all its lines as one insert and one batch
+    //  4. clear:   the cart's version, read with its row locked, then its lines and the cart, two deletes;
+    //              fails if the cart changed since stage 1
+    //  5. publish: the order event in the outbox, one insert; the relay sends it to Kafka after commit
+    // CheckoutQueryCountTest asserts the statement count.
+    @Transactional
     public Order createOrder(Long customerId) {
         try {
-            // Fetch the customer entity using customerId
-            Customer customer = customerRepository.findById(customerId)
-                    .orElseThrow(() -> new OrderServiceException("Customer not found: " + customerId));
-
-            // Get the customer's cart
-            Cart cart = cartService.getOrCreateCart(customerId);
+            Cart cart = loadCart(customerId);
+            Order order = price(customerId, cart);
+            Order savedOrder = persist(order, cart);
+            cartService.clearOrderedCart(customerId, cart);
+            outboxService.enqueueOrderCreated(savedOrder);
+            return savedOrder;
+        } catch (OrderServiceException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new OrderServiceException("Failed to create order: " + ex.getMessage(), ex);
+        }
+    }
 
-            // Validate the cart
-            if (cart.getItems().isEmpty()) {
-                throw new OrderServiceException("Cannot create an order with an empty cart");
+    // Stage 1: the cart to order from, which must have lines
+    private Cart loadCart(Long customerId) {
+        Cart cart = cartService.getOrCreateCart(customerId);
+        if (cart.getItems().isEmpty()) {
+            // Only now is it worth a query to tell a missing customer from an empty cart
+            if (!customerRepository.existsById(customerId)) {
+                throw new OrderServiceException("Customer not found: " + customerId);
             }
+            throw new OrderServiceException("Cannot create an order with an empty cart");
+        }
+        return cart;
+    }
 
-            // Create a new order
-            Order order = new Order();
-            order.setCustomer(customer);
-            order.setStatus("CREATED");
-
-            // Calculate the total amount and add items to the order
-            double totalAmount = 0;
-            StringBuilder orderDetails = new StringBuilder();
-            for (CartItem cartItem : cart.getItems()) {
-                Product product = productRepository.findById(cartItem.getProductId())
-                        .orElseThrow(() -> new OrderServiceException("Product not found: " + cartItem.getProductId()));
-
-                OrderItem orderItem;
-                orderItem = new OrderItem();
-                orderItem.setProductId(product.getId());
-                orderItem.setProductName(product.getName());
-                orderItem.setProductDescription(product.getDescription());
-                orderItem.setQuantity(cartItem.getQuantity());
-                orderItem.setPrice(product.getPrice());
-                order.getItems().add(orderItem);
-
-                totalAmount += product.getPrice() * cartItem.getQuantity();
+    // Stage 2: the order lines at current product prices, and the total
+    private Order price(Long customerId, Cart cart) {
+        Order order = new Order();
+        order.setCustomer(customerRepository.getReferenceById(customerId)); // Only its id is written
+        order.setStatus("CREATED");
+
+        // Load every product in the cart up front instead of one lookup per cart line
+        Map<Long, Product> products = productService.getProductsByIds(
+                cart.getItems().stream().map(CartItem::getProductId).toList());
+
+        double totalAmount = 0;
+        for (CartItem cartItem : cart.getItems()) {
+            Product product = products.get(cartItem.getProductId());
+            if (product == null) {
+                throw new OrderServiceException("Product not found: " + cartItem.getProductId());
             }
-            order.setTotalAmount(totalAmount);
-
-            // Save the order
-            Order savedOrder = orderRepository.save(order);
 
-            // Send the order details to Kafka
-            orderProducer.sendOrder(savedOrder);
-
-            // Clear the cart
-            cartService.clearCart(customerId);
-
-            // Delete the cart if it is empty
-            if (cart.getItems().isEmpty()) {
-                cartRepository.delete(cart);
-            }
+            OrderItem orderItem = new OrderItem();
+            orderItem.setProductId(product.getId());
+            orderItem.setProductName(product.getName());
+            orderItem.setProductDescription(product.getDescription());
+            orderItem.setQuantity(cartItem.getQuantity());
+            orderItem.setPrice(product.getPrice());
+            order.getItems().add(orderItem);
 
-            // Explicitly remove cart reference from customer
-            customer.setCart(null);
+            totalAmount += product.getPrice() * cartItem.getQuantity();
+        }
+        order.setTotalAmount(totalAmount);
+        return order;
+    }
 
-            customerRepository.save(customer);  // Persist the change to database
+    // Stage 3: reserves the stock, which is sold if this transaction commits and given back if it rolls back,
+    // then saves the order
+    private Order persist(Order order, Cart cart) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        cart.getItems().forEach(item -> quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum));
+        inventoryService.reserveForCurrentTransaction(quantities);
 
-            return savedOrder;
-        } catch (OrderServiceException ex) {
-            throw ex;
-        } catch (Exception ex) {
-            throw new OrderServiceException("Failed to create order: " + ex.getMessage(), ex);
-        }
+        return orderRepository.save(order);
     }
 
 
-    // Get all orders
-    public List<Order> getAllOrders() {
+    // Get one newest-first page of order summaries matching the filter, starting before the given order id
+    public List<OrderSummary> getOrderSummaries(OrderFilter filter, Long beforeId, Integer size) {
         try {
-
-            return orderRepository.findAll();
+            int pageSize = size == null ? defaultPageSize : Math.min(Math.max(size, 1), maxPageSize);
+            return findSummaries(filter, beforeId, pageSize);
         } catch (Exception ex) {
             throw new OrderServiceException("Failed to retrieve orders: " + ex.getMessage(), ex);
         }
     }
 
+    // Walks every order summary matching the filter, newest first, one chunk in memory at a time
+    public void forEachOrderSummaryPage(OrderFilter filter, Consumer<List<OrderSummary>> pageConsumer) {
+        int chunkSize = Math.max(1, streamChunkSize);
+        Long beforeId = null;
+        List<OrderSummary> page;
+        do {
+            try {
+                page = findSummaries(filter, beforeId, chunkSize);
+            } catch (Exception ex) {
+                throw new OrderServiceException("Failed to export orders: " + ex.getMessage(), ex);
+            }
+            if (!page.isEmpty()) {
+                pageConsumer.accept(page);
+                beforeId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == chunkSize);
+    }
+
+    private List<OrderSummary> findSummaries(OrderFilter filter, Long beforeId, int limit) {
+        OrderFilter criteria = filter != null ? filter : new OrderFilter();
+        return orderRepository.findSummaries(criteria.getCustomerId(), criteria.getStatus(),
+                criteria.getFrom(), criteria.getTo(), beforeId, Limit.of(limit));
+    }
+
     // Get order by ID
     public Order getOrderById(Long orderId) {
         try {
 
-            return orderRepository.findById(orderId)
+            return orderRepository.findWithItemsById(orderId)
                     .orElseThrow(() -> new OrderServiceException("Order not found with ID: " + orderId));
         } catch (Exception ex) {
             throw new OrderServiceException("Failed to retrieve order: " + ex.getMessage(), ex);
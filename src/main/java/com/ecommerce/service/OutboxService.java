@@ -0,0 +1,35 @@
+package com.ecommerce.service;
+
+import com.ecommerce.kafka.OrderCreatedEvent;
+import com.ecommerce.kafka.codec.OrderCreatedEventCodec;
+import com.ecommerce.model.Order;
+import com.ecommerce.model.OutboxEvent;
+import com.ecommerce.repository.OutboxEventRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Timed("service.method")
+public class OutboxService {
+
+    public static final String ORDER_CREATED = "ORDER_CREATED";
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    private final OrderCreatedEventCodec orderCreatedEventCodec = new OrderCreatedEventCodec();
+
+    // Records an order-created event in the caller's transaction, so it is committed (or rolled back)
+    // together with the order itself. The outbox relay publishes it to Kafka afterwards, in id order.
+    // Outbox ids are taken at insert, not at commit, so the caller must already hold a lock that serializes
+    // transactions for the same customer (checkout's cart clear does); otherwise a later event could commit first.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueOrderCreated(Order order) {
+        OrderCreatedEvent event = OrderCreatedEvent.from(order);
+        byte[] payload = orderCreatedEventCodec.encode(event);
+        outboxEventRepository.save(new OutboxEvent(ORDER_CREATED, String.valueOf(event.getCustomerId()), payload));
+    }
+}
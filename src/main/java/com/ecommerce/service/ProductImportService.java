@@ -0,0 +1,302 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.ProductImportReport;
+import com.ecommerce.exception.ProductServiceException;
+import com.ecommerce.kafka.ProductProducer;
+import com.ecommerce.model.Product;
+import com.ecommerce.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import io.micrometer.core.annotation.Timed;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+
+// Bulk product import from a JSON array or a CSV file (header: name,price,description).
+// The upload is parsed as a stream, one row at a time, so its size does not matter. Valid rows are inserted
+// importBatchSize at a time, each batch in its own transaction as one JDBC batch (Product ids come from a
+// pooled sequence, so Hibernate does not need a round trip per insert to learn the id). Product events for a
+// batch are published after it commits. Rows that fail validation are reported and skipped.
+@Service
+@Timed("service.method")
+public class ProductImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImportService.class);
+
+    public static final String FORMAT_JSON = "json";
+    public static final String FORMAT_CSV = "csv";
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductProducer productProducer;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Rows inserted per transaction and per JDBC batch
+    @Value("${product.import.batch-size:1000}")
+    private int importBatchSize = 1000;
+
+    // Row errors kept in each report
+    @Value("${product.import.max-errors:1000}")
+    private int maxErrors = 1000;
+
+    // Reports of the most recent imports, newest first
+    @Value("${product.import.history-size:20}")
+    private int historySize = 20;
+
+    private final Deque<ProductImportReport> history = new ArrayDeque<>();
+
+    public ProductImportReport importProducts(InputStream upload, String format) {
+        ProductImportReport report = new ProductImportReport(UUID.randomUUID().toString(), format, maxErrors);
+        remember(report);
+        try {
+            RowReader rows = switch (format) {
+                case FORMAT_JSON -> new JsonRowReader(upload);
+                case FORMAT_CSV -> new CsvRowReader(upload);
+                default -> throw new ProductServiceException("Unsupported import format: " + format);
+            };
+            importRows(rows, report);
+            report.complete();
+        } catch (Exception ex) {
+            // Malformed input the parser cannot recover from: rows already committed stay imported
+            report.fail(ex.getMessage());
+            log.warn("Product import {} stopped after {} rows: {}", report.getId(), report.getRowsRead(), ex.getMessage());
+        }
+        return report;
+    }
+
+    // Recent imports, newest first, including any still running
+    public List<ProductImportReport> getRecentImports() {
+        synchronized (history) {
+            return new ArrayList<>(history);
+        }
+    }
+
+    private void importRows(RowReader rows, ProductImportReport report) throws IOException {
+        int batchSize = Math.max(1, importBatchSize);
+        List<Product> batch = new ArrayList<>(batchSize);
+        List<Long> batchRows = new ArrayList<>(batchSize);
+        Product product;
+        while ((product = nextRow(rows, report)) != null) {
+            long row = report.getRowsRead();
+            try {
+                product.setId(null); // Ids are always assigned here
+                productService.validateProduct(product);
+            } catch (ProductServiceException ex) {
+                report.rowFailed(row, ex.getMessage());
+                continue;
+            }
+            batch.add(product);
+            batchRows.add(row);
+            if (batch.size() == batchSize) {
+                insertBatch(batch, batchRows, report);
+                batch.clear();
+                batchRows.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            insertBatch(batch, batchRows, report);
+        }
+    }
+
+    // Reads the next row, recording rows that cannot be turned into a product; null at the end of the upload
+    private Product nextRow(RowReader rows, ProductImportReport report) throws IOException {
+        while (true) {
+            try {
+                Product product = rows.next();
+                if (product != null) {
+                    report.rowRead();
+                }
+                return product;
+            } catch (RowFormatException ex) {
+                report.rowRead();
+                report.rowFailed(report.getRowsRead(), ex.getMessage());
+            }
+        }
+    }
+
+    private void insertBatch(List<Product> batch, List<Long> batchRows, ProductImportReport report) {
+        List<Product> saved;
+        try {
+            saved = transactionTemplate.execute(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batch.size());
+                List<Product> products = productRepository.saveAll(batch);
+                entityManager.flush();
+                entityManager.clear(); // Nothing from this batch is needed in the persistence context any more
+                return products;
+            });
+        } catch (Exception ex) {
+            String message = "Batch insert failed: " + ex.getMessage();
+            batchRows.forEach(row -> report.rowFailed(row, message));
+            return;
+        }
+        report.imported(saved.size());
+        productProducer.sendProductsCreated(saved);
+    }
+
+    private void remember(ProductImportReport report) {
+        synchronized (history) {
+            history.addFirst(report);
+            while (history.size() > Math.max(1, historySize)) {
+                history.removeLast();
+            }
+        }
+    }
+
+    // One product per call; null once the upload is exhausted
+    private interface RowReader {
+        Product next() throws IOException;
+    }
+
+    // A single row that cannot be read as a product; the rest of the upload is still usable
+    private static class RowFormatException extends IOException {
+        RowFormatException(String message) {
+            super(message);
+        }
+    }
+
+    // Reads a top-level JSON array of product objects one element at a time
+    private class JsonRowReader implements RowReader {
+
+        private final JsonParser parser;
+
+        JsonRowReader(InputStream upload) throws IOException {
+            parser = objectMapper.getFactory().createParser(upload);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ProductServiceException("JSON import must be an array of products");
+            }
+        }
+
+        @Override
+        public Product next() throws IOException {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.END_ARRAY || token == null) {
+                return null;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                throw new RowFormatException("Expected a product object but found " + token);
+            }
+            // Read the element as a tree first so a bad value (e.g. a non-numeric price) only rejects this row
+            JsonNode element = parser.readValueAsTree();
+            try {
+                return objectMapper.treeToValue(element, Product.class);
+            } catch (JsonProcessingException ex) {
+                throw new RowFormatException(ex.getOriginalMessage());
+            }
+        }
+    }
+
+    // Reads CSV with a name,price,description header; fields may be quoted ("..." with "" for a quote)
+    private static class CsvRowReader implements RowReader {
+
+        private final BufferedReader reader;
+        private final int nameColumn;
+        private final int priceColumn;
+        private final int descriptionColumn;
+
+        CsvRowReader(InputStream upload) throws IOException {
+            reader = new BufferedReader(new InputStreamReader(upload, StandardCharsets.UTF_8));
+            String header = reader.readLine();
+            if (header == null) {
+                throw new ProductServiceException("CSV import is empty");
+            }
+            List<String> columns = parseLine(header.startsWith("\uFEFF") ? header.substring(1) : header).stream()
+                    .map(column -> column.trim().toLowerCase())
+                    .toList();
+            nameColumn = columns.indexOf("name");
+            priceColumn = columns.indexOf("price");
+            descriptionColumn = columns.indexOf("description");
+            if (nameColumn < 0 || priceColumn < 0) {
+                throw new ProductServiceException("CSV header must contain name and price columns");
+            }
+        }
+
+        @Override
+        public Product next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+
+            List<String> fields = parseLine(line);
+            if (fields.size() <= Math.max(nameColumn, priceColumn)) {
+                throw new RowFormatException("Expected at least " + (Math.max(nameColumn, priceColumn) + 1) + " fields");
+            }
+            double price;
+            try {
+                price = Double.parseDouble(fields.get(priceColumn).trim());
+            } catch (NumberFormatException ex) {
+                throw new RowFormatException("Invalid price: " + fields.get(priceColumn));
+            }
+            String description = descriptionColumn >= 0 && descriptionColumn < fields.size() ? fields.get(descriptionColumn) : null;
+            return new Product(fields.get(nameColumn).trim(), price, description);
+        }
+
+        private static List<String> parseLine(String line) throws RowFormatException {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            if (quoted) {
+                throw new RowFormatException("Unterminated quoted field");
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
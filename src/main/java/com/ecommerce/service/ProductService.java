@@ -1,26 +1,63 @@
 package com.ecommerce.service;
 
+import com.ecommerce.cache.ProductCache;
+import com.ecommerce.dto.ProductFilter;
+import com.ecommerce.dto.ProductSort;
 import com.ecommerce.exception.ProductNotFoundException;
 import com.ecommerce.exception.ProductServiceException;
 import com.ecommerce.repository.ProductRepository;
 import com.ecommerce.model.Product;
+import com.ecommerce.search.ProductSearchIndex;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
+@Timed("service.method")
 public class ProductService {
 
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    // Upper bound on the number of ids sent in a single IN (...) lookup
+    @Value("${product.lookup.batch-size:500}")
+    private int lookupBatchSize = 500;
+
+    // Page size used when the client does not ask for one, and the largest page a client may ask for
+    @Value("${product.page.default-size:50}")
+    private int defaultPageSize = 50;
+
+    @Value("${product.page.max-size:500}")
+    private int maxPageSize = 500;
+
+    // Rows read per query while streaming the whole catalog
+    @Value("${product.stream.chunk-size:1000}")
+    private int streamChunkSize = 1000;
+
     public Product createProduct(Product product) {
 
         try {
             validateProduct(product);   // Validate product data
-            return productRepository.save(product);     // Save product to the database
+            Product savedProduct = productRepository.save(product);     // Save product to the database
+            productCache.evict(savedProduct.getId());   // Updates go through here too, so drop any cached copy
+            return savedProduct;
         } catch (Exception ex) {
             // Log the exception and rethrow as a custom exception
             throw new ProductServiceException("Failed to create product: " + ex.getMessage(), ex);
@@ -36,18 +73,89 @@ public class ProductService {
         }
     }
 
+    // One keyset page of products with id greater than afterId (or from the start when afterId is null)
+    public List<Product> getProductsPage(Long afterId, Integer size) {
+        try {
+            return productRepository.findByIdGreaterThanOrderByIdAsc(afterId == null ? 0L : afterId, Limit.of(pageSize(size)));
+        } catch (Exception ex) {
+            throw new ProductServiceException("Failed to fetch product page after ID: " + afterId, ex);
+        }
+    }
+
+    // One page of the catalog sorted by price or name, optionally within a price range. The next page starts
+    // after the last product of this one: pass its id as afterId and its price or name as afterPrice / afterName.
+    // Price orders are answered from the in-memory price index once it holds the whole catalog; everything
+    // else walks the (price, id) or (name, id) database index.
+    public List<Product> browseProducts(ProductSort sort, ProductFilter filter, Long afterId,
+                                        Double afterPrice, String afterName, Integer size) {
+        ProductFilter criteria = filter != null ? filter : new ProductFilter();
+        if (afterId != null && (sort.isByPrice() ? afterPrice == null : afterName == null)) {
+            throw new ProductServiceException("'after' must come with " + (sort.isByPrice() ? "'afterPrice'" : "'afterName'"));
+        }
+        double minPrice = criteria.getMinPrice() != null ? criteria.getMinPrice() : 0;
+        double maxPrice = criteria.getMaxPrice() != null ? criteria.getMaxPrice() : Double.MAX_VALUE;
+        Limit limit = Limit.of(pageSize(size));
+
+        try {
+            if (sort.isByPrice() && productSearchIndex.isLoaded()) {
+                return productSearchIndex.browseByPrice(criteria.getMinPrice(), criteria.getMaxPrice(),
+                        sort.isDescending(), afterPrice, afterId, limit.max());
+            }
+            if (afterId == null) {
+                return switch (sort) {
+                    case PRICE_ASC -> productRepository.findFirstPageByPriceAsc(minPrice, maxPrice, limit);
+                    case PRICE_DESC -> productRepository.findFirstPageByPriceDesc(minPrice, maxPrice, limit);
+                    case NAME_ASC -> productRepository.findFirstPageByNameAsc(minPrice, maxPrice, limit);
+                    case NAME_DESC -> productRepository.findFirstPageByNameDesc(minPrice, maxPrice, limit);
+                };
+            }
+            return switch (sort) {
+                case PRICE_ASC -> productRepository.findNextPageByPriceAsc(minPrice, maxPrice, afterPrice, afterId, limit);
+                case PRICE_DESC -> productRepository.findNextPageByPriceDesc(minPrice, maxPrice, afterPrice, afterId, limit);
+                case NAME_ASC -> productRepository.findNextPageByNameAsc(minPrice, maxPrice, afterName, afterId, limit);
+                case NAME_DESC -> productRepository.findNextPageByNameDesc(minPrice, maxPrice, afterName, afterId, limit);
+            };
+        } catch (Exception ex) {
+            throw new ProductServiceException("Failed to browse products by " + sort.getParam(), ex);
+        }
+    }
+
+    // One chunk of the catalog stream: up to product.stream.chunk-size products with id greater than afterId
+    public List<Product> getStreamChunk(long afterId) {
+        try {
+            return productRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(Math.max(1, streamChunkSize)));
+        } catch (Exception ex) {
+            throw new ProductServiceException("Failed to stream products after ID: " + afterId, ex);
+        }
+    }
+
+    // Walks the whole catalog in id order, handing each chunk to the consumer as soon as it is read.
+    // Only one chunk is held in memory at a time, whatever the catalog size.
+    public void forEachProductPage(Consumer<List<Product>> pageConsumer) {
+        int chunkSize = Math.max(1, streamChunkSize);
+        long afterId = 0L;
+        List<Product> page;
+        do {
+            page = getStreamChunk(afterId);
+            if (!page.isEmpty()) {
+                pageConsumer.accept(page);
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == chunkSize);
+    }
+
     public Product getProductById(Long id) {
         try {
-            // Check and fetch product by ID from the database
-            Optional<Product> product = productRepository.findById(id);
+            // Serve from the product cache, falling back to the database on a miss
+            Product product = productCache.get(id, productRepository::findById);
 
             // If the product is not found, throw a custom exception
-            if (product.isEmpty()) {
+            if (product == null) {
                 throw new ProductNotFoundException("Product not found with ID: " + id);
             }
 
             // Return the found product
-            return product.get();
+            return product;
         } catch (ProductNotFoundException ex) {
             throw ex; // Propagate the exception to the controller
         } catch (Exception ex) {
@@ -55,6 +163,26 @@ public class ProductService {
         }
     }
 
+    // Multi-get: loads all requested products with one query per chunk of lookupBatchSize ids.
+    // Ids that do not exist are simply absent from the returned map.
+    public Map<Long, Product> getProductsByIds(Collection<Long> ids) {
+        try {
+            List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+            Map<Long, Product> products = new HashMap<>(distinctIds.size() * 2);
+            int chunkSize = Math.max(1, lookupBatchSize);
+
+            for (int from = 0; from < distinctIds.size(); from += chunkSize) {
+                List<Long> chunk = distinctIds.subList(from, Math.min(from + chunkSize, distinctIds.size()));
+                for (Product product : productRepository.findAllById(chunk)) {
+                    products.put(product.getId(), product);
+                }
+            }
+            return products;
+        } catch (Exception ex) {
+            throw new ProductServiceException("Failed to fetch products with IDs: " + ids, ex);
+        }
+    }
+
     public void deleteProduct(Long id) {
         try {
             // Attempt to find the product by ID
@@ -67,6 +195,7 @@ public class ProductService {
 
             // Delete the product from the repository
             productRepository.deleteById(id);
+            productCache.evict(id);
         } catch (ProductNotFoundException ex) {
             throw ex; // Rethrow ProductNotFoundException directly
         } catch (Exception ex) {
@@ -74,12 +203,19 @@ public class ProductService {
         }
     }
 
-    private void validateProduct(Product product) {
+    // Client-requested page size, defaulted and capped
+    private int pageSize(Integer size) {
+        return size == null ? defaultPageSize : Math.min(Math.max(size, 1), maxPageSize);
+    }
+
+    // Also applied to every row of a bulk import (ProductImportService)
+    void validateProduct(Product product) {
         if (product.getName() == null || product.getName().isEmpty()) {
             throw new ProductServiceException("Product name cannot be empty");
         }
-        if (product.getPrice() <= 0) {
-            throw new ProductServiceException("Product price must be greater than 0");
+        // NaN fails every comparison, so check finiteness first (imports parse "NaN" and "Infinity" as prices)
+        if (!Double.isFinite(product.getPrice()) || product.getPrice() <= 0) {
+            throw new ProductServiceException("Product price must be a finite number greater than 0");
         }
     }
 }
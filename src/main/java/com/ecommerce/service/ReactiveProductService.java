@@ -0,0 +1,88 @@
+package com.ecommerce.service;
+
+import com.ecommerce.cache.ProductCache;
+import com.ecommerce.model.Product;
+import com.ecommerce.search.ProductSearchIndex;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+// Non-blocking reads of the catalog for the reactive product endpoints.
+// JPA blocks, so every database call runs on a bounded scheduler sized to the connection pool: the request
+// thread is released while the query runs, and a burst of reads waits in the scheduler's queue rather than
+// holding threads that wait for connections. Cached products and search results, which come from memory, are
+// returned without a thread hop.
+@Service
+public class ReactiveProductService {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    // Threads doing blocking catalog reads; more than the connection pool size only adds waiting threads
+    @Value("${product.reactive.threads:10}")
+    private int threads = 10;
+
+    // Reads allowed to wait for a thread before new ones are rejected
+    @Value("${product.reactive.queue-size:10000}")
+    private int queueSize = 10000;
+
+    private Scheduler scheduler;
+
+    @PostConstruct
+    void start() {
+        scheduler = Schedulers.newBoundedElastic(threads, queueSize, "catalog-read");
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.dispose();
+    }
+
+    public Mono<Product> getProductById(Long id) {
+        return Mono.defer(() -> {
+            Product cached = productCache.getIfPresent(id);
+            return cached != null ? Mono.just(cached) : blocking(() -> productService.getProductById(id));
+        });
+    }
+
+    public Mono<List<Product>> getProductsPage(Long afterId, Integer size) {
+        return blocking(() -> productService.getProductsPage(afterId, size));
+    }
+
+    // Answered from the in-memory search index, like /products/search
+    public Mono<List<Product>> searchProducts(String query, Double minPrice, Double maxPrice, boolean fuzzy, Integer limit) {
+        return Mono.fromCallable(() -> productSearchIndex.search(query, minPrice, maxPrice, fuzzy, limit));
+    }
+
+    // The whole catalog in id order. Chunks are read one at a time as the subscriber asks for more, so a
+    // slow client holds at most one chunk in memory and no thread while it catches up.
+    public Flux<Product> streamAllProducts() {
+        return chunkAfter(0L)
+                .expand(chunk -> chunk.isEmpty() ? Mono.empty() : chunkAfter(chunk.get(chunk.size() - 1).getId()))
+                .flatMapIterable(Function.identity(), 1);
+    }
+
+    private Mono<List<Product>> chunkAfter(long afterId) {
+        return blocking(() -> productService.getStreamChunk(afterId));
+    }
+
+    private <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(scheduler);
+    }
+}
@@ -0,0 +1,29 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.EcommerceApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Starts the application without a web server, on an in-memory H2 database of its own, for benchmarks that
+// go through the services as a request would
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    // Properties are passed as arguments, not default properties, so they win over the test application.yaml
+    static ConfigurableApplicationContext start(String database, String... properties) {
+        List<String> args = new ArrayList<>();
+        args.add("--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1;MODE=MySQL");
+        args.add("--logging.level.root=WARN");
+        args.addAll(List.of(properties));
+        return new SpringApplicationBuilder(EcommerceApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(args.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,80 @@
+package com.ecommerce.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Compares a JMH JSON result file with the results of an earlier run and exits with status 1 when a benchmark
+// got worse by more than the allowed percentage and by more than the two runs' error margins together. Run by
+// the benchmarks Maven profile when a baseline is given:
+//   mvn -Pbenchmarks verify -Djmh.baseline=jmh-baseline.json [-Djmh.max-regression=10]
+// Arguments: baseline file, result file, allowed regression in percent.
+public final class BenchmarkRegressionCheck {
+
+    private BenchmarkRegressionCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: BenchmarkRegressionCheck <baseline.json> <result.json> <max-regression-percent>");
+            System.exit(2);
+        }
+        Map<String, JsonNode> baseline = read(new File(args[0]));
+        Map<String, JsonNode> results = read(new File(args[1]));
+        double maxRegression = Double.parseDouble(args[2]) / 100;
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> result : results.entrySet()) {
+            JsonNode before = baseline.get(result.getKey());
+            if (before == null) {
+                System.out.printf("NEW         %s%n", result.getKey());
+                continue;
+            }
+            JsonNode after = result.getValue();
+            double oldScore = score(before);
+            double newScore = score(after);
+            // Throughput is better when higher, every other mode (time per operation) when lower
+            double worse = "thrpt".equals(after.path("mode").asText()) ? oldScore - newScore : newScore - oldScore;
+            double change = oldScore == 0 ? 0 : worse / oldScore;
+            boolean regressed = change > maxRegression && worse > error(before) + error(after);
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-11s %s: %.3f -> %.3f %s (%+.1f%%)%n", regressed ? "REGRESSION" : "OK",
+                    result.getKey(), oldScore, newScore, after.path("primaryMetric").path("scoreUnit").asText(),
+                    change * 100);
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %s%%%n", regressions, args[2]);
+            System.exit(1);
+        }
+    }
+
+    // Results keyed by benchmark method and parameter values, e.g. "...CheckoutBenchmark.checkout {lines=100}"
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            Map<String, String> params = new TreeMap<>();
+            result.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            String key = result.path("benchmark").asText() + (params.isEmpty() ? "" : " " + params);
+            results.put(key, result);
+        }
+        return results;
+    }
+
+    private static double score(JsonNode result) {
+        return result.path("primaryMetric").path("score").asDouble();
+    }
+
+    // JMH reports NaN for the error of a single iteration; count it as no margin
+    private static double error(JsonNode result) {
+        double error = result.path("primaryMetric").path("scoreError").asDouble(0);
+        return Double.isNaN(error) ? 0 : error;
+    }
+}
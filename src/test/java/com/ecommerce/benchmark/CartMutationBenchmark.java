@@ -0,0 +1,82 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.model.Customer;
+import com.ecommerce.model.Product;
+import com.ecommerce.repository.CustomerRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.service.CartService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+// Adding a product to a cart and removing it again through CartService, with the database cart store and the
+// in-memory one, for a cart that already holds 1 or 50 other lines. Each operation leaves the cart as it was,
+// so every invocation measures the same work. Run with:
+//   mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+//       -Dexec.args="-cp %classpath org.openjdk.jmh.Main CartMutationBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CartMutationBenchmark {
+
+    @Param({"jpa", "memory"})
+    private String store;
+
+    @Param({"1", "50"})
+    private int cartLines;
+
+    private ConfigurableApplicationContext context;
+    private CartService cartService;
+    private Long customerId;
+    private Long productId;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkApplication.start("cart-" + store + "-" + cartLines, "--cart.store.mode=" + store);
+        cartService = context.getBean(CartService.class);
+        customerId = context.getBean(CustomerRepository.class)
+                .save(new Customer("Jane Doe", "jane@example.com", "secret", "1234567890", "1 Main St")).getId();
+
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        for (int i = 0; i < cartLines; i++) {
+            Long lineProductId = productRepository.save(new Product("Product " + i, 10.0 + i, "Description " + i)).getId();
+            cartService.addToCart(customerId, lineProductId, 1);
+        }
+        productId = productRepository.save(new Product("Wireless Mouse", 24.99, "Ergonomic wireless mouse")).getId();
+    }
+
+    @Benchmark
+    public Object addThenRemove() {
+        Object cart = cartService.addToCart(customerId, productId, 1);
+        cartService.removeFromCart(customerId, productId);
+        return cart;
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CartMutationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,92 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.model.Cart;
+import com.ecommerce.model.CartItem;
+import com.ecommerce.model.Customer;
+import com.ecommerce.model.Product;
+import com.ecommerce.repository.CartRepository;
+import com.ecommerce.repository.CustomerRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Checkout time as the cart grows from 1 to 500 lines, with the configured settings. Pricing reads all of the
+// cart's products with one query up to product.lookup.batch-size lines, so the time per line should stay flat;
+// CheckoutStatementsBenchmark breaks the statements down by batch size. Run with:
+//   mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+//       -Dexec.args="-cp %classpath org.openjdk.jmh.Main CheckoutBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CheckoutBenchmark {
+
+    @Param({"1", "10", "100", "500"})
+    private int lines;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private CartRepository cartRepository;
+    private Customer customer;
+    private List<Long> productIds;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkApplication.start("checkout-lines-" + lines);
+        orderService = context.getBean(OrderService.class);
+        cartRepository = context.getBean(CartRepository.class);
+        customer = context.getBean(CustomerRepository.class)
+                .save(new Customer("Jane Doe", "jane@example.com", "secret", "1234567890", "1 Main St"));
+
+        List<Product> products = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            products.add(new Product("Product " + i, 10.0 + i, "Description " + i));
+        }
+        productIds = new ArrayList<>(lines);
+        context.getBean(ProductRepository.class).saveAll(products).forEach(product -> productIds.add(product.getId()));
+    }
+
+    // Refills the cart outside the measurement
+    @Setup(Level.Invocation)
+    public void fillCart() {
+        List<CartItem> items = new ArrayList<>(lines);
+        productIds.forEach(productId -> items.add(new CartItem(productId, 1)));
+        cartRepository.save(new Cart(customer, items));
+    }
+
+    @Benchmark
+    public Object checkout() {
+        return orderService.createOrder(customer.getId());
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CheckoutBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,110 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.model.Cart;
+import com.ecommerce.model.CartItem;
+import com.ecommerce.model.Customer;
+import com.ecommerce.model.Product;
+import com.ecommerce.repository.CartRepository;
+import com.ecommerce.repository.CustomerRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.service.OrderService;
+import com.ecommerce.support.SqlStatementCounter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Time and SQL statements per checkout with JDBC batching off (batchSize=1: one statement per inserted or
+// deleted row, which is what IDENTITY ids forced) and on (batchSize=50, the configured value with pooled
+// sequence ids). Statements per checkout are printed at the end of each trial. Run with:
+//   mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+//       -Dexec.args="-cp %classpath org.openjdk.jmh.Main CheckoutStatementsBenchmark"
+// Against H2 a round trip costs next to nothing; point spring.datasource.url at MySQL (-D...) to see the time
+// the saved round trips are worth.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CheckoutStatementsBenchmark {
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    @Param({"1", "10", "30"})
+    private int lines;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private CartRepository cartRepository;
+    private Customer customer;
+    private List<Long> productIds;
+    private long checkouts;
+    private long statements;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkApplication.start("checkout-" + batchSize + "-" + lines,
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+        orderService = context.getBean(OrderService.class);
+        cartRepository = context.getBean(CartRepository.class);
+        customer = context.getBean(CustomerRepository.class)
+                .save(new Customer("Jane Doe", "jane@example.com", "secret", "1234567890", "1 Main St"));
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        productIds = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            productIds.add(productRepository.save(new Product("Product " + i, 10.0 + i, "Description " + i)).getId());
+        }
+        checkouts = 0;
+        statements = 0;
+    }
+
+    // Refills the cart outside the measurement, then starts counting statements afresh
+    @Setup(Level.Invocation)
+    public void fillCart() {
+        List<CartItem> items = new ArrayList<>(lines);
+        productIds.forEach(productId -> items.add(new CartItem(productId, 1)));
+        cartRepository.save(new Cart(customer, items));
+        SqlStatementCounter.reset();
+    }
+
+    @TearDown(Level.Invocation)
+    public void countStatements() {
+        statements += SqlStatementCounter.count();
+    }
+
+    @Benchmark
+    public Object checkout() {
+        checkouts++;
+        return orderService.createOrder(customer.getId());
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        System.out.printf("%nbatchSize=%d lines=%d: %.1f statements per checkout (%,d checkouts)%n",
+                batchSize, lines, statements / (double) Math.max(1, checkouts), checkouts);
+        context.close();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CheckoutStatementsBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,156 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.kafka.OrderCreatedEvent;
+import com.ecommerce.kafka.ProductChangedEvent;
+import com.ecommerce.kafka.codec.OrderCreatedEventCodec;
+import com.ecommerce.kafka.codec.ProductChangedEventCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Encode/decode time of the binary event codecs against the Spring Kafka JSON (de)serializers they replaced.
+// Message sizes are printed once per trial. Run with:
+//   mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+//       -Dexec.args="-cp %classpath org.openjdk.jmh.Main EventSerializationBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventSerializationBenchmark {
+
+    private static final String TOPIC = "benchmark";
+
+    @Param({"1", "10", "50"})
+    public int orderItems;
+
+    private final OrderCreatedEventCodec orderCodec = new OrderCreatedEventCodec();
+    private final ProductChangedEventCodec productCodec = new ProductChangedEventCodec();
+    private JsonSerializer<Object> jsonSerializer;
+    private JsonDeserializer<OrderCreatedEvent> orderJsonDeserializer;
+    private JsonDeserializer<ProductChangedEvent> productJsonDeserializer;
+
+    private OrderCreatedEvent order;
+    private ProductChangedEvent product;
+    private byte[] orderJson;
+    private byte[] orderBinary;
+    private byte[] productJson;
+    private byte[] productBinary;
+
+    @Setup
+    public void setUp() {
+        jsonSerializer = new JsonSerializer<>();
+        orderJsonDeserializer = new JsonDeserializer<>(OrderCreatedEvent.class, false);
+        productJsonDeserializer = new JsonDeserializer<>(ProductChangedEvent.class, false);
+
+        order = sampleOrder(orderItems);
+        product = sampleProduct();
+
+        orderJson = jsonSerializer.serialize(TOPIC, order);
+        orderBinary = orderCodec.encode(order);
+        productJson = jsonSerializer.serialize(TOPIC, product);
+        productBinary = productCodec.encode(product);
+
+        System.out.printf("%nOrder with %d items: JSON %d bytes, binary %d bytes; product: JSON %d bytes, binary %d bytes%n",
+                orderItems, orderJson.length, orderBinary.length, productJson.length, productBinary.length);
+    }
+
+    @TearDown
+    public void tearDown() {
+        jsonSerializer.close();
+        orderJsonDeserializer.close();
+        productJsonDeserializer.close();
+    }
+
+    @Benchmark
+    public byte[] orderEncodeJson() {
+        return jsonSerializer.serialize(TOPIC, order);
+    }
+
+    @Benchmark
+    public byte[] orderEncodeBinary() {
+        return orderCodec.encode(order);
+    }
+
+    @Benchmark
+    public OrderCreatedEvent orderDecodeJson() {
+        return orderJsonDeserializer.deserialize(TOPIC, orderJson);
+    }
+
+    @Benchmark
+    public OrderCreatedEvent orderDecodeBinary() {
+        return orderCodec.decode(orderBinary);
+    }
+
+    @Benchmark
+    public byte[] productEncodeJson() {
+        return jsonSerializer.serialize(TOPIC, product);
+    }
+
+    @Benchmark
+    public byte[] productEncodeBinary() {
+        return productCodec.encode(product);
+    }
+
+    @Benchmark
+    public ProductChangedEvent productDecodeJson() {
+        return productJsonDeserializer.deserialize(TOPIC, productJson);
+    }
+
+    @Benchmark
+    public ProductChangedEvent productDecodeBinary() {
+        return productCodec.decode(productBinary);
+    }
+
+    private static OrderCreatedEvent sampleOrder(int items) {
+        OrderCreatedEvent event = new OrderCreatedEvent();
+        event.setOrderId(1_234_567L);
+        event.setCustomerId(42_000L);
+        event.setStatus("CREATED");
+        event.setCreatedAt(LocalDateTime.of(2025, 1, 1, 12, 30, 15, 123_000_000));
+        List<OrderCreatedEvent.Item> lines = new ArrayList<>(items);
+        double total = 0;
+        for (int i = 0; i < items; i++) {
+            double price = 9.99 + i;
+            lines.add(new OrderCreatedEvent.Item(10_000L + i, "Product " + i, 1 + i % 3, price));
+            total += price * (1 + i % 3);
+        }
+        event.setItems(lines);
+        event.setTotalAmount(total);
+        return event;
+    }
+
+    private static ProductChangedEvent sampleProduct() {
+        ProductChangedEvent event = new ProductChangedEvent(ProductChangedEvent.ChangeType.UPDATED, 10_001L, 1_735_734_615_123L);
+        event.setName("Wireless Mouse");
+        event.setPrice(24.99);
+        event.setDescription("Ergonomic 2.4 GHz wireless mouse with silent buttons");
+        return event;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EventSerializationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
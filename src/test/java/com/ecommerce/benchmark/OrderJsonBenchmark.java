@@ -0,0 +1,97 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.dto.OrderSummary;
+import com.ecommerce.model.Customer;
+import com.ecommerce.model.Order;
+import com.ecommerce.model.OrderItem;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Jackson cost of the order responses: one order with 1 to 500 lines, as returned by POST /orders and
+// GET /orders/{id}, and a GET /orders page of the same number of summaries. Product JSON is covered by
+// ProductJsonBenchmark. Run with:
+//   mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+//       -Dexec.args="-cp %classpath org.openjdk.jmh.Main OrderJsonBenchmark -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderJsonBenchmark {
+
+    @Param({"1", "50", "500"})
+    private int lines;
+
+    // Configured like the application's mapper (java.time support, dates as ISO strings)
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private Order order;
+    private List<OrderSummary> summaries;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 20);
+
+    @Setup
+    public void setUp() {
+        Customer customer = new Customer("Jane Doe", "jane@example.com", "secret", "1234567890", "1 Main St");
+        customer.setId(1L);
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 15, 10, 30);
+
+        List<OrderItem> items = new ArrayList<>(lines);
+        summaries = new ArrayList<>(lines);
+        double total = 0;
+        for (int i = 0; i < lines; i++) {
+            OrderItem item = new OrderItem(10_000L + i, "Wireless Mouse " + i,
+                    "Ergonomic 2.4 GHz wireless mouse with silent buttons", 2, 9.99 + i);
+            item.setId(20_000L + i);
+            items.add(item);
+            total += item.getPrice() * item.getQuantity();
+            summaries.add(new OrderSummary(30_000L + i, customer.getId(), "CREATED", 49.95 + i, createdAt));
+        }
+        order = new Order(customer, total, "CREATED", items);
+        order.setId(30_000L);
+        order.setCreatedAt(createdAt);
+    }
+
+    @Benchmark
+    public int order() throws IOException {
+        out.reset();
+        objectMapper.writeValue(out, order);
+        return out.size();
+    }
+
+    @Benchmark
+    public int summaryPage() throws IOException {
+        out.reset();
+        objectMapper.writeValue(out, summaries);
+        return out.size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(OrderJsonBenchmark.class.getSimpleName()).build()).run();
+    }
+}
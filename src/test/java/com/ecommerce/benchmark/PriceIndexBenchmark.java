@@ -0,0 +1,103 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.search.SortedPriceIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// "20 cheapest products between 100 and 200" against the sorted price index and against a full pass over
+// the catalog (the best a client or query without an index can do), plus the cost of re-pricing one product.
+// Run with:
+//   mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+//       -Dexec.args="-cp %classpath -Xmx2g org.openjdk.jmh.Main PriceIndexBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PriceIndexBenchmark {
+
+    private static final int PAGE = 20;
+
+    @Param({"10000", "1000000", "5000000"})
+    public int products;
+
+    private final SortedPriceIndex index = new SortedPriceIndex();
+    private double[] prices; // By id, as a table scan would see them
+    private final long[] page = new long[PAGE];
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new Random(42);
+        prices = new double[products + 1];
+        for (int id = 1; id <= products; id++) {
+            prices[id] = 1 + random.nextInt(100_000) / 100.0; // 1.00 to 1000.99
+            index.add(prices[id], id);
+        }
+    }
+
+    @Benchmark
+    public long[] cheapestInRange() {
+        index.range(100, 200, Double.NEGATIVE_INFINITY, Long.MIN_VALUE, false, page);
+        return page;
+    }
+
+    @Benchmark
+    public long[] nextPageDescending() {
+        // A page deep into the range, from a cursor at 150
+        index.range(100, 200, 150.0, Long.MAX_VALUE, true, page);
+        return page;
+    }
+
+    @Benchmark
+    public long[] fullScan() {
+        // Keeps the 20 cheapest in range in a sorted buffer while passing over every product
+        int found = 0;
+        for (int id = 1; id < prices.length; id++) {
+            double price = prices[id];
+            if (price < 100 || price > 200 || (found == PAGE && price >= prices[(int) page[PAGE - 1]])) {
+                continue;
+            }
+            int at = found < PAGE ? found++ : PAGE - 1;
+            while (at > 0 && prices[(int) page[at - 1]] > price) {
+                page[at] = page[at - 1];
+                at--;
+            }
+            page[at] = id;
+        }
+        return page;
+    }
+
+    @Benchmark
+    public boolean reprice() {
+        int id = 1 + random.nextInt(products);
+        double price = 1 + random.nextInt(100_000) / 100.0;
+        boolean removed = index.remove(prices[id], id);
+        index.add(price, id);
+        prices[id] = price;
+        return removed;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PriceIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
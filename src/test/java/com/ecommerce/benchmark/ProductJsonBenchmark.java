@@ -0,0 +1,112 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.cache.SerializedProductCache;
+import com.ecommerce.model.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// CPU cost of writing a product page with Jackson against writing it from SerializedProductCache, and of
+// gzipping it as the server does for clients that accept it. Page sizes before and after gzip (the bandwidth
+// saved) are printed once per trial. Run with:
+//   mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+//       -Dexec.args="-cp %classpath org.openjdk.jmh.Main ProductJsonBenchmark -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductJsonBenchmark {
+
+    @Param({"1", "50", "500"})
+    public int pageSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SerializedProductCache serializedProductCache;
+
+    private List<Product> stored;
+    private byte[] json;
+
+    // Reused like a response buffer, so the measurement is the encoding rather than buffer growth
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 20);
+
+    @Setup
+    public void setUp() throws IOException {
+        serializedProductCache = new SerializedProductCache(objectMapper, 10_000);
+        stored = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            Product product = new Product("Wireless Mouse " + i, 9.99 + i,
+                    "Ergonomic 2.4 GHz wireless mouse with silent buttons, USB receiver and 18 month battery life");
+            product.setId(10_000L + i);
+            stored.add(product);
+        }
+        serializedProductCache.writeJsonArray(page(), new ByteArrayOutputStream()); // Warm: the products are hot
+
+        json = objectMapper.writeValueAsBytes(stored);
+        System.out.printf("%nPage of %d products: JSON %,d bytes, gzipped %,d bytes%n", pageSize, json.length, gzip(json).length);
+    }
+
+    @Benchmark
+    public int jackson() throws IOException {
+        out.reset();
+        objectMapper.writeValue(out, page());
+        return out.size();
+    }
+
+    @Benchmark
+    public int serializedCache() throws IOException {
+        out.reset();
+        serializedProductCache.writeJsonArray(page(), out);
+        return out.size();
+    }
+
+    @Benchmark
+    public int gzipPage() throws IOException {
+        return gzip(json).length;
+    }
+
+    // Every response gets its own copies, as the product cache hands them out
+    private List<Product> page() {
+        List<Product> page = new ArrayList<>(stored.size());
+        for (Product product : stored) {
+            Product copy = new Product(product.getName(), product.getPrice(), product.getDescription());
+            copy.setId(product.getId());
+            page.add(copy);
+        }
+        return page;
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(bytes);
+        }
+        return compressed.toByteArray();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProductJsonBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,88 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.cache.ProductCache;
+import com.ecommerce.model.Product;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// ProductService.getProductById over 1,000 products, served from the product cache (cached) and read from the
+// database because the product was just evicted (uncached). Run with:
+//   mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+//       -Dexec.args="-cp %classpath org.openjdk.jmh.Main ProductLookupBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductLookupBenchmark {
+
+    private static final int PRODUCTS = 1_000;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private ProductCache productCache;
+    private Long[] productIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkApplication.start("product-lookup");
+        productService = context.getBean(ProductService.class);
+        productCache = context.getBean(ProductCache.class);
+
+        List<Product> products = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(new Product("Product " + i, 10.0 + i, "Description " + i));
+        }
+        productIds = context.getBean(ProductRepository.class).saveAll(products).stream()
+                .map(Product::getId)
+                .toArray(Long[]::new);
+    }
+
+    @Benchmark
+    public Product cached() {
+        return productService.getProductById(nextId());
+    }
+
+    @Benchmark
+    public Product uncached() {
+        Long id = nextId();
+        productCache.evict(id);
+        return productService.getProductById(id);
+    }
+
+    private Long nextId() {
+        next = next + 1 < productIds.length ? next + 1 : 0;
+        return productIds[next];
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ProductLookupBenchmark.class.getSimpleName()).build()).run();
+    }
+}
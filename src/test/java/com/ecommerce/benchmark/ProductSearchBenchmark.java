@@ -0,0 +1,88 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.model.Product;
+import com.ecommerce.search.ProductSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Query latency of the product search index over a generated catalog: exact words, an autocomplete prefix,
+// a misspelt word and a price-filtered query. Run with:
+//   mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+//       -Dexec.args="-cp %classpath org.openjdk.jmh.Main ProductSearchBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductSearchBenchmark {
+
+    private static final String[] ADJECTIVES = {"wireless", "ergonomic", "compact", "premium", "portable",
+            "silent", "vintage", "smart", "classic", "rugged", "organic", "heavy", "slim", "modular", "foldable"};
+    private static final String[] NOUNS = {"keyboard", "mouse", "monitor", "speaker", "lamp", "chair", "desk",
+            "backpack", "bottle", "headphones", "charger", "camera", "blender", "kettle", "jacket", "sneakers"};
+
+    @Param({"10000", "100000"})
+    public int products;
+
+    private final ProductSearchIndex index = new ProductSearchIndex();
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (long id = 1; id <= products; id++) {
+            String name = pick(random, ADJECTIVES) + " " + pick(random, NOUNS) + " " + id;
+            String description = pick(random, ADJECTIVES) + " " + pick(random, ADJECTIVES) + " " + pick(random, NOUNS)
+                    + " for everyday use";
+            Product product = new Product(name, 5 + random.nextInt(500), description);
+            product.setId(id);
+            index.addIfUnknown(product);
+        }
+    }
+
+    @Benchmark
+    public List<Product> exactWords() {
+        return index.search("wireless keyboard", null, null, false, null);
+    }
+
+    @Benchmark
+    public List<Product> prefix() {
+        return index.search("ergonomic chai", null, null, true, null);
+    }
+
+    @Benchmark
+    public List<Product> typo() {
+        return index.search("headphnoes", null, null, true, null);
+    }
+
+    @Benchmark
+    public List<Product> priceRange() {
+        return index.search("portable speaker", 50.0, 100.0, true, null);
+    }
+
+    private static String pick(Random random, String[] words) {
+        return words[random.nextInt(words.length)];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProductSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,106 @@
+package com.ecommerce.cache;
+
+import com.ecommerce.model.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private ProductCache productCache;
+
+    @BeforeEach
+    void setUp() {
+        productCache = new ProductCache(2, Duration.ofMinutes(5), nanos::get);
+    }
+
+    @Test
+    void get_LoadsOnMissAndServesHitsFromMemory() {
+        Product first = productCache.get(1L, loader());
+        Product second = productCache.get(1L, loader());
+
+        assertEquals("Product 1", first.getName());
+        assertEquals("Product 1", second.getName());
+        assertEquals(1, loads.get());
+        assertEquals(1, productCache.stats().hitCount());
+        assertEquals(1, productCache.stats().missCount());
+    }
+
+    @Test
+    void get_ReturnsCopiesSoCallersCannotMutateTheCache() {
+        Product product = productCache.get(1L, loader());
+        product.setName("Changed by caller");
+
+        assertEquals("Product 1", productCache.get(1L, loader()).getName());
+    }
+
+    @Test
+    void get_DoesNotCacheMissingProducts() {
+        assertNull(productCache.get(42L, id -> Optional.empty()));
+        assertNull(productCache.get(42L, id -> Optional.empty()));
+
+        assertEquals(0, productCache.size());
+    }
+
+    @Test
+    void evict_ForcesReload() {
+        productCache.get(1L, loader());
+        productCache.evict(1L);
+        productCache.get(1L, loader());
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void entriesExpireAfterTtl() {
+        productCache.get(1L, loader());
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(6));
+        productCache.get(1L, loader());
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void sizeLimitEvictsEntries() {
+        for (long id = 1; id <= 10; id++) {
+            productCache.get(id, loader());
+        }
+        productCache.cleanUp();
+
+        assertTrue(productCache.size() <= 2);
+        assertTrue(productCache.stats().evictionCount() >= 8);
+    }
+
+    @Test
+    void bindTo_PublishesHitsAndMisses() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        productCache.bindTo(registry);
+
+        productCache.get(1L, loader());
+        productCache.get(1L, loader());
+
+        assertEquals(1, registry.get("cache.gets").tag("cache", "products").tag("result", "hit").functionCounter().count());
+        assertEquals(1, registry.get("cache.gets").tag("cache", "products").tag("result", "miss").functionCounter().count());
+    }
+
+    private Function<Long, Optional<Product>> loader() {
+        return id -> {
+            loads.incrementAndGet();
+            Product product = new Product("Product " + id, 10.0, "Description " + id);
+            product.setId(id);
+            return Optional.of(product);
+        };
+    }
+}
@@ -0,0 +1,89 @@
+package com.ecommerce.cache;
+
+import com.ecommerce.model.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SerializedProductCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private SerializedProductCache serializedProductCache;
+
+    @BeforeEach
+    void setUp() {
+        serializedProductCache = new SerializedProductCache(objectMapper, 100);
+    }
+
+    @Test
+    void toJson_EncodesOnceAndServesHitsFromMemory() throws Exception {
+        Product product = product(1L, "Keyboard", 49.99);
+
+        byte[] first = serializedProductCache.toJson(product);
+        byte[] second = serializedProductCache.toJson(product(1L, "Keyboard", 49.99));
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(product), first);
+        assertSame(first, second);
+        assertEquals(1, serializedProductCache.stats().hitCount());
+    }
+
+    @Test
+    void toJson_ReencodesAChangedProduct() throws Exception {
+        serializedProductCache.toJson(product(1L, "Keyboard", 49.99));
+
+        Product changed = product(1L, "Keyboard", 39.99);
+        byte[] json = serializedProductCache.toJson(changed);
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(changed), json);
+        assertTrue(new String(json, StandardCharsets.UTF_8).contains("39.99"));
+    }
+
+    @Test
+    void toJson_DoesNotCacheUnsavedProducts() throws Exception {
+        Product unsaved = product(null, "Keyboard", 49.99);
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(unsaved), serializedProductCache.toJson(unsaved));
+        assertEquals(0, serializedProductCache.size());
+    }
+
+    @Test
+    void writeJsonArray_MatchesJacksonOutput() throws Exception {
+        List<Product> page = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            page.add(product(id, "Product \"" + id + "\" é", id * 10.5));
+        }
+        serializedProductCache.toJson(page.get(2)); // Some already cached, some not
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serializedProductCache.writeJsonArray(page, out);
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(page), out.toByteArray());
+
+        ByteArrayOutputStream empty = new ByteArrayOutputStream();
+        serializedProductCache.writeJsonArray(List.of(), empty);
+        assertEquals("[]", empty.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void evict_DropsTheEntry() throws Exception {
+        serializedProductCache.toJson(product(1L, "Keyboard", 49.99));
+
+        serializedProductCache.evict(1L);
+
+        assertEquals(0, serializedProductCache.size());
+    }
+
+    private static Product product(Long id, String name, double price) {
+        Product product = new Product(name, price, "Description of " + name);
+        product.setId(id);
+        return product;
+    }
+}
@@ -0,0 +1,225 @@
+package com.ecommerce.cart;
+
+import com.ecommerce.cache.ProductCache;
+import com.ecommerce.exception.CartServiceException;
+import com.ecommerce.model.Cart;
+import com.ecommerce.model.CartItem;
+import com.ecommerce.model.Customer;
+import com.ecommerce.model.Order;
+import com.ecommerce.model.Product;
+import com.ecommerce.repository.CartRepository;
+import com.ecommerce.repository.CustomerRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.search.ProductSearchIndex;
+import com.ecommerce.service.CartService;
+import com.ecommerce.service.InventoryService;
+import com.ecommerce.service.OrderService;
+import com.ecommerce.service.OutboxService;
+import com.ecommerce.service.ProductService;
+import com.ecommerce.support.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs outside a test transaction so flushes commit like they do in production
+@DataJpaTest(properties = "cart.store.mode=memory")
+@Import({InMemoryCartStore.class, OrderService.class, CartService.class, ProductService.class, ProductCache.class, ProductSearchIndex.class, OutboxService.class, InventoryService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InMemoryCartStoreTest {
+
+    @Autowired
+    private InMemoryCartStore cartStore;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long customerId;
+
+    @BeforeEach
+    void setUp() {
+        cartStore.flush(); // Start from a clean store
+        customerId = customerRepository.save(
+                new Customer("Jane Doe", "jane@example.com", "secret", "1234567890", "1 Main St")).getId();
+    }
+
+    @Test
+    void changes_StayInMemoryUntilFlushed() {
+        cartStore.getCart(customerId); // First use loads the (missing) cart from the database
+
+        SqlStatementCounter.reset();
+        cartStore.addItem(customerId, 1L, 2);
+        cartStore.addItem(customerId, 1L, 3);
+        cartStore.addItem(customerId, 2L, 1);
+        Cart cart = cartStore.getCart(customerId);
+
+        assertEquals(0, SqlStatementCounter.count(), SqlStatementCounter.statements().toString());
+        assertEquals(Map.of(1L, 5, 2L, 1), quantities(cart));
+        assertTrue(cartRepository.findByCustomerId(customerId).isEmpty());
+        assertEquals(1, cartStore.dirtyCount());
+
+        cartStore.flush();
+
+        assertEquals(0, cartStore.dirtyCount());
+        assertEquals(Map.of(1L, 5, 2L, 1), quantities(cartRepository.findByCustomerId(customerId).orElseThrow()));
+    }
+
+    @Test
+    void flush_UpdatesAddsAndRemovesStoredLines() {
+        cartStore.addItem(customerId, 1L, 2);
+        cartStore.addItem(customerId, 2L, 1);
+        cartStore.flush();
+        Long cartId = cartRepository.findByCustomerId(customerId).orElseThrow().getId();
+
+        cartStore.addItem(customerId, 1L, 1);
+        cartStore.removeItem(customerId, 2L);
+        cartStore.addItem(customerId, 3L, 4);
+        cartStore.flush();
+
+        Cart stored = cartRepository.findByCustomerId(customerId).orElseThrow();
+        assertEquals(cartId, stored.getId());
+        assertEquals(Map.of(1L, 3, 3L, 4), quantities(stored));
+        assertEquals(cartId, cartStore.getCart(customerId).getId());
+    }
+
+    @Test
+    void clear_DeletesStoredCartOnFlush() {
+        cartStore.addItem(customerId, 1L, 2);
+        cartStore.flush();
+
+        cartStore.clear(customerId);
+        cartStore.flush();
+
+        assertTrue(cartStore.getCart(customerId).getItems().isEmpty());
+        assertTrue(cartRepository.findByCustomerId(customerId).isEmpty());
+    }
+
+    @Test
+    void clear_InRolledBackTransaction_KeepsCart() {
+        cartStore.addItem(customerId, 1L, 2);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            cartStore.clear(customerId);
+            status.setRollbackOnly(); // e.g. the order could not be saved
+        });
+
+        assertEquals(Map.of(1L, 2), quantities(cartStore.getCart(customerId)));
+    }
+
+    @Test
+    void checkout_OrdersInMemoryLinesAndEmptiesCartAfterCommit() {
+        Product product = productRepository.save(new Product("Product", 10.0, "Description"));
+        cartStore.addItem(customerId, product.getId(), 1);
+        cartStore.flush();
+        cartStore.addItem(customerId, product.getId(), 2); // Not flushed yet
+
+        Order order = orderService.createOrder(customerId);
+
+        assertEquals(3, order.getItems().get(0).getQuantity());
+        assertTrue(cartStore.getCart(customerId).getItems().isEmpty());
+        assertTrue(cartRepository.findByCustomerId(customerId).isEmpty());
+        cartStore.flush();
+        assertTrue(cartRepository.findByCustomerId(customerId).isEmpty());
+    }
+
+    @Test
+    void clearOrdered_KeepsOnlyUnitsAddedAfterPricing() {
+        cartStore.addItem(customerId, 1L, 1);
+        cartStore.addItem(customerId, 2L, 2);
+        cartStore.flush();
+        Cart priced = cartStore.getCart(customerId);
+
+        // Other requests change the cart while the order is being placed
+        cartStore.addItem(customerId, 2L, 3);
+        cartStore.addItem(customerId, 3L, 4);
+
+        transactionTemplate.executeWithoutResult(status -> cartStore.clearOrdered(customerId, priced));
+
+        // The 2 ordered units of product 2 are gone; the 3 added later stay
+        assertEquals(Map.of(2L, 3, 3L, 4), quantities(cartStore.getCart(customerId)));
+        cartStore.flush();
+        assertEquals(Map.of(2L, 3, 3L, 4), quantities(cartRepository.findByCustomerId(customerId).orElseThrow()));
+    }
+
+    @Test
+    void existingStoredCart_IsLoadedOnFirstUse() {
+        cartStore.addItem(customerId, 1L, 2);
+        cartStore.flush();
+        InMemoryCartStore freshNode = new InMemoryCartStore(4);
+        ReflectionTestUtils.setField(freshNode, "cartRepository", cartRepository);
+        ReflectionTestUtils.setField(freshNode, "customerRepository", customerRepository);
+
+        assertEquals(Map.of(1L, 2), quantities(freshNode.getCart(customerId)));
+    }
+
+    @Test
+    void unknownCustomer_IsRejected() {
+        assertThrows(CartServiceException.class, () -> cartStore.addItem(-1L, 1L, 1));
+    }
+
+    @Test
+    void parallelAdds_AddUpExactly() throws Exception {
+        int threads = 8;
+        int addsPerThread = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < addsPerThread; i++) {
+                        cartStore.addItem(customerId, 1L, 1);
+                        if (i % 50 == 0) {
+                            cartStore.flush(); // Flushes racing with adds must not lose any
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        cartStore.flush();
+        assertEquals(threads * addsPerThread, quantities(cartStore.getCart(customerId)).get(1L));
+        assertEquals(threads * addsPerThread, quantities(cartRepository.findByCustomerId(customerId).orElseThrow()).get(1L));
+    }
+
+    private static Map<Long, Integer> quantities(Cart cart) {
+        return cart.getItems().stream().collect(Collectors.toMap(CartItem::getProductId, CartItem::getQuantity));
+    }
+}
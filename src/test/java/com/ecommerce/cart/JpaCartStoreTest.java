@@ -0,0 +1,278 @@
+package com.ecommerce.cart;
+
+import com.ecommerce.exception.CartServiceException;
+import com.ecommerce.model.Cart;
+import com.ecommerce.model.CartItem;
+import com.ecommerce.model.Customer;
+import com.ecommerce.repository.CartItemRepository;
+import com.ecommerce.repository.CartRepository;
+import com.ecommerce.repository.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JpaCartStoreTest {
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private CartItemRepository cartItemRepository;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @InjectMocks
+    private JpaCartStore cartStore;
+
+    private Customer customer;
+    private Cart cart;
+    private CartItem cartItem;
+
+    @BeforeEach
+    void setUp() {
+        customer = new Customer();
+        customer.setId(1L);
+
+        cart = new Cart();
+        cart.setCustomer(customer);
+        cart.setItems(new ArrayList<>());
+
+        cartItem = new CartItem(1L, 2);
+    }
+
+    @Test
+    void getCart_ExistingCart() {
+        // Arrange
+        when(cartRepository.findByCustomerId(1L)).thenReturn(Optional.of(cart));
+
+        // Act
+        Cart result = cartStore.getCart(1L);
+
+        // Assert
+        assertNotNull(result);
+        assertEquals(customer, result.getCustomer());
+        verify(cartRepository, times(1)).findByCustomerId(1L);
+        verify(customerRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void getCart_NewCart() {
+        // Arrange
+        when(cartRepository.findByCustomerId(1L)).thenReturn(Optional.empty());
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(cartRepository.saveAndFlush(any(Cart.class))).thenReturn(cart);
+
+        // Act
+        Cart result = cartStore.getCart(1L);
+
+        // Assert
+        assertNotNull(result);
+        assertEquals(customer, result.getCustomer());
+        verify(cartRepository, times(1)).findByCustomerId(1L);
+        verify(customerRepository, times(1)).findById(1L);
+        verify(cartRepository, times(1)).saveAndFlush(any(Cart.class));
+    }
+
+    @Test
+    void getCart_UsesCartCreatedConcurrently() {
+        // Arrange
+        when(cartRepository.findByCustomerId(1L)).thenReturn(Optional.empty()).thenReturn(Optional.of(cart));
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(cartRepository.saveAndFlush(any(Cart.class))).thenThrow(new DataIntegrityViolationException("uk customer_id"));
+
+        // Act
+        Cart result = cartStore.getCart(1L);
+
+        // Assert
+        assertSame(cart, result);
+        verify(cartRepository, times(2)).findByCustomerId(1L);
+    }
+
+    @Test
+    void addItem_NewItem() {
+        // Arrange
+        cart.setId(10L);
+        when(cartRepository.findLockedByCustomerId(1L)).thenReturn(Optional.of(cart));
+        when(cartItemRepository.incrementQuantity(10L, 1L, 2)).thenReturn(0);
+        when(cartRepository.getReferenceById(10L)).thenReturn(cart);
+        when(cartRepository.findByCustomerId(1L)).thenReturn(Optional.of(cart));
+
+        // Act
+        Cart result = cartStore.addItem(1L, 1L, 2);
+
+        // Assert
+        assertNotNull(result);
+        ArgumentCaptor<CartItem> inserted = ArgumentCaptor.forClass(CartItem.class);
+        verify(cartItemRepository, times(1)).saveAndFlush(inserted.capture());
+        assertSame(cart, inserted.getValue().getCart());
+        assertEquals(1L, inserted.getValue().getProductId());
+        assertEquals(2, inserted.getValue().getQuantity());
+        verify(cartRepository, never()).save(any(Cart.class));
+    }
+
+    @Test
+    void addItem_ExistingItem() {
+        // Arrange
+        cart.setId(10L);
+        when(cartRepository.findLockedByCustomerId(1L)).thenReturn(Optional.of(cart));
+        when(cartItemRepository.incrementQuantity(10L, 1L, 3)).thenReturn(1);
+        when(cartRepository.findByCustomerId(1L)).thenReturn(Optional.of(cart));
+
+        // Act
+        Cart result = cartStore.addItem(1L, 1L, 3);
+
+        // Assert
+        assertNotNull(result);
+        verify(cartItemRepository, times(1)).incrementQuantity(10L, 1L, 3);
+        verify(cartItemRepository, never()).saveAndFlush(any(CartItem.class));
+        verify(cartRepository, never()).save(any(Cart.class));
+        verify(cartRepository).incrementVersion(10L);
+    }
+
+    @Test
+    void addItem_NoCart_CreatesItWithTheCustomerLocked() {
+        // Arrange
+        when(cartRepository.findLockedByCustomerId(1L)).thenReturn(Optional.empty());
+        when(customerRepository.findLockedById(1L)).thenReturn(Optional.of(customer));
+        when(cartRepository.saveAndFlush(any(Cart.class))).thenAnswer(invocation -> {
+            Cart created = invocation.getArgument(0);
+            created.setId(10L);
+            return created;
+        });
+        when(cartItemRepository.incrementQuantity(10L, 1L, 3)).thenReturn(1);
+        when(cartRepository.findByCustomerId(1L)).thenReturn(Optional.of(cart));
+
+        // Act
+        cartStore.addItem(1L, 1L, 3);
+
+        // Assert
+        verify(cartRepository, times(2)).findLockedByCustomerId(1L); // Looked again once the customer was locked
+        verify(cartRepository).incrementVersion(10L);
+        verify(customerRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void addItem_CartCreatedWhileWaitingForTheCustomer_IsUsed() {
+        // Arrange
+        cart.setId(10L);
+        when(cartRepository.findLockedByCustomerId(1L)).thenReturn(Optional.empty()).thenReturn(Optional.of(cart));
+        when(customerRepository.findLockedById(1L)).thenReturn(Optional.of(customer));
+        when(cartItemRepository.incrementQuantity(10L, 1L, 3)).thenReturn(1);
+        when(cartRepository.findByCustomerId(1L)).thenReturn(Optional.of(cart));
+
+        // Act
+        cartStore.addItem(1L, 1L, 3);
+
+        // Assert
+        verify(cartRepository, never()).saveAndFlush(any(Cart.class));
+        verify(cartRepository).incrementVersion(10L);
+    }
+
+    @Test
+    void removeItem_DeletesLine() {
+        // Arrange
+        cart.setId(10L);
+        when(cartRepository.findLockedByCustomerId(1L)).thenReturn(Optional.of(cart));
+        when(cartItemRepository.deleteLine(10L, 1L)).thenReturn(1);
+
+        // Act & Assert
+        assertTrue(cartStore.removeItem(1L, 1L));
+        verify(cartRepository).incrementVersion(10L);
+        verify(cartRepository, never()).save(any(Cart.class));
+    }
+
+    @Test
+    void removeItem_ItemNotFound() {
+        // Arrange
+        cart.setId(10L);
+        when(cartRepository.findLockedByCustomerId(1L)).thenReturn(Optional.of(cart));
+        when(cartItemRepository.deleteLine(10L, 1L)).thenReturn(0);
+
+        // Act & Assert
+        assertFalse(cartStore.removeItem(1L, 1L));
+        verify(cartRepository, never()).incrementVersion(any());
+    }
+
+    @Test
+    void removeItem_NoCart() {
+        // Arrange
+        when(cartRepository.findLockedByCustomerId(1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertFalse(cartStore.removeItem(1L, 1L));
+        verifyNoInteractions(cartItemRepository);
+    }
+
+    @Test
+    void clear_Success() {
+        // Arrange
+        cart.getItems().add(cartItem);
+
+        when(cartRepository.findByCustomerId(1L)).thenReturn(Optional.of(cart));
+
+        // Act
+        cartStore.clear(1L);
+
+        // Assert
+        assertTrue(cart.getItems().isEmpty());
+        verify(cartRepository, times(1)).findByCustomerId(1L);
+        verify(cartRepository, times(1)).save(cart);
+        verify(cartRepository, times(1)).delete(cart);
+    }
+
+    @Test
+    void clearOrdered_LocksCartThenDeletesLinesAndCart() {
+        // Arrange
+        cart.setId(10L);
+        cart.setVersion(3L);
+        when(cartRepository.findLockedVersionById(10L)).thenReturn(Optional.of(3L));
+
+        // Act
+        cartStore.clearOrdered(1L, cart);
+
+        // Assert
+        InOrder inOrder = inOrder(cartRepository, cartItemRepository);
+        inOrder.verify(cartRepository).findLockedVersionById(10L);
+        inOrder.verify(cartItemRepository).deleteAllOfCart(10L);
+        inOrder.verify(cartRepository).deleteCart(10L);
+        verify(cartRepository, never()).findByCustomerId(anyLong());
+    }
+
+    @Test
+    void clearOrdered_CartChangedSinceRead() {
+        // Arrange
+        cart.setId(10L);
+        cart.setVersion(3L);
+        when(cartRepository.findLockedVersionById(10L)).thenReturn(Optional.of(4L));
+
+        // Act & Assert
+        assertThrows(CartServiceException.class, () -> cartStore.clearOrdered(1L, cart));
+        verifyNoInteractions(cartItemRepository);
+    }
+
+    @Test
+    void clearOrdered_CartDeletedSinceRead() {
+        // Arrange
+        cart.setId(10L);
+        when(cartRepository.findLockedVersionById(10L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(CartServiceException.class, () -> cartStore.clearOrdered(1L, cart));
+        verify(cartRepository, never()).deleteCart(anyLong());
+    }
+}
@@ -0,0 +1,100 @@
+package com.ecommerce.config;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Compares producer throughput of the default, kafka-throughput and kafka-low-latency profiles against an
+// embedded broker. Not part of the regular build (Surefire only picks up *Test classes); run it with
+//   mvn test -Dtest=KafkaProducerThroughputBenchmark -Dkafka.benchmark.messages=500000
+@EmbeddedKafka(topics = KafkaProducerThroughputBenchmark.TOPIC, partitions = 6)
+class KafkaProducerThroughputBenchmark {
+
+    static final String TOPIC = "producer-benchmark";
+
+    private static final int MESSAGES = Integer.getInteger("kafka.benchmark.messages", 200_000);
+    private static final int CUSTOMERS = 1_000;
+
+    @Test
+    void compareProducerProfiles(EmbeddedKafkaBroker broker) throws Exception {
+        byte[] payload = samplePayload();
+
+        // Warm up the broker and the JIT once before measuring
+        run(broker, "default", payload, MESSAGES / 10);
+
+        for (String profile : new String[]{"default", "kafka-throughput", "kafka-low-latency"}) {
+            long nanos = run(broker, profile, payload, MESSAGES);
+            double seconds = nanos / 1_000_000_000.0;
+            System.out.printf("%-18s %,10d msg/s %8.1f MB/s  (%,d messages of %d bytes in %.2f s)%n",
+                    profile, (long) (MESSAGES / seconds), MESSAGES * (double) payload.length / seconds / (1024 * 1024),
+                    MESSAGES, payload.length, seconds);
+        }
+    }
+
+    // Sends the messages keyed by customer id and returns the time until the last one was acknowledged
+    private long run(EmbeddedKafkaBroker broker, String profile, byte[] payload, int messages) throws Exception {
+        Map<String, Object> configs = producerConfigs(broker, profile);
+        configs.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+
+        CountDownLatch acknowledged = new CountDownLatch(messages);
+        AtomicInteger failures = new AtomicInteger();
+        try (KafkaProducer<String, byte[]> producer = new KafkaProducer<>(configs)) {
+            long start = System.nanoTime();
+            for (int i = 0; i < messages; i++) {
+                producer.send(new ProducerRecord<>(TOPIC, String.valueOf(i % CUSTOMERS), payload), (metadata, ex) -> {
+                    if (ex != null) {
+                        failures.incrementAndGet();
+                    }
+                    acknowledged.countDown();
+                });
+            }
+            producer.flush();
+            assertTrue(acknowledged.await(2, TimeUnit.MINUTES), "Timed out waiting for acknowledgements");
+            long elapsed = System.nanoTime() - start;
+            assertEquals(0, failures.get(), "Sends failed for profile " + profile);
+            return elapsed;
+        }
+    }
+
+    // Resolves the producer settings exactly as the application would with the given profile active
+    private static Map<String, Object> producerConfigs(EmbeddedKafkaBroker broker, String profile) {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(KafkaConfig.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false);
+        if (!"default".equals(profile)) {
+            builder.profiles(profile);
+        }
+        // An argument, not a default property, so it wins over the test application.yaml
+        try (ConfigurableApplicationContext context = builder.run("--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString())) {
+            return context.getBean(KafkaConfig.class).producerConfigs();
+        }
+    }
+
+    // Roughly the size and shape of an order-created event
+    private static byte[] samplePayload() {
+        StringBuilder json = new StringBuilder("{\"orderId\":123456,\"customerId\":42,\"status\":\"CREATED\","
+                + "\"totalAmount\":149.97,\"createdAt\":\"2025-01-01T12:00:00\",\"items\":[");
+        for (int i = 0; i < 3; i++) {
+            json.append(i == 0 ? "" : ",")
+                    .append("{\"productId\":").append(1000 + i)
+                    .append(",\"productName\":\"Product ").append(i)
+                    .append("\",\"quantity\":1,\"price\":49.99}");
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
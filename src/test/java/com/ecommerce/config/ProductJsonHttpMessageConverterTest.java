@@ -0,0 +1,51 @@
+package com.ecommerce.config;
+
+import com.ecommerce.cache.SerializedProductCache;
+import com.ecommerce.model.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductJsonHttpMessageConverterTest {
+
+    private static final Type PRODUCT_LIST = new ParameterizedTypeReference<List<Product>>() {}.getType();
+    private static final Type STRING_LIST = new ParameterizedTypeReference<List<String>>() {}.getType();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ProductJsonHttpMessageConverter converter =
+            new ProductJsonHttpMessageConverter(new SerializedProductCache(objectMapper, 100));
+
+    @Test
+    void canWrite_OnlyProductsAndProductListsAsJson() {
+        assertTrue(converter.canWrite(Product.class, Product.class, MediaType.APPLICATION_JSON));
+        assertTrue(converter.canWrite(PRODUCT_LIST, List.class, MediaType.APPLICATION_JSON));
+        assertTrue(converter.canWrite(PRODUCT_LIST, List.class, null));
+        assertFalse(converter.canWrite(STRING_LIST, List.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(Product.class, Product.class, MediaType.APPLICATION_XML));
+        assertFalse(converter.canRead(Product.class, MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void write_ProductAndPageAsJackson() throws Exception {
+        Product product = new Product("Keyboard", 49.99, "Mechanical");
+        product.setId(1L);
+        List<Product> page = List.of(product, product);
+
+        MockHttpOutputMessage single = new MockHttpOutputMessage();
+        converter.write(product, Product.class, MediaType.APPLICATION_JSON, single);
+        MockHttpOutputMessage list = new MockHttpOutputMessage();
+        converter.write(page, PRODUCT_LIST, MediaType.APPLICATION_JSON, list);
+
+        assertEquals(objectMapper.writeValueAsString(product), single.getBodyAsString(StandardCharsets.UTF_8));
+        assertEquals(objectMapper.writeValueAsString(page), list.getBodyAsString(StandardCharsets.UTF_8));
+        assertEquals(MediaType.APPLICATION_JSON, list.getHeaders().getContentType());
+    }
+}
@@ -1,5 +1,6 @@
 package com.ecommerce.controller;
 
+import com.ecommerce.dto.CartVersion;
 import com.ecommerce.model.Cart;
 import com.ecommerce.service.CartService;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,8 +9,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -73,14 +78,54 @@ class CartControllerTest {
     @Test
     void getOrCreateCart_Success() {
         // Arrange
+        cart.setId(10L);
+        cart.setVersion(3L);
         when(cartService.getOrCreateCart(1L)).thenReturn(cart);
 
         // Act
-        ResponseEntity<Cart> response = cartController.getOrCreateCart(1L);
+        ResponseEntity<Cart> response = cartController.getOrCreateCart(1L, new ServletWebRequest(new MockHttpServletRequest()));
 
         // Assert
         assertNotNull(response.getBody());
         assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"10-3\"", response.getHeaders().getETag());
+        assertEquals("no-cache, private", response.getHeaders().getCacheControl());
         verify(cartService, times(1)).getOrCreateCart(1L);
+        verify(cartService, never()).getCartVersion(anyLong()); // Unconditional: no separate version query
+    }
+
+    @Test
+    void getOrCreateCart_NotModified() {
+        // Arrange
+        when(cartService.getCartVersion(1L)).thenReturn(new CartVersion(10L, 3L));
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/cart");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"10-3\"");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        // Act
+        ResponseEntity<Cart> response = cartController.getOrCreateCart(1L, new ServletWebRequest(servletRequest, servletResponse));
+
+        // Assert: answered from the version alone, the cart itself is never loaded
+        assertNull(response);
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), servletResponse.getStatus());
+        assertEquals("\"10-3\"", servletResponse.getHeader(HttpHeaders.ETAG));
+        verify(cartService, never()).getOrCreateCart(anyLong());
+    }
+
+    @Test
+    void getOrCreateCart_NewCartChangesETag() {
+        // Arrange: no cart yet, then one with a line
+        when(cartService.getCartVersion(1L)).thenReturn(null);
+        cart.setId(10L);
+        when(cartService.getOrCreateCart(1L)).thenReturn(cart);
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/cart");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"10-3\"");
+
+        // Act
+        ResponseEntity<Cart> response = cartController.getOrCreateCart(1L, new ServletWebRequest(servletRequest));
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"10-0\"", response.getHeaders().getETag());
     }
 }
\ No newline at end of file
@@ -0,0 +1,138 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.model.Cart;
+import com.ecommerce.model.CartItem;
+import com.ecommerce.model.Customer;
+import com.ecommerce.model.Order;
+import com.ecommerce.model.OrderItem;
+import com.ecommerce.repository.CartRepository;
+import com.ecommerce.repository.CustomerRepository;
+import com.ecommerce.repository.OrderRepository;
+import com.ecommerce.support.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Guards the per-endpoint fetch plans: each read endpoint issues a fixed number of SQL statements,
+// however many orders or cart items the customer has
+@SpringBootTest
+@AutoConfigureMockMvc
+class FetchPlanQueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private Customer customer;
+    private Order lastOrder;
+
+    @BeforeEach
+    void setUp() {
+        customer = customerRepository.save(
+                new Customer("Jane Doe", "jane@example.com", "secret", "1234567890", "1 Main St"));
+        cartRepository.save(new Cart(customer, new ArrayList<>(List.of(new CartItem(1L, 2), new CartItem(2L, 1)))));
+        for (int i = 0; i < 5; i++) {
+            lastOrder = orderRepository.save(new Order(customer, 30.0, "CREATED", new ArrayList<>(List.of(
+                    new OrderItem(1L, "Product 1", "First", 1, 10.0),
+                    new OrderItem(2L, "Product 2", "Second", 1, 20.0)))));
+        }
+        SqlStatementCounter.reset();
+    }
+
+    @Test
+    void getCustomerById_LoadsCustomerCartAndOrdersWithThreeStatements() throws Exception {
+        mockMvc.perform(get("/customers/{id}", customer.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cart.items.length()").value(2))
+                .andExpect(jsonPath("$.orders.length()").value(5))
+                .andExpect(jsonPath("$.orders[0].items.length()").value(2));
+
+        // customer + cart + cart items, then orders, then the items of all orders in one batch
+        assertEquals(3, SqlStatementCounter.count(), SqlStatementCounter.statements().toString());
+    }
+
+    @Test
+    void getAllCustomers_LoadsEveryCustomerWithThreeStatements() throws Exception {
+        for (int c = 2; c <= 4; c++) {
+            Customer other = customerRepository.save(
+                    new Customer("Customer " + c, "customer" + c + "@example.com", "secret", "1234567890", "1 Main St"));
+            cartRepository.save(new Cart(other, new ArrayList<>(List.of(new CartItem(1L, c)))));
+            orderRepository.save(new Order(other, 10.0, "CREATED", new ArrayList<>(List.of(
+                    new OrderItem(1L, "Product 1", "First", 1, 10.0)))));
+        }
+        SqlStatementCounter.reset();
+
+        mockMvc.perform(get("/customers"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(greaterThanOrEqualTo(4)))
+                .andExpect(jsonPath("$[?(@.email == 'customer4@example.com')].cart.items[0].quantity").value(contains(4)))
+                .andExpect(jsonPath("$[?(@.email == 'customer4@example.com')].orders[0].items.length()").value(contains(1)));
+
+        // customers + carts + cart items, then the orders of all customers, then all their items; no query per customer
+        // (other tests' customers may be listed too, still well within one batch)
+        assertEquals(3, SqlStatementCounter.count(), SqlStatementCounter.statements().toString());
+    }
+
+    @Test
+    void findCustomer_LeavesTheCartUnloaded() {
+        customerRepository.findById(customer.getId()).orElseThrow();
+
+        // The cart is on the mappedBy side of the one-to-one: without bytecode enhancement it would be
+        // loaded right away with a second query
+        assertEquals(1, SqlStatementCounter.count(), SqlStatementCounter.statements().toString());
+    }
+
+    @Test
+    void getCart_LoadsCartAndItemsWithOneStatement() throws Exception {
+        mockMvc.perform(get("/cart").param("customerId", String.valueOf(customer.getId())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2));
+
+        assertEquals(1, SqlStatementCounter.count(), SqlStatementCounter.statements().toString());
+    }
+
+    @Test
+    void getCart_NotModifiedReadsOnlyTheVersion() throws Exception {
+        String eTag = mockMvc.perform(get("/cart").param("customerId", String.valueOf(customer.getId())))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        SqlStatementCounter.reset();
+
+        mockMvc.perform(get("/cart").param("customerId", String.valueOf(customer.getId()))
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        assertEquals(1, SqlStatementCounter.count(), SqlStatementCounter.statements().toString());
+    }
+
+    @Test
+    void getOrderById_LoadsOrderAndItemsWithOneStatement() throws Exception {
+        mockMvc.perform(get("/orders/{orderId}", lastOrder.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2));
+
+        assertEquals(1, SqlStatementCounter.count(), SqlStatementCounter.statements().toString());
+    }
+}
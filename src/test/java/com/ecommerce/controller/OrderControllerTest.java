@@ -1,5 +1,7 @@
 package com.ecommerce.controller;
 
+import com.ecommerce.dto.OrderFilter;
+import com.ecommerce.dto.OrderSummary;
 import com.ecommerce.exception.OrderNotFoundException;
 import com.ecommerce.exception.OrderServiceException;
 import com.ecommerce.model.Order;
@@ -8,14 +10,28 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.junit.jupiter.api.extension.ExtendWith;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -29,12 +45,20 @@ class OrderControllerTest {
     @InjectMocks
     private OrderController orderController;
 
+    @Spy
+    private ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
     private Order order;
+    private OrderSummary summary;
 
     @BeforeEach
     void setUp() {
         order = new Order();
         order.setId(1L);
+        summary = new OrderSummary(1L, 1L, "CREATED", 200.0, LocalDateTime.of(2025, 1, 2, 3, 4, 5));
     }
 
     @Test
@@ -54,14 +78,46 @@ class OrderControllerTest {
     @Test
     void getAllOrders_Success() {
         // Arrange
-        when(orderService.getAllOrders()).thenReturn(Collections.singletonList(order));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/orders");
+        request.setQueryString("status=CREATED&size=1");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        OrderFilter filter = new OrderFilter(null, "CREATED", null, null);
+        when(orderService.getOrderSummaries(filter, null, 1)).thenReturn(Collections.singletonList(summary));
+
+        try {
+            // Act
+            ResponseEntity<List<OrderSummary>> response = orderController.getAllOrders(filter, null, 1);
+
+            // Assert
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertFalse(response.getBody().isEmpty());
+            assertEquals("<http://localhost/orders?status=CREATED&size=1&before=1>; rel=\"next\"",
+                    response.getHeaders().getFirst(HttpHeaders.LINK));
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @Test
+    void exportOrders_WritesOneJsonDocumentPerLine() throws Exception {
+        // Arrange
+        OrderFilter filter = new OrderFilter(1L, null, null, null);
+        doAnswer(invocation -> {
+            Consumer<List<OrderSummary>> pageConsumer = invocation.getArgument(1);
+            pageConsumer.accept(List.of(summary));
+            return null;
+        }).when(orderService).forEachOrderSummaryPage(eq(filter), any());
 
         // Act
-        ResponseEntity<List<Order>> response = orderController.getAllOrders();
+        ResponseEntity<StreamingResponseBody> response = orderController.exportOrders(filter);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
 
         // Assert
-        assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertFalse(response.getBody().isEmpty());
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        String body = output.toString(StandardCharsets.UTF_8);
+        assertTrue(body.contains("\"customerId\":1"));
+        assertTrue(body.contains("\"createdAt\":\"2025-01-02T03:04:05\""));
     }
 
     @Test
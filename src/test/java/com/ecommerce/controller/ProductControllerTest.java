@@ -1,24 +1,49 @@
 package com.ecommerce.controller;
 
+import com.ecommerce.dto.ProductFilter;
+import com.ecommerce.dto.ProductImportReport;
+import com.ecommerce.dto.ProductSort;
 import com.ecommerce.exception.ProductNotFoundException;
 import com.ecommerce.exception.ProductServiceException;
 import com.ecommerce.model.Product;
+import com.ecommerce.search.ProductSearchIndex;
+import com.ecommerce.service.ProductImportService;
 import com.ecommerce.service.ProductService;
 import com.ecommerce.kafka.ProductProducer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class ProductControllerTest {
 
@@ -28,6 +53,15 @@ class ProductControllerTest {
     @Mock
     private ProductProducer productProducer;
 
+    @Mock
+    private ProductImportService productImportService;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private ProductController productController;
 
@@ -58,6 +92,43 @@ class ProductControllerTest {
         verify(productProducer, times(1)).sendProduct(product);
     }
 
+    @Test
+    void testBrowseProducts_LinkCarriesSortValueAndId() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/products/browse");
+        request.setQueryString("sort=-name&maxPrice=200&size=1");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        ProductFilter filter = new ProductFilter(null, 200.0);
+        when(productService.browseProducts(ProductSort.NAME_DESC, filter, null, null, null, 1)).thenReturn(List.of(product));
+
+        try {
+            ResponseEntity<List<Product>> response = productController.browseProducts("-name", filter, null, null, null, 1);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(List.of(product), response.getBody());
+            assertEquals("<http://localhost/products/browse?sort=-name&maxPrice=200&size=1&after=1&afterName=Test%20Product>; rel=\"next\"",
+                    response.getHeaders().getFirst(HttpHeaders.LINK));
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @Test
+    void testBrowseProducts_UnknownSort() {
+        assertThrows(ProductServiceException.class,
+                () -> productController.browseProducts("rating", new ProductFilter(), null, null, null, null));
+    }
+
+    @Test
+    void testSearchProducts_AnsweredFromIndex() {
+        when(productSearchIndex.search("test prod", 50.0, null, true, null)).thenReturn(List.of(product));
+
+        ResponseEntity<List<Product>> response = productController.searchProducts("test prod", 50.0, null, true, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(product), response.getBody());
+        verifyNoInteractions(productService);
+    }
+
     @Test
     void testCreateProduct_Failure() {
         // Arrange
@@ -72,34 +143,62 @@ class ProductControllerTest {
     void testGetAllProducts_Success() {
         // Arrange
         Product product1 = new Product();
+        product1.setId(11L);
         product1.setName("Product 1");
         Product product2 = new Product();
+        product2.setId(12L);
         product2.setName("Product 2");
 
-        when(productService.getAllProducts()).thenReturn(Arrays.asList(product1, product2));
+        when(productService.getProductsPage(10L, 2)).thenReturn(Arrays.asList(product1, product2));
 
         // Act
-        ResponseEntity<List<Product>> response = productController.getAllProducts();
+        ResponseEntity<List<Product>> response = productController.getAllProducts(10L, 2);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(2, response.getBody().size());
+        assertEquals("</products?after=12&size=2>; rel=\"next\"", response.getHeaders().getFirst(HttpHeaders.LINK));
     }
 
     @Test
     void testGetAllProducts_Empty() {
         // Arrange
-        when(productService.getAllProducts()).thenReturn(Collections.emptyList());
+        when(productService.getProductsPage(null, null)).thenReturn(Collections.emptyList());
 
         // Act
-        ResponseEntity<List<Product>> response = productController.getAllProducts();
+        ResponseEntity<List<Product>> response = productController.getAllProducts(null, null);
 
         // Assert
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
         assertNull(response.getBody());
     }
 
+    @Test
+    void testStreamAllProducts_WritesOneJsonDocumentPerLine() throws Exception {
+        // Arrange
+        Product product2 = new Product("Product 2", 20.0, "Second");
+        product2.setId(2L);
+        doAnswer(invocation -> {
+            Consumer<List<Product>> pageConsumer = invocation.getArgument(0);
+            pageConsumer.accept(List.of(product));
+            pageConsumer.accept(List.of(product2));
+            return null;
+        }).when(productService).forEachProductPage(any());
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = productController.streamAllProducts();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+
+        // Assert
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"name\":\"Test Product\""));
+        assertTrue(lines[1].contains("\"name\":\"Product 2\""));
+    }
+
     @Test
     void testGetProductById_Success() {
         // Arrange
@@ -112,6 +211,30 @@ class ProductControllerTest {
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals("Test Product", response.getBody().getName());
+        assertEquals("max-age=30, public", response.getHeaders().getCacheControl());
+    }
+
+    @Test
+    void testGetProductById_NotModified() throws Exception {
+        // Arrange
+        product.setVersion(4L);
+        when(productService.getProductById(1L)).thenReturn(product);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(productController).build();
+
+        // Act & Assert: the ETag comes from the version; sending it back gets a 304 without a body
+        mockMvc.perform(get("/products/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(jsonPath("$.version").doesNotExist());
+        mockMvc.perform(get("/products/1").header(HttpHeaders.IF_NONE_MATCH, "\"4\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // A new version is a different representation
+        product.setVersion(5L);
+        mockMvc.perform(get("/products/1").header(HttpHeaders.IF_NONE_MATCH, "\"4\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5\""));
     }
 
     @Test
@@ -140,6 +263,7 @@ class ProductControllerTest {
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals("Test Product", response.getBody().getName());
+        verify(productProducer, times(1)).sendProductUpdated(product);
     }
 
     @Test
@@ -167,6 +291,7 @@ class ProductControllerTest {
         // Assert
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
         verify(productService, times(1)).deleteProduct(1L);
+        verify(productProducer, times(1)).sendProductDeleted(product);
     }
 
     @Test
@@ -180,5 +305,37 @@ class ProductControllerTest {
         // Assert
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         verify(productService, never()).deleteProduct(1L);
+        verify(productProducer, never()).sendProductDeleted(any(Product.class));
+    }
+
+    @Test
+    void testImportProducts_PicksFormatFromContentType() {
+        // Arrange
+        InputStream upload = new ByteArrayInputStream("name,price\nLamp,10\n".getBytes(StandardCharsets.UTF_8));
+        ProductImportReport report = new ProductImportReport("import-1", ProductImportService.FORMAT_CSV, 10);
+        report.complete();
+        when(productImportService.importProducts(upload, ProductImportService.FORMAT_CSV)).thenReturn(report);
+
+        // Act
+        ResponseEntity<ProductImportReport> response = productController.importProducts("text/csv; charset=UTF-8", upload);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(report, response.getBody());
+    }
+
+    @Test
+    void testImportProducts_FailedImportIsBadRequest() {
+        // Arrange
+        InputStream upload = new ByteArrayInputStream("{".getBytes(StandardCharsets.UTF_8));
+        ProductImportReport report = new ProductImportReport("import-2", ProductImportService.FORMAT_JSON, 10);
+        report.fail("Unexpected end-of-input");
+        when(productImportService.importProducts(upload, ProductImportService.FORMAT_JSON)).thenReturn(report);
+
+        // Act
+        ResponseEntity<ProductImportReport> response = productController.importProducts(MediaType.APPLICATION_JSON_VALUE, upload);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,104 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.exception.ProductNotFoundException;
+import com.ecommerce.model.Product;
+import com.ecommerce.service.ReactiveProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class ReactiveProductControllerTest {
+
+    @Mock
+    private ReactiveProductService reactiveProductService;
+
+    @InjectMocks
+    private ReactiveProductController reactiveProductController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mockMvc = MockMvcBuilders.standaloneSetup(reactiveProductController).build();
+    }
+
+    @Test
+    void getProductById_Success() throws Exception {
+        when(reactiveProductService.getProductById(1L)).thenReturn(Mono.just(product(1L)));
+
+        mockMvc.perform(asyncDispatch(started(get("/reactive/products/1"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Product 1"));
+    }
+
+    @Test
+    void getProductById_NotFound() throws Exception {
+        when(reactiveProductService.getProductById(9L)).thenReturn(Mono.error(new ProductNotFoundException("Product not found with ID: 9")));
+
+        mockMvc.perform(asyncDispatch(started(get("/reactive/products/9"))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getAllProducts_LinksToNextPage() throws Exception {
+        when(reactiveProductService.getProductsPage(null, 2)).thenReturn(Mono.just(List.of(product(1L), product(2L))));
+
+        mockMvc.perform(asyncDispatch(started(get("/reactive/products?size=2"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(header().string("Link", "<http://localhost/reactive/products?size=2&after=2>; rel=\"next\""));
+    }
+
+    @Test
+    void searchProducts_PassesTheSearchOptions() throws Exception {
+        when(reactiveProductService.searchProducts("lamp", 10.0, null, false, 5)).thenReturn(Mono.just(List.of(product(1L))));
+
+        mockMvc.perform(asyncDispatch(started(get("/reactive/products/search")
+                        .param("q", "lamp").param("minPrice", "10").param("fuzzy", "false").param("limit", "5"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Product 1"));
+    }
+
+    @Test
+    void streamAllProducts_WritesOneProductPerLine() throws Exception {
+        when(reactiveProductService.streamAllProducts()).thenReturn(Flux.just(product(1L), product(2L)));
+
+        MvcResult result = mockMvc.perform(asyncDispatch(started(get("/reactive/products/stream")
+                        .accept(MediaType.APPLICATION_NDJSON))))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().trim().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].contains("\"name\":\"Product 2\""));
+    }
+
+    // Performs the request and returns it once the controller has handed back its Mono / Flux
+    private MvcResult started(RequestBuilder requestBuilder) throws Exception {
+        return mockMvc.perform(requestBuilder).andExpect(request().asyncStarted()).andReturn();
+    }
+
+    private static Product product(Long id) {
+        Product product = new Product("Product " + id, 10.0, "Description " + id);
+        product.setId(id);
+        return product;
+    }
+}
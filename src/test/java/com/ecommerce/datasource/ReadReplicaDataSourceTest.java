@@ -0,0 +1,63 @@
+package com.ecommerce.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadReplicaDataSourceTest {
+
+    private HikariDataSource primary;
+    private ReadReplicaDataSource replicas;
+
+    @BeforeEach
+    void setUp() {
+        primary = pool("rr-primary");
+        replicas = new ReadReplicaDataSource(primary, List.of(pool("rr-replica-a"), pool("rr-replica-b")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        replicas.close();
+        primary.close();
+    }
+
+    @Test
+    void getConnection_UsesTheReplicasInTurn() throws Exception {
+        assertEquals(List.of("rr-replica-a", "rr-replica-b", "rr-replica-a", "rr-replica-b"),
+                List.of(database(), database(), database(), database()));
+    }
+
+    @Test
+    void getConnection_UsesThePrimaryWhileReadRoutingRequiresIt() throws Exception {
+        try (ReadRouting.Scope ignored = ReadRouting.primary()) {
+            assertEquals("rr-primary", database());
+            try (ReadRouting.Scope nested = ReadRouting.primary()) {
+                assertEquals("rr-primary", database());
+            }
+            assertEquals("rr-primary", database()); // Still on after the nested scope closed
+        }
+        assertFalse(ReadRouting.isPrimaryRequired());
+        assertNotEquals("rr-primary", database());
+    }
+
+    private String database() throws SQLException {
+        try (Connection connection = replicas.getConnection()) {
+            return connection.getCatalog().toLowerCase();
+        }
+    }
+
+    private static HikariDataSource pool(String database) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1");
+        pool.setUsername("sa");
+        pool.setMaximumPoolSize(2);
+        return pool;
+    }
+}
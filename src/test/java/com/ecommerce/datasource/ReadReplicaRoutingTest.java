@@ -0,0 +1,122 @@
+package com.ecommerce.datasource;
+
+import com.ecommerce.model.Customer;
+import com.ecommerce.model.Product;
+import com.ecommerce.repository.CustomerRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Two H2 databases, one as the primary and one as its replica. Nothing replicates between them, so a row
+// written through the application is only on the primary and a row inserted into the replica only there:
+// where a read finds its row tells which database served it.
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReadReplicaRoutingTest.PRIMARY_URL,
+        "datasource.replicas[0].url=" + ReadReplicaRoutingTest.REPLICA_URL})
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1;MODE=MySQL";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1;MODE=MySQL";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    // The replica starts as an empty copy of the schema Hibernate created on the primary
+    @BeforeEach
+    void copySchemaToReplica() {
+        List<String> schema = new JdbcTemplate(primaryDataSource).queryForList("SCRIPT NODATA", String.class);
+        replica.execute("DROP ALL OBJECTS");
+        schema.stream().filter(statement -> !statement.startsWith("--")).forEach(replica::execute);
+    }
+
+    @Test
+    void readOnlyTransactionsReadTheReplica_WritesGoToThePrimary() {
+        Product written = productRepository.save(new Product("Keyboard", 49.99, "Mechanical"));
+        replica.update("insert into product (id, name, price, description, version) values (?, ?, ?, ?, 0)",
+                900_001L, "Replica Mouse", 19.99, "Only on the replica");
+
+        assertTrue(productRepository.findById(900_001L).isPresent());
+        assertTrue(productRepository.findById(written.getId()).isEmpty());
+        assertTrue(ReadRouting.onPrimary(() -> productRepository.findById(written.getId())).isPresent());
+        assertEquals(1, new JdbcTemplate(primaryDataSource).queryForObject(
+                "select count(*) from product where name = 'Keyboard'", Integer.class));
+    }
+
+    // A cached product is served until its TTL, so it must never be a replica's possibly stale copy
+    @Test
+    void productCacheMisses_LoadFromThePrimary() throws Exception {
+        Product product = productRepository.save(new Product("Desk Lamp", 24.99, "LED"));
+        replica.update("insert into product (id, name, price, description, version) values (?, ?, ?, ?, 0)",
+                product.getId(), "Desk Lamp", 19.99, "Stale replica copy");
+
+        MvcResult first = mockMvc.perform(get("/products/{id}", product.getId()))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertEquals(24.99, objectMapper.readTree(first.getResponse().getContentAsString()).get("price").asDouble());
+        assertEquals(24.99, productService.getProductById(product.getId()).getPrice()); // Now from the cache
+    }
+
+    @Test
+    void orderLookupAfterCheckout_ReadsThePrimaryWhileTheClientHasTheCookie() throws Exception {
+        Long customerId = customerRepository.save(
+                new Customer("Jane Doe", "jane.routing@example.com", "secret", "1234567890", "1 Main St")).getId();
+        Long productId = productRepository.save(new Product("Monitor", 199.99, "27 inch")).getId();
+
+        mockMvc.perform(post("/cart/add").param("customerId", customerId.toString())
+                        .param("productId", productId.toString()).param("quantity", "1"))
+                .andExpect(status().isCreated());
+        MvcResult checkout = mockMvc.perform(post("/orders").param("customerId", customerId.toString()))
+                .andExpect(status().is2xxSuccessful())
+                .andReturn();
+        Cookie cookie = checkout.getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+        assertNotNull(cookie, "Writes must pin the client's next reads to the primary");
+        long orderId = objectMapper.readTree(checkout.getResponse().getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(get("/orders/{id}", orderId).cookie(cookie))
+                .andExpect(status().isOk());
+        // Without the cookie the lookup goes to the replica, which has not seen the order
+        mockMvc.perform(get("/orders/{id}", orderId))
+                .andExpect(status().isBadRequest());
+        // Nor with an expired one
+        mockMvc.perform(get("/orders/{id}", orderId)
+                        .cookie(new Cookie(ReadYourWritesFilter.COOKIE, String.valueOf(System.currentTimeMillis() - 1))))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,131 @@
+package com.ecommerce.kafka;
+
+import com.ecommerce.model.OutboxEvent;
+import com.ecommerce.model.OutboxRelayLease;
+import com.ecommerce.repository.OutboxEventRepository;
+import com.ecommerce.repository.OutboxRelayLeaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private OrderProducer orderProducer;
+
+    @Mock
+    private OutboxRelayLeaseRepository outboxRelayLeaseRepository;
+
+    @InjectMocks
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        // This node holds the relay lease unless a test says otherwise
+        lenient().when(outboxRelayLeaseRepository.tryAcquire(eq(OutboxRelayLease.ID), anyString(), anyLong())).thenReturn(1);
+        ReflectionTestUtils.setField(outboxRelay, "batchSize", 2);
+        ReflectionTestUtils.setField(outboxRelay, "sendTimeoutMs", 1000L);
+    }
+
+    @Test
+    void relayBatch_SendsEventsInOrderThenDeletesThem() {
+        List<OutboxEvent> batch = List.of(event(1L, "7"), event(2L, "8"));
+        when(outboxEventRepository.findBatchForRelay(Limit.of(2))).thenReturn(batch);
+        when(orderProducer.sendOrderEvent(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertEquals(2, outboxRelay.relayBatch());
+
+        InOrder inOrder = inOrder(outboxRelayLeaseRepository, orderProducer, outboxEventRepository);
+        inOrder.verify(outboxRelayLeaseRepository).tryAcquire(eq(OutboxRelayLease.ID), anyString(), anyLong());
+        inOrder.verify(orderProducer).sendOrderEvent("7", batch.get(0).getPayload());
+        inOrder.verify(orderProducer).sendOrderEvent("8", batch.get(1).getPayload());
+        inOrder.verify(orderProducer).flush();
+        inOrder.verify(outboxEventRepository).deleteAllInBatch(batch);
+    }
+
+    @Test
+    void relayBatch_KeepsEventsWhenBrokerRejectsTheBatch() {
+        List<OutboxEvent> batch = List.of(event(1L, "7"), event(2L, "8"));
+        when(outboxEventRepository.findBatchForRelay(Limit.of(2))).thenReturn(batch);
+        when(orderProducer.sendOrderEvent(any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Broker unavailable")));
+
+        assertThrows(IllegalStateException.class, () -> outboxRelay.relayBatch());
+
+        verify(outboxEventRepository, never()).deleteAllInBatch(anyList());
+    }
+
+    @Test
+    void relayBatch_LeavesTheOutboxAloneWhileAnotherNodeHoldsTheLease() {
+        when(outboxRelayLeaseRepository.tryAcquire(eq(OutboxRelayLease.ID), anyString(), anyLong())).thenReturn(0);
+        when(outboxRelayLeaseRepository.existsById(OutboxRelayLease.ID)).thenReturn(true);
+
+        assertEquals(0, outboxRelay.relayBatch());
+
+        verifyNoInteractions(outboxEventRepository, orderProducer);
+    }
+
+    @Test
+    void relayBatch_CreatesTheLeaseRowOnFirstUse() {
+        when(outboxRelayLeaseRepository.tryAcquire(eq(OutboxRelayLease.ID), anyString(), anyLong())).thenReturn(0, 1);
+        when(outboxRelayLeaseRepository.existsById(OutboxRelayLease.ID)).thenReturn(false);
+        when(outboxEventRepository.findBatchForRelay(Limit.of(2))).thenReturn(List.of());
+
+        assertEquals(0, outboxRelay.relayBatch());
+
+        verify(outboxRelayLeaseRepository).save(any(OutboxRelayLease.class));
+        verify(outboxEventRepository).findBatchForRelay(Limit.of(2));
+    }
+
+    @Test
+    void drain_KeepsRelayingWhileBatchesAreFull() {
+        List<OutboxEvent> pending = new ArrayList<>(List.of(event(1L, "7"), event(2L, "7"), event(3L, "8")));
+        when(outboxEventRepository.findBatchForRelay(Limit.of(2))).thenAnswer(invocation ->
+                new ArrayList<>(pending.subList(0, Math.min(2, pending.size()))));
+        doAnswer(invocation -> pending.removeAll(invocation.getArgument(0)))
+                .when(outboxEventRepository).deleteAllInBatch(anyList());
+        when(orderProducer.sendOrderEvent(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        outboxRelay.drain();
+
+        assertTrue(pending.isEmpty());
+        verify(outboxEventRepository, times(2)).deleteAllInBatch(anyList());
+    }
+
+    @Test
+    void drain_SwallowsFailuresSoTheNextRunRetries() {
+        when(outboxEventRepository.findBatchForRelay(Limit.of(2))).thenThrow(new RuntimeException("Database down"));
+
+        assertDoesNotThrow(() -> outboxRelay.drain());
+    }
+
+    private static OutboxEvent event(Long id, String key) {
+        OutboxEvent event = new OutboxEvent("ORDER_CREATED", key, ("{\"orderId\":" + id + "}").getBytes(StandardCharsets.UTF_8));
+        event.setId(id);
+        return event;
+    }
+}
@@ -0,0 +1,108 @@
+package com.ecommerce.kafka;
+
+import com.ecommerce.cache.ProductCache;
+import com.ecommerce.config.KafkaConfig;
+import com.ecommerce.model.Product;
+import com.ecommerce.search.ProductSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Publishes product changes through an embedded broker and checks the local cache and search index converge
+@SpringBootTest(
+        classes = {KafkaConfig.class, ProductProducer.class, ProductEventConsumer.class, ProductCache.class, ProductSearchIndex.class},
+        properties = "product.cache.invalidation.enabled=true")
+@EmbeddedKafka(topics = "products", partitions = 2, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+class ProductEventConsumerTest {
+
+    @Autowired
+    private ProductProducer productProducer;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private KafkaTemplate<String, ProductChangedEvent> kafkaTemplate;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry registry;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        productCache.evictAll();
+        ContainerTestUtils.waitForAssignment(registry.getListenerContainer("productCacheInvalidation"),
+                embeddedKafka.getPartitionsPerTopic());
+    }
+
+    @Test
+    void updateEvent_EvictsCachedProduct() throws InterruptedException {
+        Product product = productCache.get(1L, this::load);
+        product.setName("Renamed Product");
+
+        productProducer.sendProductUpdated(product);
+
+        assertTrue(awaitTrue(() -> productCache.size() == 0, Duration.ofSeconds(10)));
+        productCache.get(1L, this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void deleteEvent_EvictsCachedProduct() throws InterruptedException {
+        Product product = productCache.get(2L, this::load);
+
+        productProducer.sendProductDeleted(product);
+
+        assertTrue(awaitTrue(() -> productCache.size() == 0, Duration.ofSeconds(10)));
+    }
+
+    @Test
+    void eventFromAnotherNode_UpdatesSearchIndex() throws InterruptedException {
+        Product product = new Product("Standing Desk", 300.0, "Height adjustable");
+        product.setId(3L);
+
+        // Sent straight to the topic, as another node would, so only the listener can index it
+        kafkaTemplate.send("products", "3", ProductChangedEvent.of(ProductChangedEvent.ChangeType.CREATED, product));
+
+        assertTrue(awaitTrue(() -> productSearchIndex.search("standing", null, null, false, null).size() == 1,
+                Duration.ofSeconds(10)));
+    }
+
+    private Optional<Product> load(Long id) {
+        loads.incrementAndGet();
+        Product product = new Product("Product " + id, 10.0, "Description " + id);
+        product.setId(id);
+        return Optional.of(product);
+    }
+
+    private static boolean awaitTrue(BooleanSupplier condition, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            Thread.sleep(20);
+        }
+        return condition.getAsBoolean();
+    }
+}
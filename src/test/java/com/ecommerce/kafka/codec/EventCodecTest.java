@@ -0,0 +1,121 @@
+package com.ecommerce.kafka.codec;
+
+import com.ecommerce.kafka.OrderCreatedEvent;
+import com.ecommerce.kafka.ProductChangedEvent;
+import com.ecommerce.model.Product;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventCodecTest {
+
+    private final OrderCreatedEventCodec orderCodec = new OrderCreatedEventCodec();
+    private final ProductChangedEventCodec productCodec = new ProductChangedEventCodec();
+
+    @Test
+    void orderCreatedEvent_RoundTrips() {
+        OrderCreatedEvent event = sampleOrder();
+
+        OrderCreatedEvent decoded = orderCodec.decode(orderCodec.encode(event));
+
+        assertEquals(event.getOrderId(), decoded.getOrderId());
+        assertEquals(event.getCustomerId(), decoded.getCustomerId());
+        assertEquals(event.getStatus(), decoded.getStatus());
+        assertEquals(event.getTotalAmount(), decoded.getTotalAmount());
+        assertEquals(event.getCreatedAt(), decoded.getCreatedAt());
+        assertEquals(2, decoded.getItems().size());
+        assertEquals(7L, decoded.getItems().get(1).getProductId());
+        assertEquals("Café Mug ☕", decoded.getItems().get(1).getProductName());
+        assertEquals(3, decoded.getItems().get(1).getQuantity());
+        assertEquals(4.5, decoded.getItems().get(1).getPrice());
+    }
+
+    @Test
+    void orderCreatedEvent_KeepsNulls() {
+        OrderCreatedEvent event = new OrderCreatedEvent();
+
+        OrderCreatedEvent decoded = orderCodec.decode(orderCodec.encode(event));
+
+        assertNull(decoded.getOrderId());
+        assertNull(decoded.getStatus());
+        assertNull(decoded.getCreatedAt());
+        assertTrue(decoded.getItems().isEmpty());
+    }
+
+    @Test
+    void productChangedEvent_RoundTrips() {
+        ProductChangedEvent event = new ProductChangedEvent(ProductChangedEvent.ChangeType.UPDATED, 12L, 1_735_734_615_123L);
+        event.setName("Wireless Mouse");
+        event.setPrice(24.99);
+        event.setDescription(null);
+
+        ProductChangedEvent decoded = productCodec.decode(productCodec.encode(event));
+
+        assertEquals(ProductChangedEvent.ChangeType.UPDATED, decoded.getType());
+        assertEquals(12L, decoded.getProductId());
+        assertEquals(1_735_734_615_123L, decoded.getVersion());
+        assertEquals("Wireless Mouse", decoded.getName());
+        assertEquals(24.99, decoded.getPrice());
+        assertNull(decoded.getDescription());
+    }
+
+    @Test
+    void decode_IgnoresFieldsAppendedByNewerSchemaVersion() {
+        Product product = new Product("Desk Lamp", 15.0, null);
+        product.setId(5L);
+        byte[] current = productCodec.encode(ProductChangedEvent.deleted(product));
+        // A newer producer bumps the version and appends a field
+        byte[] newer = Arrays.copyOf(current, current.length + 3);
+        newer[1] = (byte) (ProductChangedEventCodec.SCHEMA_VERSION + 1);
+        newer[current.length] = 2;
+
+        ProductChangedEvent decoded = productCodec.decode(newer);
+
+        assertEquals(ProductChangedEvent.ChangeType.DELETED, decoded.getType());
+        assertEquals(5L, decoded.getProductId());
+    }
+
+    @Test
+    void decode_RejectsOtherEventTypesAndTruncatedMessages() {
+        byte[] order = orderCodec.encode(sampleOrder());
+
+        assertThrows(IllegalArgumentException.class, () -> productCodec.decode(order));
+        assertThrows(IllegalArgumentException.class, () -> orderCodec.decode(Arrays.copyOf(order, order.length - 4)));
+    }
+
+    @Test
+    void deserializer_WrapsDecodeFailuresInSerializationException() {
+        BinaryEventDeserializer<ProductChangedEvent> deserializer = new BinaryEventDeserializer<>(productCodec);
+
+        assertThrows(SerializationException.class, () -> deserializer.deserialize("products", "{\"productId\":1}".getBytes()));
+        assertNull(deserializer.deserialize("products", null));
+    }
+
+    @Test
+    void binaryEncoding_IsSmallerThanJson() {
+        OrderCreatedEvent event = sampleOrder();
+
+        try (JsonSerializer<OrderCreatedEvent> json = new JsonSerializer<>()) {
+            assertTrue(orderCodec.encode(event).length * 2 < json.serialize("orders", event).length);
+        }
+    }
+
+    private static OrderCreatedEvent sampleOrder() {
+        OrderCreatedEvent event = new OrderCreatedEvent();
+        event.setOrderId(1001L);
+        event.setCustomerId(42L);
+        event.setStatus("CREATED");
+        event.setTotalAmount(33.5);
+        event.setCreatedAt(LocalDateTime.of(2025, 1, 1, 12, 30, 15, 123_456_789));
+        event.setItems(List.of(
+                new OrderCreatedEvent.Item(3L, "Notebook", 2, 10.0),
+                new OrderCreatedEvent.Item(7L, "Café Mug ☕", 3, 4.5)));
+        return event;
+    }
+}
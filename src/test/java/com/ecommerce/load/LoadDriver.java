@@ -0,0 +1,199 @@
+package com.ecommerce.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Closed-loop HTTP load generator: each simulated client sends its next request as soon as the previous one
+// is answered. Requests made during the warm-up are sent but not recorded. Latencies are recorded per endpoint
+// in HdrHistograms (3 significant digits), which take the same memory however long the run.
+final class LoadDriver {
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private final int clients;
+    private final Duration warmup;
+    private final Duration duration;
+
+    LoadDriver(int clients, Duration warmup, Duration duration) {
+        this.clients = clients;
+        this.warmup = warmup;
+        this.duration = duration;
+    }
+
+    Result run(String name, Scenario scenario) throws InterruptedException, ExecutionException {
+        List<Result> results = runMixed(client -> new Call(name, scenario.next(client)));
+        return results.get(results.size() - 1).renamed(name);
+    }
+
+    // Results per endpoint, by name, followed by the total over all of them
+    List<Result> runMixed(MixedScenario scenario) throws InterruptedException, ExecutionException {
+        long recordFrom = System.nanoTime() + warmup.toNanos();
+        long stopAt = recordFrom + duration.toNanos();
+
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<ClientLog>> futures = new ArrayList<>(clients);
+            for (int c = 0; c < clients; c++) {
+                int client = c;
+                futures.add(executor.submit(() -> runClient(client, scenario, recordFrom, stopAt)));
+            }
+
+            ClientLog total = new ClientLog();
+            for (Future<ClientLog> future : futures) {
+                total.addAll(future.get());
+            }
+
+            List<Result> results = new ArrayList<>();
+            EndpointLog all = new EndpointLog();
+            total.endpoints.forEach((endpoint, log) -> {
+                results.add(new Result(endpoint, log, duration));
+                all.addAll(log);
+            });
+            results.add(new Result("all", all, duration));
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ClientLog runClient(int client, MixedScenario scenario, long recordFrom, long stopAt) throws Exception {
+        ClientLog log = new ClientLog();
+        while (System.nanoTime() < stopAt) {
+            Call call = scenario.next(client); // Preparation is not part of the measured latency
+            long start = System.nanoTime();
+            int status;
+            try {
+                status = http.send(call.request(), HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException ex) {
+                status = -1;
+            }
+            long latency = System.nanoTime() - start;
+            if (start >= recordFrom) {
+                log.record(call.endpoint(), status, latency);
+            }
+        }
+        return log;
+    }
+
+    // Builds a client's next request, doing any untimed set-up it needs first
+    @FunctionalInterface
+    interface Scenario {
+        HttpRequest next(int client) throws Exception;
+    }
+
+    // Like Scenario, for traffic spread over several endpoints, each reported on its own
+    @FunctionalInterface
+    interface MixedScenario {
+        Call next(int client) throws Exception;
+    }
+
+    // A request and the endpoint its latency is reported under, e.g. "GET /products/{id}"
+    record Call(String endpoint, HttpRequest request) {
+    }
+
+    // Latencies of one client (or, once merged, of all clients), per endpoint
+    private static final class ClientLog {
+        private final Map<String, EndpointLog> endpoints = new TreeMap<>();
+
+        private void record(String endpoint, int status, long latencyNanos) {
+            EndpointLog log = endpoints.computeIfAbsent(endpoint, e -> new EndpointLog());
+            if (status >= 200 && status < 300) {
+                log.latencies.recordValue(latencyNanos);
+            } else {
+                log.errors++;
+            }
+        }
+
+        private void addAll(ClientLog other) {
+            other.endpoints.forEach((endpoint, log) -> endpoints.computeIfAbsent(endpoint, e -> new EndpointLog()).addAll(log));
+        }
+    }
+
+    // Successful-request latencies and the error count of one endpoint
+    private static final class EndpointLog {
+        private final Histogram latencies = new Histogram(3);
+        private long errors;
+
+        private void addAll(EndpointLog other) {
+            latencies.add(other.latencies);
+            errors += other.errors;
+        }
+    }
+
+    static final class Result {
+
+        private final String name;
+        private final Histogram latencies;
+        private final long errors;
+        private final double seconds;
+
+        private Result(String name, EndpointLog log, Duration duration) {
+            this(name, log.latencies, log.errors, duration.toNanos() / 1_000_000_000.0);
+        }
+
+        private Result(String name, Histogram latencies, long errors, double seconds) {
+            this.name = name;
+            this.latencies = latencies;
+            this.errors = errors;
+            this.seconds = seconds;
+        }
+
+        private Result renamed(String newName) {
+            return new Result(newName, latencies, errors, seconds);
+        }
+
+        String name() {
+            return name;
+        }
+
+        long requests() {
+            return latencies.getTotalCount();
+        }
+
+        long errors() {
+            return errors;
+        }
+
+        double throughput() {
+            return requests() / seconds;
+        }
+
+        // Latency in milliseconds below which the given fraction of requests completed
+        double percentileMillis(double fraction) {
+            if (requests() == 0) {
+                return 0;
+            }
+            long nanos = fraction >= 1.0 ? latencies.getMaxValue() : latencies.getValueAtPercentile(fraction * 100);
+            return nanos / 1_000_000.0;
+        }
+
+        // The full latency distribution in milliseconds, in the .hgrm format that HdrHistogram's plotter reads
+        void writePercentiles(PrintStream out) {
+            latencies.outputPercentileDistribution(out, 1_000_000.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-24s %,9.0f req/s  p50 %7.2f ms  p99 %8.2f ms  p999 %8.2f ms  max %8.2f ms  (%,d ok, %,d errors)",
+                    name, throughput(), percentileMillis(0.50), percentileMillis(0.99), percentileMillis(0.999),
+                    percentileMillis(1.0), requests(), errors);
+        }
+    }
+}
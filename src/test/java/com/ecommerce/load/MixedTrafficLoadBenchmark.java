@@ -0,0 +1,258 @@
+package com.ecommerce.load;
+
+import com.ecommerce.EcommerceApplication;
+import com.ecommerce.model.Customer;
+import com.ecommerce.model.Product;
+import com.ecommerce.repository.CustomerRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.service.CartService;
+import com.ecommerce.service.OrderService;
+import com.ecommerce.service.ProductImportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Mixed shopper traffic against the whole application: H2, an embedded Kafka broker and the outbox relay
+// publishing every created order. Seeds the catalog through the CSV import and the customers with one past
+// order each, then each client shops as one customer at a time: browsing and searching the catalog, viewing
+// products (most views go to a fifth of the catalog), adding to its cart, checking out and looking up its
+// orders. After a checkout the client moves on to its next customer, so clients never share a cart.
+// Prints throughput and p50/p99/p999 latency per endpoint and writes each endpoint's full latency
+// distribution to target/load/<endpoint>.hgrm. Clients draw their actions from Randoms seeded with
+// load.seed, so every run sends the same requests in the same order; only how far each client gets varies.
+// Not part of the regular build (Surefire only picks up *Test classes). Run with:
+//   mvn test -Dtest=MixedTrafficLoadBenchmark -Dload.clients=50 -Dload.customers=1000 -Dload.products=10000
+// Other settings: load.warmup-seconds, load.seconds, load.seed and load.mix, the relative weight of each
+// action (default browse=30,search=10,product=25,cart=20,checkout=5,order=10). As in ThreadModelLoadBenchmark,
+// pass -Dspring.datasource.url (and username / password) to run against MySQL.
+@EmbeddedKafka(topics = {"orders", "products"}, partitions = 3)
+class MixedTrafficLoadBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 50);
+    private static final int CUSTOMERS = Math.max(CLIENTS, Integer.getInteger("load.customers", 1_000));
+    private static final int PRODUCTS = Integer.getInteger("load.products", 10_000);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmup-seconds", 10));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.seconds", 60));
+    private static final long SEED = Long.getLong("load.seed", 42);
+    private static final String MIX = System.getProperty("load.mix", "browse=30,search=10,product=25,cart=20,checkout=5,order=10");
+
+    private static final String[] ADJECTIVES = {"Wireless", "Ergonomic", "Compact", "Premium", "Portable", "Smart", "Classic", "Rugged"};
+    private static final String[] NOUNS = {"Mouse", "Keyboard", "Headphones", "Monitor", "Charger", "Speaker", "Camera", "Lamp", "Backpack", "Watch"};
+    private static final String[] SORTS = {"price", "-price", "name", "-name"};
+
+    private String baseUrl;
+    private List<Long> productIds;
+    private List<Long> customerIds;
+    private List<Long> orderIds; // The past order of each customer, by customer index
+
+    @Test
+    void mixedTraffic(EmbeddedKafkaBroker broker) throws Exception {
+        try (ConfigurableApplicationContext app = start(broker)) {
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) app).getWebServer().getPort();
+            seed(app);
+
+            Map<String, Integer> weights = parseMix(MIX);
+            ShopperState[] shoppers = new ShopperState[CLIENTS];
+            for (int client = 0; client < CLIENTS; client++) {
+                shoppers[client] = new ShopperState(client, new Random(SEED + client));
+            }
+
+            System.out.printf("%nMixed traffic: %d clients, %,d customers, %,d products, mix %s, %ds after %ds warm-up%n",
+                    CLIENTS, CUSTOMERS, PRODUCTS, MIX, DURATION.toSeconds(), WARMUP.toSeconds());
+            List<LoadDriver.Result> results = new LoadDriver(CLIENTS, WARMUP, DURATION)
+                    .runMixed(client -> next(shoppers[client], weights));
+
+            Path reportDir = Path.of("target", "load");
+            Files.createDirectories(reportDir);
+            long errors = 0;
+            for (LoadDriver.Result result : results) {
+                System.out.println(result);
+                writePercentiles(result, reportDir);
+                if (!result.name().equals("all")) {
+                    errors += result.errors();
+                }
+            }
+            assertEquals(0, errors, "Requests failed");
+        }
+    }
+
+    // Picks the shopper's next action and builds its request
+    private LoadDriver.Call next(ShopperState shopper, Map<String, Integer> weights) {
+        String action = pick(shopper.random, weights);
+        if (action.equals("checkout") && shopper.cartLines == 0) {
+            action = "cart"; // Nothing to order yet
+        }
+        Random random = shopper.random;
+        return switch (action) {
+            case "browse" -> get("GET /products/browse", "/products/browse?sort=" + SORTS[random.nextInt(SORTS.length)]
+                    + "&size=20");
+            case "search" -> get("GET /products/search", "/products/search?q=" + searchTerm(random));
+            case "product" -> get("GET /products/{id}", "/products/" + popularProduct(random));
+            case "cart" -> {
+                shopper.cartLines++;
+                yield post("POST /cart/add", "/cart/add?customerId=" + customerIds.get(shopper.customer)
+                        + "&productId=" + popularProduct(random) + "&quantity=" + (1 + random.nextInt(3)));
+            }
+            case "checkout" -> {
+                LoadDriver.Call call = post("POST /orders", "/orders?customerId=" + customerIds.get(shopper.customer));
+                shopper.nextCustomer();
+                yield call;
+            }
+            case "order" -> get("GET /orders/{id}", "/orders/" + orderIds.get(shopper.customer));
+            default -> throw new IllegalArgumentException("Unknown action in load.mix: " + action);
+        };
+    }
+
+    private void seed(ConfigurableApplicationContext app) throws IOException {
+        long started = System.nanoTime();
+
+        StringBuilder csv = new StringBuilder("name,price,description\n");
+        Random random = new Random(SEED);
+        for (int i = 0; i < PRODUCTS; i++) {
+            String adjective = ADJECTIVES[random.nextInt(ADJECTIVES.length)];
+            String noun = NOUNS[random.nextInt(NOUNS.length)];
+            csv.append(adjective).append(' ').append(noun).append(' ').append(i).append(',')
+                    .append(String.format(Locale.ROOT, "%.2f", 5 + random.nextDouble() * 495)).append(',')
+                    .append(adjective).append(' ').append(noun.toLowerCase(Locale.ROOT)).append(" model ").append(i).append('\n');
+        }
+        app.getBean(ProductImportService.class).importProducts(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), ProductImportService.FORMAT_CSV);
+        productIds = app.getBean(ProductRepository.class).findAll().stream().map(Product::getId).sorted().toList();
+        assertEquals(PRODUCTS, productIds.size(), "Products not seeded");
+
+        List<Customer> customers = new ArrayList<>(CUSTOMERS);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            customers.add(new Customer("Load Customer " + i, "load" + i + "@example.com", "secret", "1234567890", "1 Main St"));
+        }
+        customerIds = app.getBean(CustomerRepository.class).saveAll(customers).stream().map(Customer::getId).toList();
+
+        CartService cartService = app.getBean(CartService.class);
+        OrderService orderService = app.getBean(OrderService.class);
+        orderIds = new ArrayList<>(CUSTOMERS);
+        for (Long customerId : customerIds) {
+            cartService.addToCart(customerId, popularProduct(random), 1);
+            orderIds.add(orderService.createOrder(customerId).getId());
+        }
+
+        System.out.printf("Seeded %,d products, %,d customers and their orders in %,d ms%n",
+                PRODUCTS, CUSTOMERS, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // Four in five picks come from the first fifth of the catalog
+    private Long popularProduct(Random random) {
+        int hot = Math.max(1, productIds.size() / 5);
+        int index = random.nextInt(5) < 4 ? random.nextInt(hot) : random.nextInt(productIds.size());
+        return productIds.get(index);
+    }
+
+    // A product word, sometimes only its first letters as typed into a search box
+    private static String searchTerm(Random random) {
+        String word = (random.nextBoolean() ? NOUNS[random.nextInt(NOUNS.length)] : ADJECTIVES[random.nextInt(ADJECTIVES.length)])
+                .toLowerCase(Locale.ROOT);
+        return random.nextInt(4) == 0 ? word.substring(0, Math.min(word.length(), 3)) : word;
+    }
+
+    private LoadDriver.Call get(String endpoint, String path) {
+        return new LoadDriver.Call(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build());
+    }
+
+    private LoadDriver.Call post(String endpoint, String path) {
+        return new LoadDriver.Call(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .POST(HttpRequest.BodyPublishers.noBody()).build());
+    }
+
+    private static String pick(Random random, Map<String, Integer> weights) {
+        int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+        int roll = random.nextInt(total);
+        for (Map.Entry<String, Integer> weight : weights.entrySet()) {
+            roll -= weight.getValue();
+            if (roll < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("Weights changed while picking");
+    }
+
+    // "browse=30,cart=20" -> {browse=30, cart=20}; actions left out are never sent
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("load.mix entries must look like action=weight: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(parts[0].trim(), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("load.mix has no action with a positive weight: " + mix);
+        }
+        return weights;
+    }
+
+    private static void writePercentiles(LoadDriver.Result result, Path reportDir) throws IOException {
+        String fileName = result.name().replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "") + ".hgrm";
+        try (PrintStream out = new PrintStream(Files.newOutputStream(reportDir.resolve(fileName)), false, StandardCharsets.UTF_8)) {
+            result.writePercentiles(out);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(EmbeddedKafkaBroker broker) {
+        // Arguments, not default properties, so they win over the test application.yaml
+        return new SpringApplicationBuilder(EcommerceApplication.class)
+                .logStartupInfo(false)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=" + System.getProperty("spring.datasource.url",
+                                "jdbc:h2:mem:load-mixed;DB_CLOSE_DELAY=-1;MODE=MySQL"),
+                        "--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+                        "--outbox.relay.enabled=true",
+                        "--logging.level.root=WARN");
+    }
+
+    // The customer a client is shopping as, and how many products it has added to that customer's cart. Client c
+    // shops as customers c, c + clients, c + 2 * clients, ... in turn, moving on after every checkout.
+    private static final class ShopperState {
+        private final int client;
+        private final Random random;
+        private int customer;
+        private int cartLines;
+
+        private ShopperState(int client, Random random) {
+            this.client = client;
+            this.random = random;
+            this.customer = client;
+        }
+
+        private void nextCustomer() {
+            customer += CLIENTS;
+            if (customer >= CUSTOMERS) {
+                customer = client;
+            }
+            cartLines = 0;
+        }
+    }
+}
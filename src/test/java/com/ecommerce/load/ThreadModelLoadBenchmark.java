@@ -0,0 +1,95 @@
+package com.ecommerce.load;
+
+import com.ecommerce.EcommerceApplication;
+import com.ecommerce.model.Customer;
+import com.ecommerce.model.Product;
+import com.ecommerce.repository.CustomerRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.service.CartService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Compares throughput and latency of GET /products/{id} and POST /orders with requests on the Tomcat
+// platform-thread pool and on virtual threads. Not part of the regular build (Surefire only picks up *Test
+// classes). The virtual-thread run needs Java 21:
+//   mvn -Pjava21 test -Dtest=ThreadModelLoadBenchmark -Dload.clients=400 -Dload.seconds=30
+// The default database is in-memory H2, which never blocks for long; pass -Dspring.datasource.url (and
+// username / password) to measure against MySQL, where the difference between the two modes shows.
+@EmbeddedKafka(topics = {"orders", "products"}, partitions = 3)
+class ThreadModelLoadBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 400);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmup-seconds", 5));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.seconds", 20));
+    private static final int PRODUCTS = 100;
+
+    @Test
+    void compareThreadModels(EmbeddedKafkaBroker broker) throws Exception {
+        for (String mode : new String[]{"platform-threads", "virtual-threads"}) {
+            if (mode.equals("virtual-threads") && Runtime.version().feature() < 21) {
+                System.out.println("virtual-threads: skipped, needs Java 21 (running on " + Runtime.version() + ")");
+                continue;
+            }
+            try (ConfigurableApplicationContext app = start(broker, mode)) {
+                run(app, mode);
+            }
+        }
+    }
+
+    private void run(ConfigurableApplicationContext app, String mode) throws Exception {
+        String baseUrl = "http://localhost:" + ((WebServerApplicationContext) app).getWebServer().getPort();
+        List<Long> productIds = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            productIds.add(app.getBean(ProductRepository.class)
+                    .save(new Product("Load Product " + i, 10.0 + i, "Description " + i)).getId());
+        }
+        List<Long> customerIds = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            customerIds.add(app.getBean(CustomerRepository.class).save(new Customer("Load Customer " + i,
+                    "load" + i + "@example.com", "secret", "1234567890", "1 Main St")).getId());
+        }
+        CartService cartService = app.getBean(CartService.class);
+        LoadDriver driver = new LoadDriver(CLIENTS, WARMUP, DURATION);
+
+        LoadDriver.Result reads = driver.run(mode + " GET /products/{id}", client -> HttpRequest.newBuilder(
+                URI.create(baseUrl + "/products/" + productIds.get((int) (Math.random() * PRODUCTS)))).GET().build());
+
+        // Each client orders from its own cart, refilled (outside the measurement) before every order
+        LoadDriver.Result orders = driver.run(mode + " POST /orders", client -> {
+            cartService.addToCart(customerIds.get(client), productIds.get(client % PRODUCTS), 1);
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/orders?customerId=" + customerIds.get(client)))
+                    .POST(HttpRequest.BodyPublishers.noBody()).build();
+        });
+
+        System.out.println(reads);
+        System.out.println(orders);
+        assertEquals(0, reads.errors() + orders.errors(), "Requests failed in " + mode + " mode");
+    }
+
+    private static ConfigurableApplicationContext start(EmbeddedKafkaBroker broker, String mode) {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(EcommerceApplication.class)
+                .logStartupInfo(false);
+        if (mode.equals("virtual-threads")) {
+            builder.profiles(mode);
+        }
+        // Arguments, not default properties, so they win over the test application.yaml
+        return builder.run(
+                "--server.port=0",
+                "--spring.datasource.url=" + System.getProperty("spring.datasource.url",
+                        "jdbc:h2:mem:load-" + mode + ";DB_CLOSE_DELAY=-1;MODE=MySQL"),
+                "--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+                "--outbox.relay.enabled=true"); // Include the Kafka publishing of created orders
+    }
+}
@@ -0,0 +1,43 @@
+package com.ecommerce.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The Prometheus scrape carries the meters the operations dashboards are built on. The management settings
+// repeat the main application.yaml, which the test one replaces.
+@SpringBootTest(properties = {
+        "management.endpoints.web.exposure.include=prometheus",
+        "management.metrics.distribution.percentiles-histogram.http.server.requests=true",
+        "management.metrics.distribution.percentiles-histogram.service.method=true"})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void prometheusEndpoint_ExposesRequestServiceDatabaseAndCacheMeters() throws Exception {
+        mockMvc.perform(get("/products")).andExpect(status().isNoContent());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertAll(
+                () -> assertTrue(scrape.contains("http_server_requests_seconds_bucket{"), "endpoint latency histogram"),
+                () -> assertTrue(scrape.contains("http_server_requests_db_statements_count{method=\"GET\",uri=\"/products\"}"), "statements per request"),
+                () -> assertTrue(scrape.contains("service_method_seconds_bucket{class=\"com.ecommerce.service.ProductService\""), "service method histogram"),
+                () -> assertTrue(scrape.contains("spring_data_repository_invocations_seconds_count{"), "repository timers"),
+                () -> assertTrue(scrape.contains("hikaricp_connections_pending{"), "connection pool saturation"),
+                () -> assertTrue(scrape.contains("cache_gets_total{cache=\"products\""), "product cache hits and misses"));
+    }
+}
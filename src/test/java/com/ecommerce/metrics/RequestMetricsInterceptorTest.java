@@ -0,0 +1,52 @@
+package com.ecommerce.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestMetricsInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestMetricsInterceptor interceptor = new RequestMetricsInterceptor(meterRegistry);
+    private final RequestStatementCounter inspector = new RequestStatementCounter();
+
+    @Test
+    void recordsStatementsPerRequestByUriTemplate() {
+        handle("/products/{id}", 1);
+        handle("/products/{id}", 3);
+        handle("/cart", 2);
+
+        DistributionSummary product = meterRegistry.get(RequestMetricsInterceptor.STATEMENTS)
+                .tag("uri", "/products/{id}").tag("method", "GET").summary();
+        assertEquals(2, product.count());
+        assertEquals(4, product.totalAmount());
+        assertEquals(3, product.max());
+        assertEquals(2, meterRegistry.get(RequestMetricsInterceptor.STATEMENTS).tag("uri", "/cart").summary().totalAmount());
+    }
+
+    @Test
+    void countsOnlyStatementsOfTheCurrentRequest() {
+        inspector.inspect("select 1"); // Before the request, e.g. a scheduled job on the same thread
+
+        handle("/cart", 0);
+
+        assertEquals(0, meterRegistry.get(RequestMetricsInterceptor.STATEMENTS).summary().totalAmount());
+    }
+
+    private void handle(String uriTemplate, int statements) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uriTemplate);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, uriTemplate);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, new Object());
+        for (int i = 0; i < statements; i++) {
+            inspector.inspect("select " + i);
+        }
+        interceptor.afterCompletion(request, response, new Object(), null);
+    }
+}
@@ -0,0 +1,88 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.dto.OrderSummary;
+import com.ecommerce.model.Customer;
+import com.ecommerce.model.Order;
+import com.ecommerce.model.OrderItem;
+import com.ecommerce.support.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class OrderRepositoryTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Customer alice;
+    private Customer bob;
+
+    @BeforeEach
+    void setUp() {
+        alice = customerRepository.save(new Customer("Alice", "alice@example.com", "secret", "111", "1 Main St"));
+        bob = customerRepository.save(new Customer("Bob", "bob@example.com", "secret", "222", "2 Main St"));
+
+        saveOrder(alice, "CREATED", LocalDateTime.of(2025, 1, 1, 10, 0));
+        saveOrder(alice, "PAID", LocalDateTime.of(2025, 1, 2, 10, 0));
+        saveOrder(bob, "CREATED", LocalDateTime.of(2025, 1, 3, 10, 0));
+        saveOrder(alice, "CREATED", LocalDateTime.of(2025, 1, 4, 10, 0));
+
+        entityManager.flush();
+        entityManager.clear();
+        SqlStatementCounter.reset();
+    }
+
+    @Test
+    void findSummaries_ReadsProjectionWithSingleStatement() {
+        List<OrderSummary> summaries = orderRepository.findSummaries(null, null, null, null, null, Limit.of(10));
+
+        assertEquals(4, summaries.size());
+        assertEquals(1, SqlStatementCounter.count());
+        assertEquals(0, SqlStatementCounter.count("select", "customer"));
+        assertEquals(0, SqlStatementCounter.count("select", "order_item"));
+    }
+
+    @Test
+    void findSummaries_AppliesFiltersNewestFirst() {
+        List<OrderSummary> summaries = orderRepository.findSummaries(alice.getId(), "CREATED",
+                LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2025, 1, 5, 0, 0), null, Limit.of(10));
+
+        assertEquals(2, summaries.size());
+        assertTrue(summaries.get(0).getId() > summaries.get(1).getId());
+        assertTrue(summaries.stream().allMatch(summary -> summary.getCustomerId().equals(alice.getId())));
+    }
+
+    @Test
+    void findSummaries_PagesWithKeysetCursor() {
+        List<OrderSummary> firstPage = orderRepository.findSummaries(null, null, null, null, null, Limit.of(3));
+        List<OrderSummary> secondPage = orderRepository.findSummaries(null, null, null, null,
+                firstPage.get(2).getId(), Limit.of(3));
+
+        assertEquals(3, firstPage.size());
+        assertEquals(1, secondPage.size());
+        assertEquals(LocalDateTime.of(2025, 1, 1, 10, 0), secondPage.get(0).getCreatedAt());
+    }
+
+    private void saveOrder(Customer customer, String status, LocalDateTime createdAt) {
+        Order order = new Order(customer, 100.0, status, new ArrayList<>(List.of(
+                new OrderItem(1L, "Product", "Description", 1, 100.0))));
+        order.setCreatedAt(createdAt);
+        orderRepository.save(order);
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.OutboxRelayLease;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class OutboxRelayLeaseRepositoryTest {
+
+    private static final long LEASE = 30;
+
+    @Autowired
+    private OutboxRelayLeaseRepository leaseRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        leaseRepository.save(new OutboxRelayLease(OutboxRelayLease.ID));
+        entityManager.flush();
+    }
+
+    @Test
+    void tryAcquire_OnlyOneOwnerHoldsTheLease() {
+        assertEquals(1, leaseRepository.tryAcquire(OutboxRelayLease.ID, "node-a", LEASE));
+        assertEquals(0, leaseRepository.tryAcquire(OutboxRelayLease.ID, "node-b", LEASE));
+        assertEquals(1, leaseRepository.tryAcquire(OutboxRelayLease.ID, "node-a", LEASE)); // Renewal
+
+        OutboxRelayLease lease = leaseRepository.findById(OutboxRelayLease.ID).orElseThrow();
+        assertEquals("node-a", lease.getOwner());
+        assertTrue(lease.getExpiresAt().isAfter(LocalDateTime.now().plusSeconds(20)));
+    }
+
+    @Test
+    void tryAcquire_TakesOverAnExpiredLease() {
+        assertEquals(1, leaseRepository.tryAcquire(OutboxRelayLease.ID, "node-a", -1));
+
+        assertEquals(1, leaseRepository.tryAcquire(OutboxRelayLease.ID, "node-b", LEASE));
+        assertEquals(0, leaseRepository.tryAcquire(OutboxRelayLease.ID, "node-a", LEASE));
+    }
+
+    @Test
+    void release_FreesTheLeaseForAnotherOwner() {
+        leaseRepository.tryAcquire(OutboxRelayLease.ID, "node-a", LEASE);
+
+        assertEquals(0, leaseRepository.release(OutboxRelayLease.ID, "node-b")); // Not the holder
+        assertEquals(1, leaseRepository.release(OutboxRelayLease.ID, "node-a"));
+        assertEquals(1, leaseRepository.tryAcquire(OutboxRelayLease.ID, "node-b", LEASE));
+    }
+}
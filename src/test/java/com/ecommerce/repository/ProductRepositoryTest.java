@@ -0,0 +1,87 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.Product;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class ProductRepositoryTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.save(new Product("Desk", 250.0, null));
+        productRepository.save(new Product("Lamp", 30.0, null));
+        productRepository.save(new Product("Chair", 30.0, null));
+        productRepository.save(new Product("Mug", 8.0, null));
+        productRepository.save(new Product("Shelf", 120.0, null));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findPagesByPriceAsc_WalkTiesByIdAcrossPages() {
+        List<String> names = new ArrayList<>();
+        List<Product> page = productRepository.findFirstPageByPriceAsc(10, 300, Limit.of(2));
+        while (!page.isEmpty()) {
+            page.forEach(product -> names.add(product.getName()));
+            Product last = page.get(page.size() - 1);
+            page = productRepository.findNextPageByPriceAsc(10, 300, last.getPrice(), last.getId(), Limit.of(2));
+        }
+
+        assertEquals(List.of("Lamp", "Chair", "Shelf", "Desk"), names); // Mug is below the range
+    }
+
+    @Test
+    void findNextPageByPriceDesc_StartsAfterCursor() {
+        Product shelf = productRepository.findFirstPageByPriceDesc(0, 200, Limit.of(1)).get(0);
+
+        List<Product> page = productRepository.findNextPageByPriceDesc(0, 200, shelf.getPrice(), shelf.getId(), Limit.of(10));
+
+        assertEquals("Shelf", shelf.getName());
+        assertEquals(List.of("Chair", "Lamp", "Mug"), page.stream().map(Product::getName).toList());
+    }
+
+    @Test
+    void findPagesByName_BothDirections() {
+        List<Product> first = productRepository.findFirstPageByNameAsc(0, Double.MAX_VALUE, Limit.of(2));
+        Product last = first.get(1);
+        List<Product> next = productRepository.findNextPageByNameAsc(0, Double.MAX_VALUE, last.getName(), last.getId(), Limit.of(2));
+        List<Product> descending = productRepository.findFirstPageByNameDesc(20, 200, Limit.of(10));
+
+        assertEquals(List.of("Chair", "Desk"), first.stream().map(Product::getName).toList());
+        assertEquals(List.of("Lamp", "Mug"), next.stream().map(Product::getName).toList());
+        assertEquals(List.of("Shelf", "Lamp", "Chair"), descending.stream().map(Product::getName).toList());
+    }
+
+    @Test
+    void findPagesByNameDesc_WalkTiesByIdAcrossPages() {
+        Long secondLamp = productRepository.save(new Product("Lamp", 45.0, null)).getId();
+        entityManager.flush();
+
+        List<Long> lampIds = new ArrayList<>();
+        List<Product> page = productRepository.findFirstPageByNameDesc(20, 50, Limit.of(1));
+        while (!page.isEmpty()) {
+            page.stream().filter(product -> product.getName().equals("Lamp")).forEach(product -> lampIds.add(product.getId()));
+            Product last = page.get(0);
+            page = productRepository.findNextPageByNameDesc(20, 50, last.getName(), last.getId(), Limit.of(1));
+        }
+
+        assertEquals(2, lampIds.size());
+        assertEquals(secondLamp, lampIds.get(0)); // Higher id first within the same name
+    }
+}
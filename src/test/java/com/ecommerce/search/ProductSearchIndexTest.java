@@ -0,0 +1,126 @@
+package com.ecommerce.search;
+
+import com.ecommerce.exception.ProductServiceException;
+import com.ecommerce.kafka.ProductChangedEvent;
+import com.ecommerce.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        index.addIfUnknown(product(1L, "Wireless Keyboard", 49.0, "Compact bluetooth keyboard"));
+        index.addIfUnknown(product(2L, "Wireless Mouse", 25.0, "Ergonomic mouse with silent clicks"));
+        index.addIfUnknown(product(3L, "Keyboard Cover", 9.0, "Silicone cover for wireless keyboards"));
+        index.addIfUnknown(product(4L, "Café Crème Mug", 12.0, null));
+    }
+
+    @Test
+    void search_RequiresEveryWordAndRanksNameMatchesFirst() {
+        assertEquals(List.of(1L, 2L), ids(index.search("wireless", null, null, false, null)).subList(0, 2));
+        assertEquals(List.of(1L, 3L), ids(index.search("wireless keyboard", null, null, false, null)));
+    }
+
+    @Test
+    void search_LastWordMatchesAsPrefix() {
+        assertEquals(List.of(1L, 3L), ids(index.search("keyb", null, null, false, null)));
+        assertEquals(List.of(), ids(index.search("keyb wireless", null, null, false, null)));
+    }
+
+    @Test
+    void search_ToleratesTyposInLongerWords() {
+        assertEquals(List.of(2L), ids(index.search("ergonmic", null, null, true, null)));
+        assertEquals(List.of(), ids(index.search("ergonmic", null, null, false, null)));
+        assertEquals(List.of(), ids(index.search("muse", null, null, true, null))); // Too short to guess
+    }
+
+    @Test
+    void search_IgnoresCaseAndAccents() {
+        assertEquals(List.of(4L), ids(index.search("CAFE creme", null, null, false, null)));
+    }
+
+    @Test
+    void search_FiltersByPriceAndLimits() {
+        assertEquals(List.of(2L), ids(index.search("wireless", 10.0, 30.0, false, null)));
+        assertEquals(1, index.search("wireless", null, null, false, 1).size());
+    }
+
+    @Test
+    void search_BlankQuery() {
+        assertThrows(ProductServiceException.class, () -> index.search(" - ", null, null, true, null));
+    }
+
+    @Test
+    void apply_UpdatesAndDeletesDocuments() {
+        Product renamed = product(2L, "Gaming Mouse", 25.0, "Ergonomic mouse");
+        index.apply(ProductChangedEvent.of(ProductChangedEvent.ChangeType.UPDATED, renamed));
+
+        assertEquals(List.of(2L), ids(index.search("gaming", null, null, false, null)));
+        assertEquals(List.of(), ids(index.search("silent", null, null, false, null))); // Old words are gone
+
+        index.apply(ProductChangedEvent.deleted(renamed));
+
+        assertEquals(List.of(), ids(index.search("gaming", null, null, false, null)));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void apply_SkipsEventsOlderThanTheIndexedChange() {
+        Product renamed = product(2L, "Gaming Mouse", 25.0, null);
+        renamed.setVersion(2);
+        Product stale = product(2L, "Office Mouse", 25.0, null);
+        stale.setVersion(1);
+
+        index.apply(ProductChangedEvent.of(ProductChangedEvent.ChangeType.UPDATED, renamed));
+        index.apply(ProductChangedEvent.of(ProductChangedEvent.ChangeType.UPDATED, stale)); // Arrives late
+
+        assertEquals(List.of(2L), ids(index.search("gaming", null, null, false, null)));
+        assertEquals(List.of(), ids(index.search("office", null, null, false, null)));
+    }
+
+    @Test
+    void apply_DeleteIsFinal() {
+        Product keyboard = product(1L, "Wireless Keyboard", 49.0, null);
+        keyboard.setVersion(3);
+        ProductChangedEvent delete = ProductChangedEvent.deleted(keyboard);
+        keyboard.setVersion(7); // An update from a node that read the row under a different last known version
+
+        index.apply(delete);
+        index.apply(ProductChangedEvent.of(ProductChangedEvent.ChangeType.UPDATED, keyboard));
+        index.addIfUnknown(product(1L, "Wireless Keyboard", 49.0, null)); // A startup load reading the old row
+
+        assertEquals(List.of(2L, 3L), ids(index.search("wireless", null, null, false, null)));
+    }
+
+    @Test
+    void search_ReturnsCopies() {
+        index.search("mug", null, null, false, null).get(0).setName("Changed");
+
+        assertEquals("Café Crème Mug", index.search("mug", null, null, false, null).get(0).getName());
+    }
+
+    @Test
+    void withinEditDistance() {
+        assertTrue(ProductSearchIndex.withinEditDistance("keyboard", "keybaord", 2));
+        assertFalse(ProductSearchIndex.withinEditDistance("keyboard", "keybaord", 1));
+        assertTrue(ProductSearchIndex.withinEditDistance("mouse", "mousse", 1));
+    }
+
+    private static List<Long> ids(List<Product> products) {
+        return products.stream().map(Product::getId).toList();
+    }
+
+    private static Product product(Long id, String name, double price, String description) {
+        Product product = new Product(name, price, description);
+        product.setId(id);
+        return product;
+    }
+}
@@ -0,0 +1,88 @@
+package com.ecommerce.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortedPriceIndexTest {
+
+    private final SortedPriceIndex index = new SortedPriceIndex();
+
+    @Test
+    void range_OrdersByPriceThenId() {
+        index.add(30.0, 2);
+        index.add(8.0, 4);
+        index.add(30.0, 1);
+        index.add(250.0, 3);
+
+        assertArrayEquals(new long[]{1, 2, 3}, range(10, 300, false, 10));
+        assertArrayEquals(new long[]{3, 2, 1, 4}, range(0, 1000, true, 10));
+        assertArrayEquals(new long[]{1}, range(10, 300, false, 1));
+        assertArrayEquals(new long[]{}, range(31, 249, false, 10));
+    }
+
+    @Test
+    void range_StartsAfterCursor() {
+        index.add(30.0, 2);
+        index.add(30.0, 1);
+        index.add(40.0, 5);
+
+        long[] ids = new long[10];
+        int found = index.range(0, 100, 30.0, 1, false, ids);
+        assertArrayEquals(new long[]{2, 5}, Arrays.copyOf(ids, found));
+
+        found = index.range(0, 100, 30.0, 2, true, ids);
+        assertArrayEquals(new long[]{1}, Arrays.copyOf(ids, found));
+    }
+
+    @Test
+    void remove_OnlyMatchingEntry() {
+        index.add(30.0, 1);
+
+        assertFalse(index.remove(31.0, 1));
+        assertFalse(index.remove(30.0, 2));
+        assertTrue(index.remove(30.0, 1));
+        assertEquals(0, index.size());
+        assertArrayEquals(new long[]{}, range(0, 100, true, 10));
+    }
+
+    // Enough entries for many block splits, checked against a plain sort
+    @Test
+    void matchesSortedArrayAcrossBlocks() {
+        Random random = new Random(7);
+        int count = SortedPriceIndex.BLOCK_SIZE * 20;
+        double[] prices = new double[count + 1];
+        for (int id = 1; id <= count; id++) {
+            prices[id] = random.nextInt(1000) / 4.0;
+            index.add(prices[id], id);
+        }
+        for (int id = 1; id <= count; id += 3) {
+            assertTrue(index.remove(prices[id], id));
+            prices[id] = -1;
+        }
+
+        Comparator<Long> byPriceThenId = Comparator.<Long>comparingDouble(id -> prices[id.intValue()]).thenComparing(id -> id);
+        long[] expected = LongStream.rangeClosed(1, count).boxed()
+                .filter(id -> prices[id.intValue()] >= 50 && prices[id.intValue()] <= 150)
+                .sorted(byPriceThenId)
+                .mapToLong(Long::longValue).toArray();
+        long[] reversed = LongStream.rangeClosed(1, expected.length).map(i -> expected[expected.length - (int) i]).toArray();
+
+        assertEquals(count - (count + 2) / 3, index.size());
+        assertArrayEquals(expected, range(50, 150, false, count));
+        assertArrayEquals(reversed, range(50, 150, true, count));
+    }
+
+    private long[] range(double minPrice, double maxPrice, boolean descending, int limit) {
+        long[] ids = new long[limit];
+        int found = index.range(minPrice, maxPrice,
+                descending ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY,
+                descending ? Long.MAX_VALUE : Long.MIN_VALUE, descending, ids);
+        return Arrays.copyOf(ids, found);
+    }
+}
@@ -0,0 +1,184 @@
+package com.ecommerce.service;
+
+import com.ecommerce.exception.OrderServiceException;
+import com.ecommerce.model.Cart;
+import com.ecommerce.model.CartItem;
+import com.ecommerce.model.Customer;
+import com.ecommerce.model.Order;
+import com.ecommerce.model.OrderItem;
+import com.ecommerce.model.Product;
+import com.ecommerce.repository.CustomerRepository;
+import com.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Fires parallel adds at one customer's cart (which does not exist yet), and adds alongside checkouts, and
+// checks no quantity is lost
+@SpringBootTest
+class CartConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int ADDS_PER_THREAD = 25;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Customer customer;
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        customer = customerRepository.save(
+                new Customer("Jane Doe", "jane@example.com", "secret", "1234567890", "1 Main St"));
+        products = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            products.add(productRepository.save(new Product("Product " + i, 10.0 + i, "Description " + i)));
+        }
+    }
+
+    @Test
+    void parallelAddsOfSameProduct_AddUpExactly() throws Exception {
+        Long productId = products.get(0).getId();
+
+        runInParallel(thread -> cartService.addToCart(customer.getId(), productId, 1));
+
+        Cart cart = cartService.getOrCreateCart(customer.getId());
+        assertEquals(1, cart.getItems().size());
+        assertEquals(THREADS * ADDS_PER_THREAD, cart.getItems().get(0).getQuantity());
+    }
+
+    @Test
+    void parallelAddsOfSeveralProducts_KeepOneLinePerProduct() throws Exception {
+        runInParallel(thread -> {
+            Product product = products.get(thread % products.size());
+            cartService.addToCart(customer.getId(), product.getId(), 2);
+        });
+
+        Map<Long, Integer> quantities = cartService.getOrCreateCart(customer.getId()).getItems().stream()
+                .collect(Collectors.toMap(CartItem::getProductId, CartItem::getQuantity));
+        assertEquals(products.size(), quantities.size());
+        int expectedTotal = THREADS * ADDS_PER_THREAD * 2;
+        assertEquals(expectedTotal, quantities.values().stream().mapToInt(Integer::intValue).sum());
+        for (int i = 0; i < products.size(); i++) {
+            int threadsForProduct = (THREADS - i + products.size() - 1) / products.size();
+            assertEquals(threadsForProduct * ADDS_PER_THREAD * 2, quantities.get(products.get(i).getId()).intValue());
+        }
+    }
+
+    @Test
+    void removeFromCart_DeletesOnlyThatLine() {
+        cartService.addToCart(customer.getId(), products.get(0).getId(), 1);
+        cartService.addToCart(customer.getId(), products.get(1).getId(), 1);
+
+        cartService.removeFromCart(customer.getId(), products.get(0).getId());
+
+        List<CartItem> items = cartService.getOrCreateCart(customer.getId()).getItems();
+        assertEquals(1, items.size());
+        assertEquals(products.get(1).getId(), items.get(0).getProductId());
+    }
+
+    // Each round a checkout races an add of another product. Whichever way they interleave, every added unit
+    // must end up either in an order or still in the cart.
+    @Test
+    void addDuringCheckout_IsOrderedOrKeptNeverLost() throws Exception {
+        int rounds = 50;
+        Long ordered = products.get(0).getId();
+        Long added = products.get(1).getId();
+        inventoryService.restock(ordered, rounds);
+        inventoryService.restock(added, rounds);
+
+        int orderedUnits = 0;
+        int addedUnitsOrdered = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < rounds; round++) {
+                cartService.addToCart(customer.getId(), ordered, 1);
+                CountDownLatch start = new CountDownLatch(1);
+                Future<Order> checkout = executor.submit(() -> {
+                    start.await();
+                    return orderService.createOrder(customer.getId());
+                });
+                Future<?> add = executor.submit(() -> {
+                    start.await();
+                    return cartService.addToCart(customer.getId(), added, 1);
+                });
+                start.countDown();
+                add.get(60, TimeUnit.SECONDS);
+                try {
+                    for (OrderItem item : checkout.get(60, TimeUnit.SECONDS).getItems()) {
+                        if (item.getProductId().equals(ordered)) {
+                            orderedUnits += item.getQuantity();
+                        } else {
+                            addedUnitsOrdered += item.getQuantity();
+                        }
+                    }
+                } catch (ExecutionException ex) {
+                    assertInstanceOf(OrderServiceException.class, ex.getCause()); // The cart changed after pricing
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Map<Long, Integer> left = cartService.getOrCreateCart(customer.getId()).getItems().stream()
+                .collect(Collectors.toMap(CartItem::getProductId, CartItem::getQuantity));
+        assertEquals(rounds, orderedUnits + left.getOrDefault(ordered, 0));
+        assertEquals(rounds, addedUnitsOrdered + left.getOrDefault(added, 0));
+    }
+
+    private void runInParallel(ThreadTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ADDS_PER_THREAD; i++) {
+                        task.run(thread);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS); // Rethrows any failed add
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask {
+        void run(int thread);
+    }
+}
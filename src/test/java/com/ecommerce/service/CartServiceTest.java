@@ -1,20 +1,22 @@
 package com.ecommerce.service;
 
+import com.ecommerce.cache.ProductCache;
+import com.ecommerce.cart.CartStore;
 import com.ecommerce.exception.CartServiceException;
 import com.ecommerce.model.Cart;
 import com.ecommerce.model.CartItem;
 import com.ecommerce.model.Customer;
 import com.ecommerce.model.Product;
-import com.ecommerce.repository.CartRepository;
-import com.ecommerce.repository.CustomerRepository;
 import com.ecommerce.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -26,21 +28,20 @@ import static org.mockito.Mockito.*;
 class CartServiceTest {
 
     @Mock
-    private CartRepository cartRepository;
-
-    @Mock
-    private CustomerRepository customerRepository;
+    private CartStore cartStore;
 
     @Mock
     private ProductRepository productRepository;
 
+    @Spy
+    private ProductCache productCache = new ProductCache(100, Duration.ofMinutes(10));
+
     @InjectMocks
     private CartService cartService;
 
     private Customer customer;
     private Product product;
     private Cart cart;
-    private CartItem cartItem;
 
     @BeforeEach
     void setUp() {
@@ -54,111 +55,81 @@ class CartServiceTest {
 
         cart = new Cart();
         cart.setCustomer(customer);
-        cart.setItems(new ArrayList<>());
-
-        cartItem = new CartItem(1L, 2);
-    }
-
-    @Test
-    void getOrCreateCart_ExistingCart() {
-        // Arrange
-        when(cartRepository.findByCustomerId(1L)).thenReturn(Optional.of(cart));
-
-        // Act
-        Cart result = cartService.getOrCreateCart(1L);
-
-        // Assert
-        assertNotNull(result);
-        assertEquals(customer, result.getCustomer());
-        verify(cartRepository, times(1)).findByCustomerId(1L);
-        verify(customerRepository, never()).findById(anyLong());
+        cart.setItems(new ArrayList<>(List.of(new CartItem(1L, 2))));
     }
 
     @Test
-    void getOrCreateCart_NewCart() {
+    void getOrCreateCart_ReturnsStoredCart() {
         // Arrange
-        when(cartRepository.findByCustomerId(1L)).thenReturn(Optional.empty());
-        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
-        when(cartRepository.save(any(Cart.class))).thenReturn(cart);
+        when(cartStore.getCart(1L)).thenReturn(cart);
 
         // Act
         Cart result = cartService.getOrCreateCart(1L);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(customer, result.getCustomer());
-        verify(cartRepository, times(1)).findByCustomerId(1L);
-        verify(customerRepository, times(1)).findById(1L);
-        verify(cartRepository, times(1)).save(any(Cart.class));
+        assertSame(cart, result);
     }
 
     @Test
-    void addToCart_NewItem() {
+    void addToCart_AddsItemToStore() {
         // Arrange
         when(productRepository.findById(1L)).thenReturn(Optional.of(product));
-        when(cartRepository.findByCustomerId(1L)).thenReturn(Optional.of(cart));
-        when(cartRepository.save(cart)).thenReturn(cart);
+        when(cartStore.addItem(1L, 1L, 2)).thenReturn(cart);
 
         // Act
         Cart result = cartService.addToCart(1L, 1L, 2);
 
         // Assert
-        assertNotNull(result);
         assertEquals(1, result.getItems().size());
         assertEquals(2, result.getItems().get(0).getQuantity());
         verify(productRepository, times(1)).findById(1L);
-        verify(cartRepository, times(1)).findByCustomerId(1L);
-        verify(cartRepository, times(1)).save(cart);
+        verify(cartStore, times(1)).addItem(1L, 1L, 2);
     }
 
     @Test
-    void addToCart_ExistingItem() {
+    void addToCart_ProductNotFound() {
         // Arrange
-        cart.getItems().add(cartItem);
-
-        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
-        when(cartRepository.findByCustomerId(1L)).thenReturn(Optional.of(cart));
-        when(cartRepository.save(cart)).thenReturn(cart);
-
-        // Act
-        Cart result = cartService.addToCart(1L, 1L, 3);
+        when(productRepository.findById(99L)).thenReturn(Optional.empty());
 
-        // Assert
-        assertNotNull(result);
-        assertEquals(1, result.getItems().size());
-        assertEquals(5, result.getItems().get(0).getQuantity());
-        verify(productRepository, times(1)).findById(1L);
-        verify(cartRepository, times(1)).findByCustomerId(1L);
-        verify(cartRepository, times(1)).save(cart);
+        // Act & Assert
+        assertThrows(CartServiceException.class, () -> cartService.addToCart(1L, 99L, 1));
+        verifyNoInteractions(cartStore);
     }
 
     @Test
     void addToCart_InvalidQuantity() {
         // Act & Assert
         assertThrows(CartServiceException.class, () -> cartService.addToCart(1L, 1L, 0));
+        verifyNoInteractions(cartStore);
     }
 
     @Test
-    void removeFromCart_Success() {
+    void addToCart_WrapsStoreFailures() {
         // Arrange
-        cart.getItems().add(cartItem);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(cartStore.addItem(1L, 1L, 2)).thenThrow(new IllegalStateException("Database down"));
+
+        // Act & Assert
+        CartServiceException ex = assertThrows(CartServiceException.class, () -> cartService.addToCart(1L, 1L, 2));
+        assertTrue(ex.getMessage().contains("Database down"));
+    }
 
-        when(cartRepository.findByCustomerId(1L)).thenReturn(Optional.of(cart));
-        when(cartRepository.save(cart)).thenReturn(cart);
+    @Test
+    void removeFromCart_Success() {
+        // Arrange
+        when(cartStore.removeItem(1L, 1L)).thenReturn(true);
 
         // Act
         cartService.removeFromCart(1L, 1L);
 
         // Assert
-        assertTrue(cart.getItems().isEmpty());
-        verify(cartRepository, times(1)).findByCustomerId(1L);
-        verify(cartRepository, times(1)).save(cart);
+        verify(cartStore, times(1)).removeItem(1L, 1L);
     }
 
     @Test
     void removeFromCart_ItemNotFound() {
         // Arrange
-        when(cartRepository.findByCustomerId(1L)).thenReturn(Optional.of(cart));
+        when(cartStore.removeItem(1L, 1L)).thenReturn(false);
 
         // Act & Assert
         assertThrows(CartServiceException.class, () -> cartService.removeFromCart(1L, 1L));
@@ -166,18 +137,10 @@ class CartServiceTest {
 
     @Test
     void clearCart_Success() {
-        // Arrange
-        cart.getItems().add(cartItem);
-
-        when(cartRepository.findByCustomerId(1L)).thenReturn(Optional.of(cart));
-
         // Act
         cartService.clearCart(1L);
 
         // Assert
-        assertTrue(cart.getItems().isEmpty());
-        verify(cartRepository, times(1)).findByCustomerId(1L);
-        verify(cartRepository, times(1)).save(cart);
-        verify(cartRepository, times(1)).delete(cart);
+        verify(cartStore, times(1)).clear(1L);
     }
-}
\ No newline at end of file
+}
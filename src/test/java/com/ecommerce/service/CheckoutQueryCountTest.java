@@ -0,0 +1,168 @@
+package com.ecommerce.service;
+
+import com.ecommerce.cache.ProductCache;
+import com.ecommerce.cart.JpaCartStore;
+import com.ecommerce.exception.CartServiceException;
+import com.ecommerce.kafka.OrderCreatedEvent;
+import com.ecommerce.kafka.codec.OrderCreatedEventCodec;
+import com.ecommerce.model.Cart;
+import com.ecommerce.model.CartItem;
+import com.ecommerce.model.Customer;
+import com.ecommerce.model.Order;
+import com.ecommerce.model.OutboxEvent;
+import com.ecommerce.model.Product;
+import com.ecommerce.repository.CartRepository;
+import com.ecommerce.repository.CustomerRepository;
+import com.ecommerce.repository.OutboxEventRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.search.ProductSearchIndex;
+import com.ecommerce.support.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({OrderService.class, CartService.class, JpaCartStore.class, ProductService.class, ProductCache.class, ProductSearchIndex.class, OutboxService.class, InventoryService.class})
+class CheckoutQueryCountTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JpaCartStore cartStore;
+
+    @Test
+    void createOrder_LoadsProductsWithOneQueryWhateverTheCartSize() {
+        long singleLineStatements = checkoutStatements(1);
+        long productSelectsForSingleLine = SqlStatementCounter.count("select", "product");
+
+        long fortyLineStatements = checkoutStatements(40);
+        long productSelectsForFortyLines = SqlStatementCounter.count("select", "product");
+
+        assertEquals(1, productSelectsForSingleLine);
+        assertEquals(1, productSelectsForFortyLines);
+        assertEquals(singleLineStatements, fortyLineStatements);
+    }
+
+    @Test
+    void createOrder_SplitsVeryLargeCartsIntoBoundedChunks() {
+        Object defaultBatchSize = ReflectionTestUtils.getField(productService, "lookupBatchSize");
+        ReflectionTestUtils.setField(productService, "lookupBatchSize", 16);
+        try {
+            Order order = checkout(40);
+
+            assertEquals(40, order.getItems().size());
+            assertEquals(3, SqlStatementCounter.count("select", "product"));
+        } finally {
+            ReflectionTestUtils.setField(productService, "lookupBatchSize", defaultBatchSize);
+        }
+    }
+
+    @Test
+    void createOrder_RecordsOrderCreatedEventInOutbox() {
+        Order order = checkout(2);
+        entityManager.flush();
+
+        List<OutboxEvent> pending = outboxEventRepository.findBatchForRelay(Limit.of(10));
+
+        assertEquals(1, pending.size());
+        assertEquals(OutboxService.ORDER_CREATED, pending.get(0).getEventType());
+        assertEquals(String.valueOf(order.getCustomer().getId()), pending.get(0).getEventKey());
+        OrderCreatedEvent event = new OrderCreatedEventCodec().decode(pending.get(0).getPayload());
+        assertEquals(order.getId(), event.getOrderId());
+        assertEquals(2, event.getItems().size());
+    }
+
+    @Test
+    void createOrder_WritesAllOrderLinesInOneBatch() {
+        Order order = checkout(30);
+        entityManager.flush();
+
+        assertEquals(30, order.getItems().size());
+        assertEquals(1, SqlStatementCounter.count("insert", "order_item")); // One JDBC batch, not 30 round trips
+        assertEquals(1, SqlStatementCounter.count("delete", "cart_item"));
+    }
+
+    @Test
+    void createOrder_RunsAFixedSequenceOfStatements() {
+        checkoutStatements(25);
+
+        // load: cart and lines; price: products; persist: stock, order, lines (one batch);
+        // clear: cart version (locked), lines, cart; publish: outbox. No customer read, no update after insert.
+        assertEquals(9, checkoutStatements(25), SqlStatementCounter.statements().toString());
+        assertEquals(0, SqlStatementCounter.count("select", "customer"));
+        assertEquals(2, SqlStatementCounter.count("select", "cart"));
+        assertEquals(0, SqlStatementCounter.count("update"), SqlStatementCounter.statements().toString());
+    }
+
+    @Test
+    void clearOrdered_RefusesToDeleteACartChangedAfterItWasPriced() {
+        Customer customer = customerRepository.save(
+                new Customer("Jane Doe", "jane@example.com", "secret", "1234567890", "1 Main St"));
+        Product first = productRepository.save(new Product("First", 10.0, "First"));
+        Product second = productRepository.save(new Product("Second", 20.0, "Second"));
+        cartStore.addItem(customer.getId(), first.getId(), 1);
+        Cart priced = cartStore.getCart(customer.getId());
+
+        // Another request adds a line before the checkout clears the cart
+        cartStore.addItem(customer.getId(), second.getId(), 1);
+
+        assertThrows(CartServiceException.class, () -> cartStore.clearOrdered(customer.getId(), priced));
+    }
+
+    // Runs a checkout, flushes it and returns the statements it issued. Id sequence calls are left out:
+    // one happens only every 50 ids, so whether a given checkout makes one depends on the ones before it.
+    private long checkoutStatements(int lines) {
+        checkout(lines);
+        entityManager.flush();
+        return SqlStatementCounter.statements().stream()
+                .map(String::toLowerCase)
+                .filter(sql -> !sql.contains("_seq"))
+                .count();
+    }
+
+    private Order checkout(int lines) {
+        Customer customer = customerRepository.save(
+                new Customer("Jane Doe", "jane@example.com", "secret", "1234567890", "1 Main St"));
+
+        List<CartItem> items = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            Product product = productRepository.save(new Product("Product " + i, 10.0 + i, "Description " + i));
+            items.add(new CartItem(product.getId(), 1));
+        }
+        cartRepository.save(new Cart(customer, items));
+
+        entityManager.flush();
+        entityManager.clear();
+        SqlStatementCounter.reset();
+
+        return orderService.createOrder(customer.getId());
+    }
+}
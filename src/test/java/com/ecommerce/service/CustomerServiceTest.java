@@ -55,7 +55,7 @@ class CustomerServiceTest {
     @Test
     void getAllCustomers_Success() {
         // Arrange
-        when(customerRepository.findAll()).thenReturn(Arrays.asList(customer));
+        when(customerRepository.findAllWithCartBy()).thenReturn(Arrays.asList(customer));
 
         // Act
         List<Customer> customers = customerService.getAllCustomers();
@@ -63,13 +63,13 @@ class CustomerServiceTest {
         // Assert
         assertFalse(customers.isEmpty());
         assertEquals(1, customers.size());
-        verify(customerRepository, times(1)).findAll();
+        verify(customerRepository, times(1)).findAllWithCartBy();
     }
 
     @Test
     void getCustomerById_Success() {
         // Arrange
-        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(customerRepository.findWithCartById(1L)).thenReturn(Optional.of(customer));
 
         // Act
         Customer foundCustomer = customerService.getCustomerById(1L);
@@ -77,18 +77,18 @@ class CustomerServiceTest {
         // Assert
         assertNotNull(foundCustomer);
         assertEquals("John Doe", foundCustomer.getName());
-        verify(customerRepository, times(1)).findById(1L);
+        verify(customerRepository, times(1)).findWithCartById(1L);
     }
 
     @Test
     void getCustomerById_NotFound() {
         // Arrange
-        when(customerRepository.findById(1L)).thenReturn(Optional.empty());
+        when(customerRepository.findWithCartById(1L)).thenReturn(Optional.empty());
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> customerService.getCustomerById(1L));
         assertEquals("Customer not found with ID: 1", exception.getMessage());
-        verify(customerRepository, times(1)).findById(1L);
+        verify(customerRepository, times(1)).findWithCartById(1L);
     }
 
     @Test
@@ -101,7 +101,7 @@ class CustomerServiceTest {
         updatedCustomer.setPhoneNumber("0987654321");
         updatedCustomer.setAddress("456 Elm St");
 
-        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(customerRepository.findWithCartById(1L)).thenReturn(Optional.of(customer));
         when(customerRepository.save(customer)).thenReturn(customer);
 
         // Act
@@ -111,7 +111,7 @@ class CustomerServiceTest {
         assertNotNull(result);
         assertEquals("Jane Doe", result.getName());
         assertEquals("jane.doe@example.com", result.getEmail());
-        verify(customerRepository, times(1)).findById(1L);
+        verify(customerRepository, times(1)).findWithCartById(1L);
         verify(customerRepository, times(1)).save(customer);
     }
 
@@ -0,0 +1,183 @@
+package com.ecommerce.service;
+
+import com.ecommerce.exception.InsufficientStockException;
+import com.ecommerce.model.Customer;
+import com.ecommerce.model.Product;
+import com.ecommerce.repository.CustomerRepository;
+import com.ecommerce.repository.InventoryRepository;
+import com.ecommerce.repository.OrderRepository;
+import com.ecommerce.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Flash sale: many more customers than units check out the same product at once; exactly the stocked
+// number of orders must go through and the stored stock must end at zero
+@SpringBootTest
+class InventoryOversellTest {
+
+    private static final int STOCK = 50;
+    private static final int CUSTOMERS = 300;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void concurrentCheckouts_NeverSellMoreThanStock() throws Exception {
+        Product product = productRepository.save(new Product("Flash Sale Item", 9.99, "Limited stock"));
+        inventoryService.restock(product.getId(), STOCK);
+
+        List<Long> customerIds = new ArrayList<>();
+        for (int i = 0; i < CUSTOMERS; i++) {
+            Customer customer = customerRepository.save(new Customer("Customer " + i,
+                    "oversell" + i + "@example.com", "secret", "1234567890", "1 Main St"));
+            cartService.addToCart(customer.getId(), product.getId(), 1);
+            customerIds.add(customer.getId());
+        }
+        long ordersBefore = orderRepository.count();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        int succeeded = 0;
+        int outOfStock = 0;
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Long customerId : customerIds) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return orderService.createOrder(customerId);
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                try {
+                    future.get(60, TimeUnit.SECONDS);
+                    succeeded++;
+                } catch (ExecutionException ex) {
+                    assertInstanceOf(InsufficientStockException.class, ex.getCause());
+                    outOfStock++;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(STOCK, succeeded);
+        assertEquals(CUSTOMERS - STOCK, outOfStock);
+        assertEquals(ordersBefore + STOCK, orderRepository.count());
+
+        inventoryService.flush();
+        assertEquals(0, inventoryRepository.findById(product.getId()).orElseThrow().getOnHand());
+        assertEquals(0, inventoryService.getStockLevel(product.getId()).getAvailable());
+    }
+
+    // Two nodes, each with its own counters, selling the same product from one inventory table
+    @Test
+    void concurrentReservationsOnTwoNodes_NeverSellMoreThanStock() throws Exception {
+        Product product = productRepository.save(new Product("Two Node Item", 4.99, "Limited stock"));
+        inventoryService.restock(product.getId(), STOCK);
+        InventoryService otherNode = new InventoryService();
+        ReflectionTestUtils.setField(otherNode, "inventoryRepository", inventoryRepository);
+        ReflectionTestUtils.setField(otherNode, "transactionTemplate", transactionTemplate);
+        List<InventoryService> nodes = List.of(inventoryService, otherNode);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        int sold = 0;
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < CUSTOMERS; i++) {
+                InventoryService node = nodes.get(i % 2);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        transactionTemplate.executeWithoutResult(status ->
+                                node.reserveForCurrentTransaction(Map.of(product.getId(), 1)));
+                        return true;
+                    } catch (InsufficientStockException ex) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<Boolean> future : futures) {
+                if (future.get(60, TimeUnit.SECONDS)) {
+                    sold++;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(STOCK, sold);
+        assertEquals(0, inventoryRepository.findById(product.getId()).orElseThrow().getOnHand());
+
+        // A restock on one node is sold by the other
+        inventoryService.restock(product.getId(), 1);
+        transactionTemplate.executeWithoutResult(status -> otherNode.reserveForCurrentTransaction(Map.of(product.getId(), 1)));
+    }
+
+    // Many first restocks of an untracked product at once: only one can insert the row, the others must add
+    // their units to it instead of failing
+    @Test
+    void concurrentFirstRestocks_AllAddUp() throws Exception {
+        Product product = productRepository.save(new Product("New Arrival", 2.99, "Not tracked yet"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return inventoryService.restock(product.getId(), 5);
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(THREADS * 5, inventoryRepository.findById(product.getId()).orElseThrow().getOnHand());
+        assertEquals(THREADS * 5, inventoryService.getStockLevel(product.getId()).getAvailable());
+    }
+}
@@ -0,0 +1,239 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.StockLevel;
+import com.ecommerce.exception.InsufficientStockException;
+import com.ecommerce.model.Inventory;
+import com.ecommerce.repository.InventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryServiceTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private InventoryService inventoryService;
+
+    // The inventory table, by product id
+    private final Map<Long, Integer> stored = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        // Run the service's transaction callbacks inline
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void reserve_LeasesNoMoreThanTheStoredStock() {
+        stock(1L, 5);
+
+        InventoryService.Reservation reservation = inventoryService.reserve(Map.of(1L, 3));
+
+        assertEquals(Map.of(1L, 3), reservation.getQuantities());
+        assertThrows(InsufficientStockException.class, () -> inventoryService.reserve(Map.of(1L, 3)));
+        inventoryService.reserve(Map.of(1L, 2));
+        assertEquals(0, stored.get(1L));
+        verify(inventoryRepository, times(1)).findAllById(anyIterable()); // Looked up once, then served from memory
+    }
+
+    @Test
+    void reserve_LeasesAheadSoLaterCheckoutsStayInMemory() {
+        stock(1L, 100);
+
+        for (int i = 0; i < 21; i++) {
+            inventoryService.commit(inventoryService.reserve(Map.of(1L, 1)));
+        }
+
+        verify(inventoryRepository, times(1)).lease(anyLong(), anyInt());
+        assertEquals(79, stored.get(1L));
+    }
+
+    @Test
+    void reserve_SeesStockAddedOrSoldOnOtherNodes() {
+        stock(1L, 30);
+        inventoryService.commit(inventoryService.reserve(Map.of(1L, 1))); // Leases 21, 9 left in the row
+
+        stored.put(1L, 0); // Another node sold the rest
+        assertThrows(InsufficientStockException.class, () -> inventoryService.reserve(Map.of(1L, 25)));
+
+        stored.put(1L, 10); // Another node restocked
+        assertEquals(Map.of(1L, 25), inventoryService.reserve(Map.of(1L, 25)).getQuantities());
+        assertEquals(5, stored.get(1L)); // 20 units were still leased here, 5 more were leased now
+    }
+
+    @Test
+    void reserve_IsAllOrNothing() {
+        stock(1L, 5);
+        stock(2L, 1);
+
+        InsufficientStockException ex = assertThrows(InsufficientStockException.class,
+                () -> inventoryService.reserve(orderedMap(1L, 3, 2L, 2)));
+
+        assertEquals(2L, ex.getProductId());
+        // The 3 units of product 1 were given back
+        assertEquals(Map.of(1L, 5), inventoryService.reserve(Map.of(1L, 5)).getQuantities());
+    }
+
+    @Test
+    void reserve_UntrackedProductsAreNeverShort() {
+        when(inventoryRepository.findAllById(anyIterable())).thenReturn(List.of());
+
+        InventoryService.Reservation reservation = inventoryService.reserve(Map.of(9L, 1_000_000));
+
+        assertTrue(reservation.getQuantities().isEmpty());
+        inventoryService.commit(reservation);
+        inventoryService.flush();
+        verify(inventoryRepository, never()).lease(any(), anyInt());
+        verify(inventoryRepository, never()).adjustOnHand(any(), anyInt());
+    }
+
+    @Test
+    void reserve_RechecksUntrackedProductsAfterAWhile() {
+        ReflectionTestUtils.setField(inventoryService, "untrackedRecheckMs", 0L);
+        when(inventoryRepository.findAllById(anyIterable())).thenReturn(List.of());
+        inventoryService.reserve(Map.of(1L, 100));
+
+        stock(1L, 5); // Restocked on another node
+        assertThrows(InsufficientStockException.class, () -> inventoryService.reserve(Map.of(1L, 100)));
+    }
+
+    @Test
+    void release_GivesUnitsBack() {
+        stock(1L, 2);
+
+        inventoryService.release(inventoryService.reserve(Map.of(1L, 2)));
+
+        assertDoesNotThrow(() -> inventoryService.reserve(Map.of(1L, 2)));
+    }
+
+    @Test
+    void flush_ReturnsUnsoldUnitsOfProductsNoLongerSelling() {
+        stock(1L, 100);
+        inventoryService.commit(inventoryService.reserve(Map.of(1L, 5))); // Leases 25
+
+        inventoryService.flush(); // Sold from since the last flush: keeps its units
+        assertEquals(75, stored.get(1L));
+
+        inventoryService.flush();
+        assertEquals(95, stored.get(1L));
+        verify(inventoryRepository, times(1)).adjustOnHand(1L, 20);
+    }
+
+    @Test
+    void flush_KeepsUnitsWhenTheWriteFails() {
+        stock(1L, 100);
+        inventoryService.commit(inventoryService.reserve(Map.of(1L, 5)));
+        inventoryService.flush();
+        doThrow(new RuntimeException("Database down"))
+                .doAnswer(invocation -> adjust(1L, 20))
+                .when(inventoryRepository).adjustOnHand(1L, 20);
+
+        inventoryService.flush();
+        inventoryService.flush();
+
+        verify(inventoryRepository, times(2)).adjustOnHand(1L, 20);
+        assertEquals(95, stored.get(1L));
+    }
+
+    @Test
+    void getStockLevel_CountsStoredAndLeasedUnits() {
+        stock(1L, 100);
+
+        inventoryService.commit(inventoryService.reserve(Map.of(1L, 3))); // Sold 3, leased 20 more
+        inventoryService.reserve(Map.of(1L, 2));
+        StockLevel level = inventoryService.getStockLevel(1L);
+
+        assertTrue(level.isTracked());
+        assertEquals(97, level.getOnHand());
+        assertEquals(95, level.getAvailable());
+    }
+
+    @Test
+    void restock_AddsToTheRowOfAConcurrentFirstRestock() {
+        stock(1L, 0);
+        stored.remove(1L); // Not tracked yet
+        doAnswer(invocation -> {
+            stored.put(1L, 5); // Another restock inserted the row first
+            throw new DataIntegrityViolationException("Duplicate key 1");
+        }).when(inventoryRepository).insert(1L, 3);
+
+        StockLevel level = inventoryService.restock(1L, 3);
+
+        assertEquals(8, stored.get(1L));
+        assertEquals(8, level.getOnHand());
+        verify(inventoryRepository, times(2)).adjustOnHand(1L, 3);
+    }
+
+    @Test
+    void reserveForCurrentTransaction_RequiresATransaction() {
+        assertThrows(IllegalStateException.class, () -> inventoryService.reserveForCurrentTransaction(Map.of(1L, 1)));
+    }
+
+    // Backs the repository mock with the stored map, so leases and give-backs behave like the row updates
+    private void stock(Long productId, int onHand) {
+        stored.put(productId, onHand);
+        lenient().when(inventoryRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            List<Inventory> rows = new ArrayList<>();
+            invocation.<Iterable<Long>>getArgument(0).forEach(id -> {
+                if (stored.containsKey(id)) {
+                    rows.add(new Inventory(id, stored.get(id)));
+                }
+            });
+            return rows;
+        });
+        lenient().when(inventoryRepository.findById(productId))
+                .thenAnswer(invocation -> Optional.of(new Inventory(productId, stored.get(productId))));
+        lenient().when(inventoryRepository.lease(eq(productId), anyInt())).thenAnswer(invocation -> {
+            int quantity = invocation.getArgument(1);
+            if (stored.get(productId) < quantity) {
+                return 0;
+            }
+            return adjust(productId, -quantity);
+        });
+        lenient().when(inventoryRepository.adjustOnHand(eq(productId), anyInt())).thenAnswer(invocation ->
+                stored.containsKey(productId) ? adjust(productId, invocation.getArgument(1)) : 0);
+    }
+
+    private int adjust(Long productId, int delta) {
+        stored.merge(productId, delta, Integer::sum);
+        return 1;
+    }
+
+    private static Map<Long, Integer> orderedMap(Long firstId, int firstQuantity, Long secondId, int secondQuantity) {
+        Map<Long, Integer> map = new LinkedHashMap<>();
+        map.put(firstId, firstQuantity);
+        map.put(secondId, secondQuantity);
+        return map;
+    }
+}
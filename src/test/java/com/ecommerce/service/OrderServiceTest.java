@@ -1,23 +1,26 @@
 package com.ecommerce.service;
 
+import com.ecommerce.dto.OrderFilter;
+import com.ecommerce.dto.OrderSummary;
+import com.ecommerce.exception.InsufficientStockException;
 import com.ecommerce.exception.OrderNotFoundException;
 import com.ecommerce.exception.OrderServiceException;
 import com.ecommerce.model.*;
-import com.ecommerce.repository.CartRepository;
 import com.ecommerce.repository.CustomerRepository;
 import com.ecommerce.repository.OrderRepository;
-import com.ecommerce.repository.ProductRepository;
-import com.ecommerce.kafka.OrderProducer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -33,16 +36,16 @@ class OrderServiceTest {
     private CartService cartService;
 
     @Mock
-    private ProductRepository productRepository;
+    private ProductService productService;
 
     @Mock
     private CustomerRepository customerRepository;
 
     @Mock
-    private CartRepository cartRepository;
+    private OutboxService outboxService;
 
     @Mock
-    private OrderProducer orderProducer;
+    private InventoryService inventoryService;
 
     @InjectMocks
     private OrderService orderService;
@@ -83,12 +86,10 @@ class OrderServiceTest {
         cartItem.setQuantity(2);
         cart.setItems(Collections.singletonList(cartItem));
 
-        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
         when(cartService.getOrCreateCart(1L)).thenReturn(cart);
-        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(customerRepository.getReferenceById(1L)).thenReturn(customer);
+        when(productService.getProductsByIds(List.of(1L))).thenReturn(Map.of(1L, product));
         when(orderRepository.save(any(Order.class))).thenReturn(order);
-        doNothing().when(orderProducer).sendOrder(any(Order.class));
-        doNothing().when(cartService).clearCart(1L);
 
         // Act
         Order createdOrder = orderService.createOrder(1L);
@@ -96,45 +97,122 @@ class OrderServiceTest {
         // Assert
         assertNotNull(createdOrder);
         assertEquals("CREATED", createdOrder.getStatus());
-        verify(orderProducer, times(1)).sendOrder(any(Order.class));
+        verify(inventoryService, times(1)).reserveForCurrentTransaction(Map.of(1L, 2));
+        verify(cartService, times(1)).clearOrderedCart(1L, cart);
+        verify(outboxService, times(1)).enqueueOrderCreated(order);
+        verify(customerRepository, never()).findById(anyLong()); // Referenced, not loaded
     }
 
     @Test
-    void createOrder_CustomerNotFound() {
+    void createOrder_InsufficientStock() {
+        // Arrange
+        cart.setItems(Collections.singletonList(new CartItem(1L, 2)));
+
+        when(cartService.getOrCreateCart(1L)).thenReturn(cart);
+        when(productService.getProductsByIds(List.of(1L))).thenReturn(Map.of(1L, product));
+        doThrow(new InsufficientStockException(1L, 2)).when(inventoryService).reserveForCurrentTransaction(Map.of(1L, 2));
+
+        // Act & Assert
+        assertThrows(InsufficientStockException.class, () -> orderService.createOrder(1L));
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(cartService, never()).clearOrderedCart(anyLong(), any(Cart.class));
+    }
+
+    @Test
+    void createOrder_LoadsAllCartProductsInOneLookup() {
+        // Arrange
+        CartItem first = new CartItem(1L, 2);
+        CartItem second = new CartItem(2L, 1);
+        cart.setItems(List.of(first, second));
+
+        Product other = new Product("Other Product", 50.0, "Other Description");
+        other.setId(2L);
+
+        when(cartService.getOrCreateCart(1L)).thenReturn(cart);
+        when(productService.getProductsByIds(List.of(1L, 2L))).thenReturn(Map.of(1L, product, 2L, other));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Order createdOrder = orderService.createOrder(1L);
+
+        // Assert
+        assertEquals(250.0, createdOrder.getTotalAmount());
+        assertEquals(2, createdOrder.getItems().size());
+        verify(productService, times(1)).getProductsByIds(anyList());
+    }
+
+    @Test
+    void createOrder_ProductNotFound() {
         // Arrange
-        when(customerRepository.findById(1L)).thenReturn(Optional.empty());
+        cart.setItems(Collections.singletonList(new CartItem(1L, 2)));
+
+        when(cartService.getOrCreateCart(1L)).thenReturn(cart);
+        when(productService.getProductsByIds(List.of(1L))).thenReturn(Map.of());
 
         // Act & Assert
         assertThrows(OrderServiceException.class, () -> orderService.createOrder(1L));
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void createOrder_CustomerNotFound() {
+        // Arrange
+        when(cartService.getOrCreateCart(1L)).thenReturn(cart);
+        when(customerRepository.existsById(1L)).thenReturn(false);
+
+        // Act & Assert
+        OrderServiceException ex = assertThrows(OrderServiceException.class, () -> orderService.createOrder(1L));
+        assertEquals("Customer not found: 1", ex.getMessage());
     }
 
     @Test
     void createOrder_EmptyCart() {
         // Arrange
-        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
         when(cartService.getOrCreateCart(1L)).thenReturn(cart);
+        when(customerRepository.existsById(1L)).thenReturn(true);
 
         // Act & Assert
         assertThrows(OrderServiceException.class, () -> orderService.createOrder(1L));
     }
 
     @Test
-    void getAllOrders_Success() {
+    void getOrderSummaries_Success() {
         // Arrange
-        when(orderRepository.findAll()).thenReturn(Collections.singletonList(order));
+        OrderSummary summary = new OrderSummary(1L, 1L, "CREATED", 200.0, null);
+        when(orderRepository.findSummaries(1L, "CREATED", null, null, null, Limit.of(50)))
+                .thenReturn(Collections.singletonList(summary));
 
         // Act
-        List<Order> orders = orderService.getAllOrders();
+        List<OrderSummary> orders = orderService.getOrderSummaries(new OrderFilter(1L, "CREATED", null, null), null, null);
 
         // Assert
         assertFalse(orders.isEmpty());
         assertEquals(1, orders.size());
+        verify(orderRepository, never()).findAll();
+    }
+
+    @Test
+    void forEachOrderSummaryPage_WalksPagesNewestFirst() {
+        // Arrange
+        ReflectionTestUtils.setField(orderService, "streamChunkSize", 2);
+        OrderSummary newest = new OrderSummary(3L, 1L, "CREATED", 30.0, null);
+        OrderSummary middle = new OrderSummary(2L, 1L, "CREATED", 20.0, null);
+        OrderSummary oldest = new OrderSummary(1L, 1L, "CREATED", 10.0, null);
+        when(orderRepository.findSummaries(null, null, null, null, null, Limit.of(2))).thenReturn(List.of(newest, middle));
+        when(orderRepository.findSummaries(null, null, null, null, 2L, Limit.of(2))).thenReturn(List.of(oldest));
+
+        // Act
+        List<OrderSummary> exported = new ArrayList<>();
+        orderService.forEachOrderSummaryPage(null, exported::addAll);
+
+        // Assert
+        assertEquals(List.of(newest, middle, oldest), exported);
     }
 
     @Test
     void getOrderById_Success() {
         // Arrange
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(order));
 
         // Act
         Order foundOrder = orderService.getOrderById(1L);
@@ -147,7 +225,7 @@ class OrderServiceTest {
     @Test
     void getOrderById_NotFound() {
         // Arrange
-        when(orderRepository.findById(1L)).thenReturn(Optional.empty());
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(OrderServiceException.class, () -> orderService.getOrderById(1L));
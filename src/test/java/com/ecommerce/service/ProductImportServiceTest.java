@@ -0,0 +1,120 @@
+package com.ecommerce.service;
+
+import com.ecommerce.cache.ProductCache;
+import com.ecommerce.dto.ProductImportReport;
+import com.ecommerce.kafka.ProductProducer;
+import com.ecommerce.model.Product;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.search.ProductSearchIndex;
+import com.ecommerce.support.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.AutoConfigureJson;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@AutoConfigureJson
+@Import({ProductImportService.class, ProductService.class, ProductCache.class, ProductSearchIndex.class})
+class ProductImportServiceTest {
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @MockitoBean
+    private ProductProducer productProducer;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(productImportService, "importBatchSize", 10);
+    }
+
+    @Test
+    void importCsv_InsertsInJdbcBatchesAndPublishesPerBatch() {
+        StringBuilder csv = new StringBuilder("name,price,description\n");
+        for (int i = 0; i < 25; i++) {
+            csv.append("Bulk ").append(i).append(',').append(10 + i).append(",\"Row ").append(i).append(", imported\"\n");
+        }
+        long before = productRepository.count();
+        SqlStatementCounter.reset();
+
+        ProductImportReport report = productImportService.importProducts(stream(csv.toString()), ProductImportService.FORMAT_CSV);
+
+        assertEquals(ProductImportReport.Status.COMPLETED, report.getStatus());
+        assertEquals(25, report.getRowsRead());
+        assertEquals(25, report.getImported());
+        assertEquals(before + 25, productRepository.count());
+        assertEquals(3, SqlStatementCounter.count("insert", "product"), "One JDBC batch per 10 rows");
+        verify(productProducer, times(3)).sendProductsCreated(anyList());
+        assertTrue(productRepository.findAll().stream().anyMatch(p -> "Row 3, imported".equals(p.getDescription())));
+    }
+
+    @Test
+    void importCsv_ReportsBadRowsAndImportsTheRest() {
+        String csv = "name,price,description\n"
+                + "Good,5.0,ok\n"
+                + ",5.0,missing name\n"
+                + "Cheap,0,zero price\n"
+                + "Broken,abc,bad number\n"
+                + "Undefined,NaN,not a number\n"
+                + "Priceless,Infinity,infinite price\n"
+                + "Also good,7.5,ok\n";
+
+        ProductImportReport report = productImportService.importProducts(stream(csv), ProductImportService.FORMAT_CSV);
+
+        assertEquals(ProductImportReport.Status.COMPLETED, report.getStatus());
+        assertEquals(7, report.getRowsRead());
+        assertEquals(2, report.getImported());
+        assertEquals(5, report.getFailed());
+        assertEquals(List.of(2L, 3L, 4L, 5L, 6L), report.getErrors().stream().map(ProductImportReport.RowError::getRow).toList());
+        assertEquals("Product name cannot be empty", report.getErrors().get(0).getMessage());
+        assertEquals("Product price must be a finite number greater than 0", report.getErrors().get(3).getMessage());
+        assertEquals("Product price must be a finite number greater than 0", report.getErrors().get(4).getMessage());
+    }
+
+    @Test
+    void importJson_StreamsArrayAndSkipsInvalidElements() {
+        String json = "[{\"name\":\"Json 1\",\"price\":12.5,\"description\":\"first\"},"
+                + "{\"name\":\"Json 2\",\"price\":\"not a number\"},"
+                + "42,"
+                + "{\"id\":999,\"name\":\"Json 3\",\"price\":3}]";
+
+        ProductImportReport report = productImportService.importProducts(stream(json), ProductImportService.FORMAT_JSON);
+
+        assertEquals(ProductImportReport.Status.COMPLETED, report.getStatus());
+        assertEquals(4, report.getRowsRead());
+        assertEquals(2, report.getImported());
+        assertEquals(List.of(2L, 3L), report.getErrors().stream().map(ProductImportReport.RowError::getRow).toList());
+        assertFalse(productRepository.existsById(999L), "Ids in the upload are ignored");
+    }
+
+    @Test
+    void importJson_MalformedInputStopsTheImport() {
+        String json = "[{\"name\":\"Fine\",\"price\":1},{\"name\":";
+
+        ProductImportReport report = productImportService.importProducts(stream(json), ProductImportService.FORMAT_JSON);
+
+        assertEquals(ProductImportReport.Status.FAILED, report.getStatus());
+        assertNotNull(report.getFailure());
+        assertEquals(report.getId(), productImportService.getRecentImports().get(0).getId());
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,17 +1,27 @@
 package com.ecommerce.service;
 
+import com.ecommerce.cache.ProductCache;
+import com.ecommerce.dto.ProductFilter;
+import com.ecommerce.dto.ProductSort;
 import com.ecommerce.exception.ProductNotFoundException;
 import com.ecommerce.exception.ProductServiceException;
 import com.ecommerce.model.Product;
 import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.search.ProductSearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -22,6 +32,12 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Spy
+    private ProductCache productCache = new ProductCache(100, Duration.ofMinutes(10));
+
     @InjectMocks
     private ProductService productService;
 
@@ -80,6 +96,71 @@ class ProductServiceTest {
         verify(productRepository, times(1)).findAll();
     }
 
+    @Test
+    void testGetProductsPage_ClampsSizeAndStartsAfterCursor() {
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class))).thenReturn(List.of());
+
+        productService.getProductsPage(null, 100_000);
+
+        verify(productRepository).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(500));
+    }
+
+    @Test
+    void testBrowseProducts_PriceOrderFromLoadedIndex() {
+        Product product = new Product("Lamp", 30.0, null);
+        when(productSearchIndex.isLoaded()).thenReturn(true);
+        when(productSearchIndex.browseByPrice(10.0, null, true, 40.0, 7L, 50)).thenReturn(List.of(product));
+
+        List<Product> page = productService.browseProducts(ProductSort.PRICE_DESC, new ProductFilter(10.0, null), 7L, 40.0, null, null);
+
+        assertEquals(List.of(product), page);
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void testBrowseProducts_DatabaseUntilIndexLoaded() {
+        productService.browseProducts(ProductSort.PRICE_ASC, null, null, null, null, 20);
+
+        verify(productRepository).findFirstPageByPriceAsc(0, Double.MAX_VALUE, Limit.of(20));
+        verify(productSearchIndex, never()).browseByPrice(any(), any(), anyBoolean(), any(), any(), anyInt());
+    }
+
+    @Test
+    void testBrowseProducts_NameOrderFromDatabase() {
+        when(productSearchIndex.isLoaded()).thenReturn(true);
+
+        productService.browseProducts(ProductSort.NAME_ASC, new ProductFilter(5.0, 50.0), 3L, null, "Lamp", 10);
+
+        verify(productRepository).findNextPageByNameAsc(5.0, 50.0, "Lamp", 3L, Limit.of(10));
+    }
+
+    @Test
+    void testBrowseProducts_CursorNeedsSortValue() {
+        assertThrows(ProductServiceException.class,
+                () -> productService.browseProducts(ProductSort.NAME_DESC, null, 3L, 30.0, null, null));
+    }
+
+    @Test
+    void testForEachProductPage_ReadsCatalogInChunks() {
+        ReflectionTestUtils.setField(productService, "streamChunkSize", 2);
+        Product product1 = new Product("Product 1", 10.0, "One");
+        product1.setId(1L);
+        Product product2 = new Product("Product 2", 20.0, "Two");
+        product2.setId(2L);
+        Product product3 = new Product("Product 3", 30.0, "Three");
+        product3.setId(3L);
+
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2))).thenReturn(List.of(product1, product2));
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(2L, Limit.of(2))).thenReturn(List.of(product3));
+
+        List<List<Product>> pages = new ArrayList<>();
+        productService.forEachProductPage(pages::add);
+
+        assertEquals(2, pages.size());
+        assertEquals(List.of(product3), pages.get(1));
+        verify(productRepository, times(2)).findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class));
+    }
+
     @Test
     void testGetProductById_Success() {
         Product product = new Product();
@@ -95,6 +176,38 @@ class ProductServiceTest {
         verify(productRepository, times(1)).findById(1L);
     }
 
+    @Test
+    void testGetProductById_ServedFromCacheAfterFirstRead() {
+        Product product = new Product("Test Product", 100.0, "Test Description");
+        product.setId(1L);
+
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        productService.getProductById(1L);
+        Product cachedProduct = productService.getProductById(1L);
+
+        assertEquals("Test Product", cachedProduct.getName());
+        verify(productRepository, times(1)).findById(1L);
+        assertEquals(1, productCache.stats().hitCount());
+    }
+
+    @Test
+    void testCreateProduct_EvictsCachedCopy() {
+        Product product = new Product("Test Product", 100.0, "Test Description");
+        product.setId(1L);
+        Product renamed = new Product("Renamed Product", 100.0, "Test Description");
+        renamed.setId(1L);
+
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product)).thenReturn(Optional.of(renamed));
+        when(productRepository.save(renamed)).thenReturn(renamed);
+
+        productService.getProductById(1L);
+        productService.createProduct(renamed);
+
+        assertEquals("Renamed Product", productService.getProductById(1L).getName());
+        verify(productRepository, times(2)).findById(1L);
+    }
+
     @Test
     void testGetProductById_NotFound() {
         when(productRepository.findById(1L)).thenReturn(Optional.empty());
@@ -113,6 +226,7 @@ class ProductServiceTest {
         productService.deleteProduct(1L);
 
         verify(productRepository, times(1)).deleteById(1L);
+        verify(productCache, times(1)).evict(1L);
     }
 
     @Test
@@ -121,4 +235,24 @@ class ProductServiceTest {
 
         assertThrows(ProductNotFoundException.class, () -> productService.deleteProduct(1L));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetProductsByIds_SplitsLargeLookupsIntoChunks() {
+        ReflectionTestUtils.setField(productService, "lookupBatchSize", 2);
+        Product product1 = new Product("Product 1", 10.0, "One");
+        product1.setId(1L);
+        Product product2 = new Product("Product 2", 20.0, "Two");
+        product2.setId(2L);
+        Product product3 = new Product("Product 3", 30.0, "Three");
+        product3.setId(3L);
+
+        when(productRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(product1, product2));
+        when(productRepository.findAllById(List.of(3L))).thenReturn(List.of(product3));
+
+        Map<Long, Product> products = productService.getProductsByIds(List.of(1L, 2L, 2L, 3L));
+
+        assertEquals(3, products.size());
+        assertEquals("Product 3", products.get(3L).getName());
+        verify(productRepository, times(2)).findAllById(anyList());
+    }
+}
@@ -0,0 +1,112 @@
+package com.ecommerce.service;
+
+import com.ecommerce.cache.ProductCache;
+import com.ecommerce.exception.ProductNotFoundException;
+import com.ecommerce.model.Product;
+import com.ecommerce.search.ProductSearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReactiveProductServiceTest {
+
+    @Mock
+    private ProductService productService;
+
+    @Spy
+    private ProductCache productCache = new ProductCache(100, Duration.ofMinutes(10));
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @InjectMocks
+    private ReactiveProductService reactiveProductService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        reactiveProductService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        reactiveProductService.stop();
+    }
+
+    @Test
+    void getProductById_LoadsOffTheCallingThread() {
+        Thread caller = Thread.currentThread();
+        when(productService.getProductById(1L)).thenAnswer(invocation -> {
+            assertNotSame(caller, Thread.currentThread());
+            return product(1L);
+        });
+
+        Product product = reactiveProductService.getProductById(1L).block(Duration.ofSeconds(5));
+
+        assertEquals(1L, product.getId());
+    }
+
+    @Test
+    void getProductById_ServesCachedProductWithoutLoading() {
+        productCache.put(product(2L));
+
+        Product product = reactiveProductService.getProductById(2L).block(Duration.ofSeconds(5));
+
+        assertEquals(2L, product.getId());
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void getProductById_NotFoundIsAnError() {
+        when(productService.getProductById(3L)).thenThrow(new ProductNotFoundException("Product not found with ID: 3"));
+
+        assertThrows(ProductNotFoundException.class, () -> reactiveProductService.getProductById(3L).block(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void searchProducts_AnsweredFromTheIndexWithoutTheDatabase() {
+        when(productSearchIndex.search("lamp", null, 50.0, true, 10)).thenReturn(List.of(product(4L)));
+
+        List<Product> products = reactiveProductService.searchProducts("lamp", null, 50.0, true, 10).block(Duration.ofSeconds(5));
+
+        assertEquals(List.of(4L), products.stream().map(Product::getId).toList());
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void streamAllProducts_ReadsChunksUntilAnEmptyOne() {
+        when(productService.getStreamChunk(0L)).thenReturn(List.of(product(1L), product(2L)));
+        when(productService.getStreamChunk(2L)).thenReturn(List.of(product(3L)));
+        when(productService.getStreamChunk(3L)).thenReturn(List.of());
+
+        List<Product> products = reactiveProductService.streamAllProducts().collectList().block(Duration.ofSeconds(5));
+
+        assertEquals(List.of(1L, 2L, 3L), products.stream().map(Product::getId).toList());
+    }
+
+    @Test
+    void streamAllProducts_ReadsOnlyWhatTheSubscriberAsksFor() {
+        when(productService.getStreamChunk(0L)).thenReturn(List.of(product(1L), product(2L)));
+
+        Product first = reactiveProductService.streamAllProducts().take(1).blockFirst(Duration.ofSeconds(5));
+
+        assertEquals(1L, first.getId());
+        verify(productService, times(1)).getStreamChunk(anyLong());
+    }
+
+    private static Product product(Long id) {
+        Product product = new Product("Product " + id, 10.0, "Description " + id);
+        product.setId(id);
+        return product;
+    }
+}
@@ -0,0 +1,56 @@
+package com.ecommerce.support;
+
+import com.ecommerce.metrics.RequestStatementCounter;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+// Hibernate statement inspector used by tests to count the SQL statements issued by a code path.
+// Registered through the test application.yaml, so every SessionFactory created in tests reports here. It replaces
+// the production inspector, which it extends so per-request statement metrics still work in tests.
+public class SqlStatementCounter extends RequestStatementCounter {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return super.inspect(sql);
+    }
+
+    public static void reset() {
+        STATEMENTS.clear();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(STATEMENTS);
+    }
+
+    public static int count() {
+        return STATEMENTS.size();
+    }
+
+    // Counts statements of one kind (select, insert, update, delete), whatever table they touch
+    public static long count(String verb) {
+        String prefix = verb.toLowerCase(Locale.ROOT) + " ";
+        return normalized().filter(sql -> sql.startsWith(prefix)).count();
+    }
+
+    // Counts statements of one kind (select, insert, update, delete) that touch the given table
+    public static long count(String verb, String table) {
+        String prefix = verb.toLowerCase(Locale.ROOT) + " ";
+        String tableToken = " " + table.toLowerCase(Locale.ROOT) + " ";
+        return normalized()
+                .filter(sql -> sql.startsWith(prefix))
+                .filter(sql -> sql.contains(tableToken))
+                .count();
+    }
+
+    // Lower case, single spaces and no identifier quotes, with a trailing space so a table name at the end matches
+    private static Stream<String> normalized() {
+        return STATEMENTS.stream()
+                .map(sql -> sql.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ").replace("`", "") + " ");
+    }
+}